@@ -0,0 +1,93 @@
+package org.jid.metajava;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Source files read by the benchmarks: the sample code of the tests of the library, or files generated with a number of members
+ * per class and a depth of nested classes.
+ */
+public enum BenchmarkCorpus {
+
+  SAMPLE_CODE(0, 0, 0),
+  SMALL_FILES(500, 4, 0),
+  LARGE_FILES(10, 400, 0),
+  DEEPLY_NESTED(50, 4, 8);
+
+  static final String SAMPLE_CODE_PROPERTY = "metajava.benchmarks.sampleCode";
+
+  private final int fileCount;
+  private final int membersPerClass;
+  private final int nestingDepth;
+
+  BenchmarkCorpus(int fileCount, int membersPerClass, int nestingDepth) {
+    this.fileCount = fileCount;
+    this.membersPerClass = membersPerClass;
+    this.nestingDepth = nestingDepth;
+  }
+
+  /**
+   * @param directory Where the generated files are written
+   */
+  List<File> createFiles(Path directory) throws IOException {
+    if (this == SAMPLE_CODE) {
+      String sampleCodeDirectory = System.getProperty(SAMPLE_CODE_PROPERTY);
+      if (sampleCodeDirectory == null) {
+        throw new IllegalStateException("ERROR: System property " + SAMPLE_CODE_PROPERTY + " is not set");
+      }
+      try (Stream<Path> paths = Files.walk(Path.of(sampleCodeDirectory))) {
+        return paths.filter(path -> path.toString().endsWith(".java")).map(Path::toFile).toList();
+      }
+    }
+
+    Path packageDirectory = Files.createDirectories(directory.resolve("org/jid/generated"));
+    List<File> files = new ArrayList<>();
+    for (int i = 0; i < fileCount; i++) {
+      String className = "Generated" + i;
+      files.add(Files.writeString(packageDirectory.resolve(className + ".java"), generateSource(className)).toFile());
+    }
+    return files;
+  }
+
+  private String generateSource(String className) {
+    var source = new StringBuilder("""
+      package org.jid.generated;
+
+      import java.io.Serializable;
+      import java.util.List;
+      import java.util.Map;
+
+      """);
+    appendClass(source, className, 0);
+    return source.toString();
+  }
+
+  private void appendClass(StringBuilder source, String className, int depth) {
+    String indent = "  ".repeat(depth);
+    source.append(indent).append("@Deprecated\n")
+      .append(indent).append(depth == 0 ? "public " : "public static ").append("class ").append(className)
+      .append(" implements Serializable, Comparable<").append(className).append("> {\n");
+    for (int member = 0; member < membersPerClass; member++) {
+      source.append(indent).append("  private final Map<String, List<Integer>> field").append(member).append(" = Map.of();\n")
+        .append(indent).append("  @SuppressWarnings(\"unchecked\")\n")
+        .append(indent).append("  public <T extends Number> List<T> method").append(member)
+        .append("(@Deprecated T value, int... values) {\n")
+        .append(indent).append("    return List.of(value);\n")
+        .append(indent).append("  }\n");
+    }
+    source.append(indent).append("  @Override\n")
+      .append(indent).append("  public int compareTo(").append(className).append(" other) {\n")
+      .append(indent).append("    return 0;\n")
+      .append(indent).append("  }\n");
+    if (depth < nestingDepth) {
+      appendClass(source, "Level" + (depth + 1), depth + 1);
+    }
+    source.append(indent).append("}\n");
+  }
+
+}
@@ -0,0 +1,53 @@
+package org.jid.metajava;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.jid.metajava.model.ClassMeta;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Files of the corpus read by every benchmark operation
+ */
+@State(Scope.Benchmark)
+public class CorpusState {
+
+  @Param
+  public BenchmarkCorpus corpus;
+
+  List<File> files;
+  // Nested classes included
+  int classCount;
+  private Path directory;
+
+  @Setup(Level.Trial)
+  public void createFiles() throws IOException {
+    directory = Files.createTempDirectory("metajava-benchmarks");
+    files = corpus.createFiles(directory);
+    classCount = countClasses(new MetaJava().getMetaFrom(files));
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteFiles() throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  private static int countClasses(Set<ClassMeta> classes) {
+    return classes.stream().mapToInt(classMeta -> 1 + countClasses(classMeta.nestedClasses())).sum();
+  }
+
+}
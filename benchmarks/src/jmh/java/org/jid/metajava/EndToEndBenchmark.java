@@ -0,0 +1,46 @@
+package org.jid.metajava;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.jid.metajava.model.ClassMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link MetaJava#getMetaFrom(java.util.Collection)}, from the files to the classes, with every parser backend
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-exports", "jdk.compiler/com.sun.tools.javac.api=ALL-UNNAMED"})
+@State(Scope.Thread)
+public class EndToEndBenchmark {
+
+  @Param
+  public ParserBackend parserBackend;
+
+  private MetaJava metaJava;
+
+  @Setup(Level.Trial)
+  public void createMetaJava() {
+    metaJava = MetaJava.builder().parserBackend(parserBackend).build();
+  }
+
+  @Benchmark
+  public Set<ClassMeta> getMetaFrom(CorpusState corpusState, ThroughputCounters counters) {
+    counters.count(corpusState);
+    return metaJava.getMetaFrom(corpusState.files);
+  }
+
+}
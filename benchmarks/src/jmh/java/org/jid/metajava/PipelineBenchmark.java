@@ -0,0 +1,64 @@
+package org.jid.metajava;
+
+import com.sun.source.tree.CompilationUnitTree;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.jid.metajava.internal.MetaCanonicalizer;
+import org.jid.metajava.model.ClassMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of every stage of the javac backend: parsing the files into trees ({@link CompilationUnitTreeFactory}), and extracting
+ * the classes from the trees ({@link MetaExtractor} and the processors).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-exports", "jdk.compiler/com.sun.tools.javac.api=ALL-UNNAMED"})
+@State(Scope.Thread)
+public class PipelineBenchmark {
+
+  private final CompilationUnitTreeFactory compilationUnitTreeFactory = new CompilationUnitTreeFactory(new DefaultJavacProvider());
+  private final MetaExtractor metaExtractor = new MetaExtractor(ExtractionOptions.all());
+  private List<CompilationUnitTree> compilationUnitTrees;
+
+  @Setup(Level.Trial)
+  public void parseTrees(CorpusState corpusState) {
+    // Every task of a DefaultJavacProvider has its own javac context, so the trees can be kept after the action returns
+    compilationUnitTrees = new ArrayList<>();
+    compilationUnitTreeFactory.forEachCompilationUnitTree(corpusState.files, compilationUnitTrees::add);
+  }
+
+  @Benchmark
+  public void parse(CorpusState corpusState, ThroughputCounters counters, Blackhole blackhole) {
+    compilationUnitTreeFactory.forEachCompilationUnitTree(corpusState.files, blackhole::consume);
+    counters.count(corpusState);
+  }
+
+  @Benchmark
+  public void extract(CorpusState corpusState, ThroughputCounters counters, Blackhole blackhole) {
+    var canonicalizer = new MetaCanonicalizer();
+    for (CompilationUnitTree compilationUnitTree : compilationUnitTrees) {
+      Set<ClassMeta> classes = new HashSet<>();
+      metaExtractor.getMetas(compilationUnitTree, classes, canonicalizer);
+      blackhole.consume(classes);
+    }
+    counters.count(corpusState);
+  }
+
+}
@@ -0,0 +1,32 @@
+package org.jid.metajava;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Files and classes read by the benchmark operations, reported by JMH as files/s and classes/s. The bytes allocated per class are
+ * {@code gc.alloc.rate.norm} (bytes per operation, from the {@code gc} profiler) divided by the classes per operation, that is, by
+ * classes/s divided by ops/s.
+ */
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+@State(Scope.Thread)
+public class ThroughputCounters {
+
+  public long files;
+  public long classes;
+
+  @Setup(Level.Iteration)
+  public void reset() {
+    files = 0;
+    classes = 0;
+  }
+
+  void count(CorpusState corpusState) {
+    files += corpusState.files.size();
+    classes += corpusState.classCount;
+  }
+
+}
@@ -2,53 +2,55 @@ package org.jid.metajava;
 
 import static java.util.Collections.unmodifiableSet;
 import static java.util.stream.Collectors.toSet;
-import static org.jid.metajava.VisitorFactory.runAssignmentlVisitor;
-import static org.jid.metajava.VisitorFactory.runLiteralVisitor;
 
 import com.sun.source.tree.AnnotationTree;
+import com.sun.source.tree.AssignmentTree;
 import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.LiteralTree;
 import com.sun.source.tree.ModifiersTree;
-import com.sun.source.tree.Tree.Kind;
 import java.util.HashSet;
 import java.util.Set;
+import org.jid.metajava.internal.MetaCanonicalizer;
 import org.jid.metajava.model.AnnotationArgument;
 import org.jid.metajava.model.AnnotationMeta;
 
 class AnnotationProcessor {
 
-  public Set<AnnotationMeta> getMetas(ModifiersTree modifiersTree) {
+  public Set<AnnotationMeta> getMetas(ModifiersTree modifiersTree, MetaCanonicalizer canonicalizer, TypeRenderer typeRenderer) {
+    if (modifiersTree.getAnnotations().isEmpty()) {
+      return Set.of();
+    }
     var annotations = new HashSet<AnnotationMeta>();
     modifiersTree.getAnnotations()
       .forEach(annotationTree -> {
-        Set<AnnotationArgument> args = getAnnotationArguments(annotationTree);
-        String annotationName = annotationTree.getAnnotationType().toString();
-        annotations.add(new AnnotationMeta(annotationName, args));
+        Set<AnnotationArgument> args = getAnnotationArguments(annotationTree, canonicalizer, typeRenderer);
+        String annotationName = canonicalizer.intern(typeRenderer.render(annotationTree.getAnnotationType()));
+        annotations.add(canonicalizer.canonical(new AnnotationMeta(annotationName, args)));
       });
-    return unmodifiableSet(annotations);
+    return canonicalizer.canonicalSet(unmodifiableSet(annotations));
   }
 
-  private Set<AnnotationArgument> getAnnotationArguments(AnnotationTree annotationTree) {
-    return annotationTree.getArguments().stream()
-      .map(this::parseAnnotationArg)
+  private Set<AnnotationArgument> getAnnotationArguments(AnnotationTree annotationTree, MetaCanonicalizer canonicalizer,
+    TypeRenderer typeRenderer) {
+    Set<AnnotationArgument> args = annotationTree.getArguments().stream()
+      .map(argTree -> parseAnnotationArg(argTree, typeRenderer))
+      .map(arg -> arg == null ? null
+        : canonicalizer.canonical(new AnnotationArgument(canonicalizer.intern(arg.name()), canonicalizer.intern(arg.value()))))
       .collect(toSet());
+    return canonicalizer.canonicalSet(unmodifiableSet(args));
   }
 
-  private AnnotationArgument parseAnnotationArg(ExpressionTree argTree) {
-    if (argTree.getKind() == Kind.STRING_LITERAL) {
-      String argValue = runLiteralVisitor(argTree, null, (literalTree, param) -> literalTree.getValue().toString());
-      return new AnnotationArgument(null, argValue);
-    }
-    if (argTree.getKind() == Kind.MEMBER_SELECT) {
-      return new AnnotationArgument(null, argTree.toString());
-    }
-
-    // argTree.getKind() == Kind.ASSIGNMENT
-    return runAssignmentlVisitor(argTree, null, ((assignmentTree, param) -> {
-      String argName = assignmentTree.getVariable().toString();
-      String argValue = assignmentTree.getExpression().toString();
-      return new AnnotationArgument(argName, argValue);
-    }));
-
+  private AnnotationArgument parseAnnotationArg(ExpressionTree argTree, TypeRenderer typeRenderer) {
+    return switch (argTree.getKind()) {
+      case STRING_LITERAL -> new AnnotationArgument(null, ((LiteralTree) argTree).getValue().toString());
+      case MEMBER_SELECT -> new AnnotationArgument(null, typeRenderer.render(argTree));
+      case ASSIGNMENT -> {
+        var assignmentTree = (AssignmentTree) argTree;
+        yield new AnnotationArgument(typeRenderer.render(assignmentTree.getVariable()),
+          typeRenderer.render(assignmentTree.getExpression()));
+      }
+      default -> null;
+    };
   }
 
 }
@@ -0,0 +1,44 @@
+package org.jid.metajava;
+
+/**
+ * Limit of the files parsed together by {@link MetaJava#getMetaFromBatched(java.util.Collection, BatchLimit)}. The trees of every
+ * batch are kept in memory until all its classes are extracted.
+ */
+public sealed interface BatchLimit {
+
+  /**
+   * Batches of files whose sizes add up to, at most, {@code maxBytes}. Files bigger than that are parsed alone.
+   */
+  static BatchLimit bytes(long maxBytes) {
+    return new Bytes(maxBytes);
+  }
+
+  /**
+   * Batches sized so that the used heap stays under the given fraction of the max heap. The size of every batch is estimated from
+   * the heap used by the previous ones.
+   */
+  static BatchLimit heapUsage(double maxHeapFraction) {
+    return new HeapUsage(maxHeapFraction);
+  }
+
+  record Bytes(long maxBytes) implements BatchLimit {
+
+    public Bytes {
+      if (maxBytes < 1) {
+        throw new IllegalArgumentException("ERROR: Parameter maxBytes must be greater than 0");
+      }
+    }
+
+  }
+
+  record HeapUsage(double maxHeapFraction) implements BatchLimit {
+
+    public HeapUsage {
+      if (!(maxHeapFraction > 0 && maxHeapFraction <= 1)) {
+        throw new IllegalArgumentException("ERROR: Parameter maxHeapFraction must be greater than 0 and not greater than 1");
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,101 @@
+package org.jid.metajava;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.jid.metajava.internal.MetaCanonicalizer;
+import org.jid.metajava.model.ClassMeta;
+
+/**
+ * Parses the files in consecutive batches, each one with its own javac task, so that the trees of a batch can be garbage collected
+ * before the next one is parsed.
+ */
+class BatchedExtractor {
+
+  // Until the first batch is measured. The trees of a file need tens of times its size.
+  private static final double INITIAL_HEAP_BYTES_PER_SOURCE_BYTE = 64;
+  // So that a batch measured too low, because the heap was collected while it was parsed, doesn't make the next one huge
+  private static final int MAX_BATCH_GROWTH = 2;
+
+  private final SourceParser sourceParser;
+  private final MemoryMXBean memoryMXBean;
+  private final FilePartitioner filePartitioner = new FilePartitioner();
+
+  BatchedExtractor(SourceParser sourceParser) {
+    this(sourceParser, ManagementFactory.getMemoryMXBean());
+  }
+
+  BatchedExtractor(SourceParser sourceParser, MemoryMXBean memoryMXBean) {
+    this.sourceParser = sourceParser;
+    this.memoryMXBean = memoryMXBean;
+  }
+
+  Set<ClassMeta> getMetaFrom(Collection<File> files, BatchLimit batchLimit) {
+    Set<ClassMeta> classes = new HashSet<>();
+    var canonicalizer = new MetaCanonicalizer();
+    ClassMetaSink sink = (sourceFileUri, classesOfUnit) -> classes.addAll(classesOfUnit);
+
+    switch (batchLimit) {
+      case BatchLimit.Bytes bytes -> filePartitioner.partitionByMaxSize(files, bytes.maxBytes())
+        .forEach(batch -> sourceParser.parse(batch, canonicalizer, sink));
+      case BatchLimit.HeapUsage heapUsage -> parseByHeapUsage(List.copyOf(files), heapUsage.maxHeapFraction(), canonicalizer, sink);
+    }
+    return classes;
+  }
+
+  /**
+   * Every batch gets the files that fit in the heap left under the limit, estimated with the heap used by the trees of the previous
+   * batch per byte of source. The heap used by the trees is the highest heap usage seen while the classes of the batch are
+   * extracted, when all its trees are alive, minus the heap used before the batch is parsed.
+   */
+  private void parseByHeapUsage(List<File> files, double maxHeapFraction, MetaCanonicalizer canonicalizer, ClassMetaSink sink) {
+    MemoryUsage heap = memoryMXBean.getHeapMemoryUsage();
+    long maxHeap = heap.getMax() > 0 ? heap.getMax() : Runtime.getRuntime().maxMemory();
+    long maxUsedHeap = (long) (maxHeap * maxHeapFraction);
+    double heapBytesPerSourceByte = INITIAL_HEAP_BYTES_PER_SOURCE_BYTE;
+    long previousBatchBytes = Long.MAX_VALUE / MAX_BATCH_GROWTH;
+
+    int next = 0;
+    while (next < files.size()) {
+      long usedHeapBefore = usedHeap();
+      long maxBatchBytes = Math.min(previousBatchBytes * MAX_BATCH_GROWTH,
+        (long) ((maxUsedHeap - usedHeapBefore) / heapBytesPerSourceByte));
+
+      // At least one file, even when the heap is already over the limit
+      var batch = new ArrayList<File>();
+      long batchBytes = 0;
+      do {
+        File file = files.get(next++);
+        batch.add(file);
+        batchBytes += sizeOf(file);
+      } while (next < files.size() && batchBytes + sizeOf(files.get(next)) <= maxBatchBytes);
+
+      long[] peakUsedHeap = {usedHeapBefore};
+      sourceParser.parse(batch, canonicalizer, (sourceFileUri, classesOfUnit) -> {
+        peakUsedHeap[0] = Math.max(peakUsedHeap[0], usedHeap());
+        sink.accept(sourceFileUri, classesOfUnit);
+      });
+
+      // Otherwise, the heap was collected while the batch was parsed and the estimate is kept
+      if (peakUsedHeap[0] > usedHeapBefore) {
+        heapBytesPerSourceByte = (double) (peakUsedHeap[0] - usedHeapBefore) / batchBytes;
+      }
+      previousBatchBytes = batchBytes;
+    }
+  }
+
+  private long usedHeap() {
+    return memoryMXBean.getHeapMemoryUsage().getUsed();
+  }
+
+  private static long sizeOf(File file) {
+    return Math.max(1, file.length());
+  }
+
+}
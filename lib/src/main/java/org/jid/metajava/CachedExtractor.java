@@ -0,0 +1,98 @@
+package org.jid.metajava;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toUnmodifiableSet;
+import static org.jid.metajava.CompilationUnitTreeFactory.getSourceFileUri;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.jid.metajava.exceptions.ClassNotParseableException;
+import org.jid.metajava.internal.MetaCanonicalizer;
+import org.jid.metajava.model.ClassMeta;
+
+class CachedExtractor {
+
+  private final SourceParser sourceParser;
+  private final String optionsKey;
+
+  CachedExtractor(SourceParser sourceParser, ExtractionOptions options) {
+    this.sourceParser = sourceParser;
+    // The same content extracted with other options is another entry
+    this.optionsKey = options.excludedParts().stream()
+      .map(part -> "-" + part.name().toLowerCase())
+      .sorted()
+      .collect(joining());
+  }
+
+  Set<ClassMeta> getMetaFrom(Collection<File> files, MetaCache cache) {
+    // Files with the same content are parsed only once
+    Map<String, List<File>> filesByCacheKey = new LinkedHashMap<>();
+    files.forEach(file -> filesByCacheKey.computeIfAbsent(getContentHash(file) + optionsKey, key -> new ArrayList<>())
+      .add(file));
+
+    Set<ClassMeta> classes = new HashSet<>();
+    var canonicalizer = new MetaCanonicalizer();
+    List<File> missedFiles = new ArrayList<>();
+    Map<String, String> missedCacheKeyBySourceFile = new HashMap<>();
+
+    filesByCacheKey.forEach((cacheKey, sameContentFiles) -> {
+      Optional<Set<ClassMeta>> cachedClasses = cache.get(cacheKey);
+      if (cachedClasses.isPresent()) {
+        sameContentFiles.forEach(file -> classes.addAll(relocate(cachedClasses.get(), getSourceFileUri(file))));
+      } else {
+        File file = sameContentFiles.getFirst();
+        missedFiles.add(file);
+        missedCacheKeyBySourceFile.put(getSourceFileUri(file), cacheKey);
+      }
+    });
+
+    if (missedFiles.isEmpty()) {
+      return classes;
+    }
+
+    sourceParser.parse(missedFiles, canonicalizer, (sourceFileUri, classesOfUnit) -> {
+      String cacheKey = missedCacheKeyBySourceFile.get(sourceFileUri);
+      if (cacheKey == null) {
+        classes.addAll(classesOfUnit);
+        return;
+      }
+      cache.put(cacheKey, classesOfUnit);
+      filesByCacheKey.get(cacheKey)
+        .forEach(file -> classes.addAll(relocate(classesOfUnit, getSourceFileUri(file))));
+    });
+
+    return classes;
+  }
+
+  private static String getContentHash(File file) {
+    try {
+      return MetaCache.contentHash(Files.readAllBytes(file.toPath()));
+    } catch (IOException e) {
+      throw new ClassNotParseableException(e);
+    }
+  }
+
+  private static Set<ClassMeta> relocate(Set<ClassMeta> classes, String sourceFileUri) {
+    if (classes.stream().allMatch(classMeta -> sourceFileUri.equals(classMeta.sourceFileUri()))) {
+      return classes;
+    }
+    return classes.stream().map(classMeta -> relocate(classMeta, sourceFileUri)).collect(toUnmodifiableSet());
+  }
+
+  private static ClassMeta relocate(ClassMeta classMeta, String sourceFileUri) {
+    return new ClassMeta(classMeta.name(), classMeta.type(), classMeta.methods(), classMeta.annotations(), classMeta.packageName(),
+      sourceFileUri, classMeta.imports(), classMeta.extendsFrom(), classMeta.implementsFrom(), classMeta.fields(),
+      classMeta.constructors(), relocate(classMeta.nestedClasses(), sourceFileUri), classMeta.modifiers(), classMeta.permits());
+  }
+
+}
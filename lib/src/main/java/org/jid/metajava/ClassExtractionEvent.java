@@ -0,0 +1,28 @@
+package org.jid.metajava;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of the extraction of a top level class, and its nested classes, from the tree parsed by javac
+ */
+@Name("org.jid.metajava.ClassExtraction")
+@Label("Class Extraction")
+@Category("MetaJava")
+@StackTrace(false)
+class ClassExtractionEvent extends jdk.jfr.Event {
+
+  @Label("Source File")
+  String sourceFile;
+
+  @Label("Class Name")
+  String className;
+
+  @Label("Member Count")
+  @Description("Fields, methods, constructors, nested classes and initializers declared by the class")
+  int memberCount;
+
+}
@@ -0,0 +1,252 @@
+package org.jid.metajava;
+
+import static com.sun.source.tree.Tree.Kind.CLASS;
+import static com.sun.source.tree.Tree.Kind.INTERFACE;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.stream.Collectors.toUnmodifiableSet;
+import static org.jid.metajava.internal.MetaCanonicalizer.emptyIfEmpty;
+import static org.jid.metajava.internal.MetaCanonicalizer.hashCaching;
+
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.ModuleTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreeScanner;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.jid.metajava.internal.MetaCanonicalizer;
+import org.jid.metajava.model.AnnotationMeta;
+import org.jid.metajava.model.ClassMeta;
+import org.jid.metajava.model.ClassType;
+import org.jid.metajava.model.MethodMeta;
+import org.jid.metajava.model.Modifier;
+import org.jid.metajava.model.VariableMeta;
+
+/**
+ * Builds the classes of a compilation unit, their members and nested classes included, in one traversal of its trees. The class
+ * being built is the parameter of the visit of its members, that add themselves to it. Only declarations are visited: method
+ * bodies, initializer blocks and initial values are not.
+ * <p>
+ * Not thread safe: every compilation unit is scanned by a new instance.
+ */
+class ClassMetaScanner extends TreeScanner<Void, ClassMetaScanner.ClassMembers> {
+
+  private final AnnotationProcessor annotationProcessor;
+  private final ModifierProcessor modifierProcessor;
+  private final TypeRenderer typeRenderer;
+  private final MetaCanonicalizer canonicalizer;
+  private final CompilationUnitMeta compilationUnitMeta;
+  private final Set<ClassMeta> classes;
+  private final boolean readMethods;
+  private final boolean readConstructors;
+  private final boolean readFields;
+  private final boolean readFieldInitializers;
+  private final boolean readParameterAnnotations;
+  private final boolean readNestedClasses;
+
+  /**
+   * @param classes Where the top level classes are added
+   */
+  ClassMetaScanner(AnnotationProcessor annotationProcessor, ModifierProcessor modifierProcessor, TypeRenderer typeRenderer,
+    ExtractionOptions options, MetaCanonicalizer canonicalizer, CompilationUnitMeta compilationUnitMeta, Set<ClassMeta> classes) {
+    this.annotationProcessor = annotationProcessor;
+    this.modifierProcessor = modifierProcessor;
+    this.typeRenderer = typeRenderer;
+    this.canonicalizer = canonicalizer;
+    this.compilationUnitMeta = compilationUnitMeta;
+    this.classes = classes;
+    readMethods = options.includes(ModelPart.METHODS);
+    readConstructors = options.includes(ModelPart.CONSTRUCTORS);
+    readFields = options.includes(ModelPart.FIELDS);
+    readFieldInitializers = options.includes(ModelPart.FIELD_INITIALIZERS);
+    readParameterAnnotations = options.includes(ModelPart.PARAMETER_ANNOTATIONS);
+    readNestedClasses = options.includes(ModelPart.NESTED_CLASSES);
+  }
+
+  /**
+   * @param enclosingClass Null for top level classes
+   */
+  @Override
+  public Void visitClass(ClassTree classTree, ClassMembers enclosingClass) {
+    if (enclosingClass != null && !readNestedClasses) {
+      return null;
+    }
+
+    String className = canonicalizer.intern(classTree.getSimpleName().toString());
+    String packageName = enclosingClass == null ? compilationUnitMeta.packageName()
+      : canonicalizer.intern(enclosingClass.packageName + "." + enclosingClass.className);
+    var members = new ClassMembers(packageName, className);
+    scan(classTree.getMembers(), members);
+
+    Set<AnnotationMeta> annotations = annotationProcessor.getMetas(classTree.getModifiers(), canonicalizer, typeRenderer);
+    Set<Modifier> modifierFlags = modifierProcessor.getModifierFlags(classTree.getModifiers(), canonicalizer);
+    Set<String> permits = classTree.getPermitsClause().isEmpty() ? Set.of()
+      : internAll(classTree.getPermitsClause().stream().map(typeRenderer::render));
+
+    var classMeta = new ClassMeta(className, getClassType(classTree.getKind()), unmodifiable(members.methods), annotations,
+      packageName, compilationUnitMeta.sourceFile(), compilationUnitMeta.imports(), getExtendsFrom(classTree),
+      getImplementsFrom(classTree), unmodifiable(members.fields), unmodifiable(members.constructors),
+      unmodifiable(members.nestedClasses), modifierFlags, permits);
+    if (enclosingClass == null) {
+      classes.add(classMeta);
+    } else {
+      enclosingClass.nestedClasses = add(enclosingClass.nestedClasses, classMeta);
+    }
+    return null;
+  }
+
+  @Override
+  public Void visitMethod(MethodTree methodTree, ClassMembers enclosingClass) {
+    // The return type of constructors is null
+    boolean isConstructor = methodTree.getReturnType() == null;
+    if (!(isConstructor ? readConstructors : readMethods)) {
+      return null;
+    }
+
+    String methodName = canonicalizer.intern(methodTree.getName().toString());
+    String returnType = isConstructor ? null : canonicalizer.intern(typeRenderer.render(methodTree.getReturnType()));
+    List<VariableMeta> parameters = new ArrayList<>(methodTree.getParameters().size());
+    for (VariableTree parameter : methodTree.getParameters()) {
+      // Parameters have no initial value
+      parameters.add(getVariableMeta(parameter, readParameterAnnotations, false));
+    }
+    Set<String> exceptions = methodTree.getThrows().isEmpty() ? Set.of()
+      : internAll(methodTree.getThrows().stream().map(typeRenderer::render));
+    Set<Modifier> modifierFlags = modifierProcessor.getModifierFlags(methodTree.getModifiers(), canonicalizer);
+    Set<AnnotationMeta> annotations = annotationProcessor.getMetas(methodTree.getModifiers(), canonicalizer, typeRenderer);
+
+    var methodMeta = new MethodMeta(methodName, returnType, emptyIfEmpty(unmodifiableList(parameters)), exceptions, modifierFlags,
+      annotations);
+    if (isConstructor) {
+      enclosingClass.constructors = add(enclosingClass.constructors, methodMeta);
+    } else {
+      enclosingClass.methods = add(enclosingClass.methods, methodMeta);
+    }
+    return null;
+  }
+
+  /**
+   * Fields and enum constants. Parameters are read with their methods.
+   */
+  @Override
+  public Void visitVariable(VariableTree variableTree, ClassMembers enclosingClass) {
+    if (readFields) {
+      enclosingClass.fields = add(enclosingClass.fields, getVariableMeta(variableTree, true, readFieldInitializers));
+    }
+    return null;
+  }
+
+  @Override
+  public Void visitBlock(BlockTree blockTree, ClassMembers enclosingClass) {
+    return null;
+  }
+
+  @Override
+  public Void visitModule(ModuleTree moduleTree, ClassMembers enclosingClass) {
+    return null;
+  }
+
+  private VariableMeta getVariableMeta(VariableTree variableTree, boolean readAnnotations, boolean readInitialValue) {
+    String name = canonicalizer.intern(variableTree.getName().toString());
+    String type = canonicalizer.intern(typeRenderer.render(variableTree.getType()));
+    String initialValue = readInitialValue ? canonicalizer.intern(getInitialValue(variableTree)) : null;
+    Set<Modifier> modifiers = modifierProcessor.getModifierFlags(variableTree.getModifiers(), canonicalizer);
+    Set<AnnotationMeta> annotations = readAnnotations
+      ? annotationProcessor.getMetas(variableTree.getModifiers(), canonicalizer, typeRenderer) : Set.of();
+    return new VariableMeta(name, type, initialValue, modifiers, annotations);
+  }
+
+  private static String getInitialValue(VariableTree variableTree) {
+    if (variableTree.getInitializer() == null) {
+      return null;
+    }
+    String intializer = variableTree.getInitializer().toString();
+    if (intializer.startsWith("\"") && intializer.endsWith("\"")) {
+      intializer = intializer.substring(1, intializer.length() - 1);
+    }
+    return intializer;
+  }
+
+  private static ClassType getClassType(Tree.Kind kind) {
+    return switch (kind) {
+      case CLASS -> ClassType.CLASS;
+      case INTERFACE -> ClassType.INTERFACE;
+      case RECORD -> ClassType.RECORD;
+      case ENUM -> ClassType.ENUM;
+      case ANNOTATION_TYPE -> ClassType.ANNOTATION;
+      default -> throw new IllegalArgumentException("Type " + kind + " not supported");
+    };
+  }
+
+  private Set<String> getExtendsFrom(ClassTree classTree) {
+    if (classTree.getKind() == CLASS) {
+      return classTree.getExtendsClause() == null ? Set.of()
+        : internAll(Stream.of(typeRenderer.render(classTree.getExtendsClause())));
+    }
+    // Interfaces extend the interfaces of their implements clause
+    return classTree.getKind() == INTERFACE ? splitImplementsClause(classTree) : Set.of();
+  }
+
+  private Set<String> getImplementsFrom(ClassTree classTree) {
+    return switch (classTree.getKind()) {
+      case CLASS, RECORD, ENUM -> splitImplementsClause(classTree);
+      default -> Set.of();
+    };
+  }
+
+  /**
+   * The types of the clause are split on commas, type arguments included, like they have always been
+   */
+  private Set<String> splitImplementsClause(ClassTree classTree) {
+    List<? extends Tree> implementsClause = classTree.getImplementsClause();
+    if (implementsClause.isEmpty()) {
+      return Set.of();
+    }
+    return internAll(implementsClause.stream()
+      .map(typeRenderer::render)
+      .flatMap(type -> type.indexOf(',') < 0 ? Stream.of(type) : Stream.of(type.split(",")).map(String::trim)));
+  }
+
+  /**
+   * @return The given set with the member added. A new one when the given one is null.
+   */
+  private static <E> Set<E> add(Set<E> members, E member) {
+    Set<E> modifiableMembers = members == null ? new HashSet<>() : members;
+    modifiableMembers.add(member);
+    return modifiableMembers;
+  }
+
+  private static <E> Set<E> unmodifiable(Set<E> members) {
+    return members == null ? Set.of() : hashCaching(unmodifiableSet(members));
+  }
+
+  private Set<String> internAll(Stream<String> values) {
+    return canonicalizer.canonicalSet(values.map(canonicalizer::intern).collect(toUnmodifiableSet()));
+  }
+
+  /**
+   * Members of the class being built. Their sets are created when the first member is added.
+   */
+  static class ClassMembers {
+
+    private final String packageName;
+    private final String className;
+    private Set<MethodMeta> methods;
+    private Set<MethodMeta> constructors;
+    private Set<VariableMeta> fields;
+    private Set<ClassMeta> nestedClasses;
+
+    private ClassMembers(String packageName, String className) {
+      this.packageName = packageName;
+      this.className = className;
+    }
+
+  }
+
+}
@@ -0,0 +1,41 @@
+package org.jid.metajava;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.jid.metajava.model.ClassMeta;
+
+/**
+ * Set of classes that finds them by their source file and name instead of by their hash code, which needs every member of the
+ * class. It's used for classes with lazy members, so that they are not read when the class is added to the set.
+ */
+class ClassMetaSet extends AbstractSet<ClassMeta> {
+
+  private final Map<String, ClassMeta> classesByKey = new LinkedHashMap<>();
+
+  @Override
+  public boolean add(ClassMeta classMeta) {
+    return classesByKey.putIfAbsent(keyOf(classMeta), classMeta) == null;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return o instanceof ClassMeta classMeta && classMeta.equals(classesByKey.get(keyOf(classMeta)));
+  }
+
+  @Override
+  public Iterator<ClassMeta> iterator() {
+    return classesByKey.values().iterator();
+  }
+
+  @Override
+  public int size() {
+    return classesByKey.size();
+  }
+
+  private static String keyOf(ClassMeta classMeta) {
+    return classMeta.sourceFileUri() + "#" + classMeta.packageName() + "." + classMeta.name();
+  }
+
+}
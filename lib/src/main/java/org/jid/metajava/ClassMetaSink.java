@@ -0,0 +1,14 @@
+package org.jid.metajava;
+
+import java.util.Set;
+import org.jid.metajava.model.ClassMeta;
+
+/**
+ * Receives the classes defined in a compilation unit (source file) as soon as it has been processed.
+ */
+@FunctionalInterface
+public interface ClassMetaSink {
+
+  void accept(String sourceFileUri, Set<ClassMeta> classes);
+
+}
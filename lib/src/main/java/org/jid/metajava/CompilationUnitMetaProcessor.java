@@ -3,27 +3,31 @@ package org.jid.metajava;
 import static java.util.stream.Collectors.toUnmodifiableSet;
 
 import com.sun.source.tree.CompilationUnitTree;
-import com.sun.source.tree.ImportTree;
 import java.util.Set;
+import org.jid.metajava.internal.MetaCanonicalizer;
 import org.jid.metajava.model.ImportMeta;
 
 class CompilationUnitMetaProcessor {
 
-  public CompilationUnitMeta getMeta(CompilationUnitTree compilationUnitTree) {
-    String sourceFile = compilationUnitTree.getSourceFile().toUri().toString();
-    String packageName = compilationUnitTree.getPackage().getPackageName().toString();
-    Set<ImportMeta> imports = compilationUnitTree.getImports().stream().map(this::parseImport).collect(toUnmodifiableSet());
-    return new CompilationUnitMeta(sourceFile, packageName, imports);
+  private final boolean readImports;
+
+  CompilationUnitMetaProcessor(boolean readImports) {
+    this.readImports = readImports;
   }
 
-  private ImportMeta parseImport(ImportTree importTree) {
-    boolean isStatic = importTree.isStatic();
-    int length = "import ".length();
-    if (isStatic) {
-      length += "static ".length();
+  public CompilationUnitMeta getMeta(CompilationUnitTree compilationUnitTree, MetaCanonicalizer canonicalizer,
+    TypeRenderer typeRenderer) {
+    String sourceFile = compilationUnitTree.getSourceFile().toUri().toString();
+    String packageName = canonicalizer.intern(typeRenderer.render(compilationUnitTree.getPackage().getPackageName()));
+    if (!readImports) {
+      return new CompilationUnitMeta(sourceFile, packageName, Set.of());
     }
-    var importName = importTree.toString().substring(length).replace(";", "").trim();
-    return new ImportMeta(importName, isStatic);
+    // The same imports set is shared by all the classes of the compilation unit
+    Set<ImportMeta> imports = canonicalizer.canonicalSet(compilationUnitTree.getImports().stream()
+      .map(importTree -> canonicalizer.canonical(
+        new ImportMeta(canonicalizer.intern(typeRenderer.render(importTree.getQualifiedIdentifier())), importTree.isStatic())))
+      .collect(toUnmodifiableSet()));
+    return new CompilationUnitMeta(sourceFile, packageName, imports);
   }
 
 }
@@ -1,33 +1,195 @@
 package org.jid.metajava;
 
+import com.sun.source.tree.ClassTree;
 import com.sun.source.tree.CompilationUnitTree;
-import com.sun.source.util.JavacTask;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import javax.tools.JavaCompiler;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import javax.tools.DiagnosticListener;
+import javax.tools.ForwardingJavaFileObject;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardJavaFileManager;
-import javax.tools.ToolProvider;
 import org.jid.metajava.exceptions.ClassNotParseableException;
 
 class CompilationUnitTreeFactory {
 
-  Iterable<? extends CompilationUnitTree> getCompilationUnitTrees(Collection<File> files) {
-    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-    StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
-    Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjectsFromFiles(files);
+  // "-proc:full" compiler option needed to be able to process annotations
+  private static final List<String> COMPILER_OPTIONS = List.of("-proc:full");
 
-    // "-proc:full" compiler option needed to be able to process annotations
-    JavacTask javacTask =
-      (JavacTask) compiler.getTask(null, fileManager, null, List.of("-proc:full"), null, compilationUnits);
+  private final JavacProvider javacProvider;
 
+  CompilationUnitTreeFactory(JavacProvider javacProvider) {
+    this.javacProvider = javacProvider;
+  }
+
+  /**
+   * Parses all the files with one javac task. The trees must not be used after the action returns: the javac context that owns them
+   * can be reused.
+   */
+  void forEachCompilationUnitTree(Collection<File> files, Consumer<CompilationUnitTree> action) {
+    forEachCompilationUnitTree(fileManager -> fileManager.getJavaFileObjectsFromFiles(files), null, action);
+  }
+
+  /**
+   * Same as {@link #forEachCompilationUnitTree(Collection, Consumer)} but the errors and warnings reported by javac are sent to the
+   * listener instead of to the standard error. All the files are parsed before the action is run for the first one.
+   */
+  void forEachCompilationUnitTree(Collection<File> files, DiagnosticListener<? super JavaFileObject> diagnosticListener,
+    Consumer<CompilationUnitTree> action) {
+    forEachCompilationUnitTree(fileManager -> fileManager.getJavaFileObjectsFromFiles(files), diagnosticListener, action);
+  }
+
+  /**
+   * Same as {@link #forEachCompilationUnitTree(Collection, Consumer)} but the sources are read from memory
+   */
+  void forEachInMemoryCompilationUnitTree(Collection<InMemorySource> sources, Consumer<CompilationUnitTree> action) {
+    List<JavaFileObject> javaFileObjects = sources.stream().<JavaFileObject>map(InMemoryJavaFileObject::new).toList();
+    forEachCompilationUnitTree(fileManager -> javaFileObjects, null, action);
+  }
+
+  /**
+   * Same as {@link #forEachCompilationUnitTree(Collection, Consumer)} but the content of the files has already been read. The
+   * source file URIs are the ones of the files.
+   */
+  void forEachReadCompilationUnitTree(Collection<FileContent> files, Consumer<CompilationUnitTree> action) {
+    List<JavaFileObject> javaFileObjects = files.stream().<JavaFileObject>map(InMemoryJavaFileObject::new).toList();
+    forEachCompilationUnitTree(fileManager -> javaFileObjects, null, action);
+  }
+
+  /**
+   * Lazily parses the files one by one, each one with its own javac task, so that the trees of a file can be garbage collected as
+   * soon as the next one is requested. The returned stream must be closed to release the file manager.
+   */
+  <T> Stream<T> streamCompilationUnitTrees(Collection<File> files, Function<CompilationUnitTree, T> mapper) {
+    StandardJavaFileManager fileManager = javacProvider.acquireFileManager();
+
+    return files.stream()
+      .flatMap(file -> parse(fileManager, fileManager.getJavaFileObjects(file), null, mapper).stream())
+      .onClose(() -> javacProvider.releaseFileManager(fileManager));
+  }
+
+  /**
+   * @return The same URI that javac gives to the file
+   */
+  static String getSourceFileUri(File file) {
+    return file.toPath().toAbsolutePath().normalize().toUri().toString();
+  }
+
+  private void forEachCompilationUnitTree(
+    Function<StandardJavaFileManager, Iterable<? extends JavaFileObject>> compilationUnitsFactory,
+    DiagnosticListener<? super JavaFileObject> diagnosticListener, Consumer<CompilationUnitTree> action) {
+
+    StandardJavaFileManager fileManager = javacProvider.acquireFileManager();
     try {
-      return javacTask.parse();
-    } catch (IOException e) {
-      throw new ClassNotParseableException(e);
+      parse(fileManager, compilationUnitsFactory.apply(fileManager), diagnosticListener, compilationUnitTree -> {
+        action.accept(compilationUnitTree);
+        return null;
+      });
+    } finally {
+      javacProvider.releaseFileManager(fileManager);
     }
   }
-}
\ No newline at end of file
+
+  private <T> List<T> parse(StandardJavaFileManager fileManager, Iterable<? extends JavaFileObject> compilationUnits,
+    DiagnosticListener<? super JavaFileObject> diagnosticListener, Function<CompilationUnitTree, T> mapper) {
+
+    Iterable<? extends JavaFileObject> sources =
+      new FileReadEvent().isEnabled() ? withReadEvents(compilationUnits) : compilationUnits;
+    return javacProvider.withTask(fileManager, diagnosticListener, COMPILER_OPTIONS, sources, javacTask -> {
+      // Removed afterward: the javac context of the task can be reused
+      TaskListener parseEventListener = new FileParseEvent().isEnabled() ? new ParseEventListener() : null;
+      if (parseEventListener != null) {
+        javacTask.addTaskListener(parseEventListener);
+      }
+      try {
+        var results = new ArrayList<T>();
+        javacTask.parse().forEach(compilationUnitTree -> results.add(mapper.apply(compilationUnitTree)));
+        return results;
+      } catch (IOException e) {
+        throw new ClassNotParseableException(e);
+      } finally {
+        if (parseEventListener != null) {
+          javacTask.removeTaskListener(parseEventListener);
+        }
+      }
+    });
+  }
+
+  private static List<JavaFileObject> withReadEvents(Iterable<? extends JavaFileObject> compilationUnits) {
+    var sources = new ArrayList<JavaFileObject>();
+    compilationUnits.forEach(compilationUnit -> sources.add(new ReadEventJavaFileObject(compilationUnit)));
+    return sources;
+  }
+
+  /**
+   * Commits a {@link FileReadEvent} every time javac reads the source
+   */
+  private static class ReadEventJavaFileObject extends ForwardingJavaFileObject<JavaFileObject> {
+
+    ReadEventJavaFileObject(JavaFileObject fileObject) {
+      super(fileObject);
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) throws IOException {
+      var event = new FileReadEvent();
+      event.begin();
+      CharSequence content = super.getCharContent(ignoreEncodingErrors);
+      event.end();
+      if (event.shouldCommit()) {
+        URI uri = toUri();
+        event.sourceFile = uri.toString();
+        event.size = "file".equals(uri.getScheme()) ? Files.size(Path.of(uri))
+          : content.toString().getBytes(StandardCharsets.UTF_8).length;
+        event.commit();
+      }
+      return content;
+    }
+
+  }
+
+  /**
+   * Commits a {@link FileParseEvent} for every compilation unit parsed by javac. The source is read before the parsing starts.
+   */
+  private static class ParseEventListener implements TaskListener {
+
+    private FileParseEvent event;
+
+    @Override
+    public void started(TaskEvent taskEvent) {
+      if (taskEvent.getKind() == TaskEvent.Kind.PARSE) {
+        event = new FileParseEvent();
+        event.begin();
+      }
+    }
+
+    @Override
+    public void finished(TaskEvent taskEvent) {
+      if (taskEvent.getKind() == TaskEvent.Kind.PARSE && event != null) {
+        event.end();
+        if (event.shouldCommit()) {
+          event.sourceFile = taskEvent.getSourceFile().toUri().toString();
+          event.parserBackend = ParserBackend.JAVAC.name();
+          event.classCount = (int) taskEvent.getCompilationUnit().getTypeDecls().stream()
+            .filter(ClassTree.class::isInstance)
+            .count();
+          event.commit();
+        }
+        event = null;
+      }
+    }
+
+  }
+
+}
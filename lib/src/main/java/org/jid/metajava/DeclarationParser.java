@@ -0,0 +1,1151 @@
+package org.jid.metajava;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toSet;
+import static java.util.stream.Collectors.toUnmodifiableSet;
+import static org.jid.metajava.internal.MetaCanonicalizer.emptyIfEmpty;
+import static org.jid.metajava.internal.MetaCanonicalizer.hashCaching;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.jid.metajava.JavaLexer.TokenKind;
+import org.jid.metajava.internal.MetaCanonicalizer;
+import org.jid.metajava.model.AnnotationArgument;
+import org.jid.metajava.model.AnnotationMeta;
+import org.jid.metajava.model.ClassMeta;
+import org.jid.metajava.model.ClassType;
+import org.jid.metajava.model.ImportMeta;
+import org.jid.metajava.model.MethodMeta;
+import org.jid.metajava.model.Modifier;
+import org.jid.metajava.model.VariableMeta;
+
+/**
+ * Reads the declarations of a compilation unit (classes, fields, methods and annotations) without javac. Method bodies and
+ * initializer blocks are skipped without being parsed. Types and initializers are rendered the way javac prints its trees, so the
+ * classes are equal to the ones extracted from the javac trees of the same file.
+ * <p>
+ * Throws {@link UnsupportedSyntaxException} when the file doesn't compile or uses a construct that javac prints in a way that is not
+ * reproduced here: anonymous classes, block lambdas, switch expressions, type annotations, etc.
+ */
+class DeclarationParser {
+
+  private static final Set<String> MODIFIERS = Set.of("public", "protected", "private", "abstract", "static", "final", "transient",
+    "volatile", "synchronized", "native", "strictfp", "default");
+  private static final Set<String> PRIMITIVE_TYPES = Set.of("boolean", "byte", "short", "int", "long", "char", "float", "double",
+    "void");
+  private static final Set<String> UNARY_OPERATORS = Set.of("+", "-", "++", "--", "!", "~");
+  private static final Set<String> ASSIGNMENT_OPERATORS = Set.of("=", "+=", "-=", "*=", "/=", "%=", "&=", "|=", "^=", "<<=", ">>=",
+    ">>>=");
+  private static final Map<String, Integer> BINARY_OPERATOR_PRECEDENCES = Map.ofEntries(
+    Map.entry("||", 1), Map.entry("&&", 2), Map.entry("|", 3), Map.entry("^", 4), Map.entry("&", 5),
+    Map.entry("==", 6), Map.entry("!=", 6),
+    Map.entry("<", 7), Map.entry(">", 7), Map.entry("<=", 7), Map.entry(">=", 7), Map.entry("instanceof", 7),
+    Map.entry("<<", 8), Map.entry(">>", 8), Map.entry(">>>", 8),
+    Map.entry("+", 9), Map.entry("-", 9),
+    Map.entry("*", 10), Map.entry("/", 10), Map.entry("%", 10));
+  // Flags added by javac to the members it generates while parsing
+  private static final Set<Modifier> ENUM_CONSTANT_MODIFIERS = Set.of(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL);
+  private static final Set<Modifier> RECORD_FIELD_MODIFIERS = Set.of(Modifier.PRIVATE, Modifier.FINAL);
+
+  private final JavaLexer lexer;
+  private final String sourceFileUri;
+  private final MetaCanonicalizer canonicalizer;
+  private final ExtractionOptions options;
+  private final LazySource lazySource;
+
+  DeclarationParser(String source, String sourceFileUri, MetaCanonicalizer canonicalizer) {
+    this(source, sourceFileUri, canonicalizer, ExtractionOptions.all(), null);
+  }
+
+  /**
+   * @param options    Excluded parts are parsed, so that the syntax is checked like with every part, but they are not added to the
+   *                   classes
+   * @param lazySource When not null, the bodies of the top level classes are skipped and their members are read from this source
+   *                   when they are accessed for the first time
+   */
+  DeclarationParser(String source, String sourceFileUri, MetaCanonicalizer canonicalizer, ExtractionOptions options,
+    LazySource lazySource) {
+    this.lexer = new JavaLexer(source);
+    this.sourceFileUri = sourceFileUri;
+    this.canonicalizer = canonicalizer;
+    this.options = options;
+    this.lazySource = lazySource;
+  }
+
+  Set<ClassMeta> parseCompilationUnit() {
+    // Annotations of package-info files
+    parseModifiers();
+    if (!accept("package")) {
+      // javac can't read the package either (module-info or default package)
+      throw new UnsupportedSyntaxException("Compilation unit without package");
+    }
+    String packageName = canonicalizer.intern(parseQualifiedName());
+    expect(";");
+
+    List<ImportMeta> importList = new ArrayList<>();
+    while (accept("import")) {
+      boolean isStatic = accept("static");
+      String importName = parseQualifiedName();
+      expect(";");
+      importList.add(canonicalizer.canonical(new ImportMeta(canonicalizer.intern(importName), isStatic)));
+    }
+    // The same imports set is shared by all the classes of the compilation unit
+    Set<ImportMeta> imports = options.includes(ModelPart.IMPORTS)
+      ? canonicalizer.canonicalSet(importList.stream().collect(toUnmodifiableSet())) : Set.of();
+    var compilationUnitMeta = new CompilationUnitMeta(sourceFileUri, packageName, imports);
+
+    // Classes with lazy members are not hashed, their members would be read
+    Set<ClassMeta> classes = lazySource == null ? new HashSet<>() : new ClassMetaSet();
+    while (lexer.kind() != TokenKind.EOF) {
+      if (accept(";")) {
+        continue;
+      }
+      Modifiers modifiers = parseModifiers();
+      classes.add(parseClass(modifiers, compilationUnitMeta));
+    }
+    return classes;
+  }
+
+  private ClassMeta parseClass(Modifiers modifiers, CompilationUnitMeta compilationUnitMeta) {
+    ClassType classType = parseClassKeyword();
+    String className = canonicalizer.intern(identifier());
+    skipTypeParameters();
+    List<VariableMeta> recordComponents = classType == ClassType.RECORD ? parseParameters() : List.of();
+
+    Set<String> extendsFrom = Set.of();
+    Set<String> implementsFrom = Set.of();
+    Set<String> permits = Set.of();
+    if (accept("extends")) {
+      extendsFrom = classType == ClassType.CLASS ? Set.of(parseType()) : splitTypeList(parseTypeList());
+    }
+    if (accept("implements")) {
+      implementsFrom = splitTypeList(parseTypeList());
+    }
+    if (accept("permits")) {
+      permits = parseTypeList().stream().collect(toUnmodifiableSet());
+    }
+
+    var header = new ClassHeader(className, classType, recordComponents, new CompilationUnitMeta(compilationUnitMeta.sourceFile(),
+      canonicalizer.intern(compilationUnitMeta.packageName() + "." + className), compilationUnitMeta.imports()));
+    ClassBody body;
+    if (lazySource == null) {
+      body = parseClassBody(header);
+    } else {
+      if (!is("{")) {
+        throw new UnsupportedSyntaxException("Expected { instead of " + lexer.text());
+      }
+      // The body is parsed from this position when a member is accessed for the first time
+      int bodyStart = lexer.start();
+      lexer.skipBlock();
+      body = new LazyClassBody(lazySource, bodyStart, header, compilationUnitMeta.packageName()).asClassBody();
+    }
+
+    return new ClassMeta(className, classType, body.methods(), modifiers.annotations(), compilationUnitMeta.packageName(),
+      compilationUnitMeta.sourceFile(), compilationUnitMeta.imports(), internAll(extendsFrom), internAll(implementsFrom),
+      body.fields(), body.constructors(), body.nestedClasses(), modifiers.flags(), internAll(permits));
+  }
+
+  /**
+   * Parses the body of a class read before with a lazy source. The source must be the same one.
+   */
+  ClassBody parseClassBody(int bodyStart, ClassHeader header) {
+    lexer.reset(bodyStart);
+    return parseClassBody(header);
+  }
+
+  private ClassBody parseClassBody(ClassHeader header) {
+    var members = new ClassMembers(header);
+    expect("{");
+    if (header.classType() == ClassType.ENUM) {
+      parseEnumConstants(members);
+    }
+    while (!accept("}")) {
+      parseMember(members);
+    }
+    if (options.includes(ModelPart.FIELDS)) {
+      header.recordComponents().forEach(component -> members.fields.add(new VariableMeta(component.name(), component.type(), null,
+        canonicalizer.canonicalSet(RECORD_FIELD_MODIFIERS), component.annotations())));
+    }
+
+    return new ClassBody(hashCaching(unmodifiableSet(members.methods)), hashCaching(unmodifiableSet(members.constructors)),
+      hashCaching(unmodifiableSet(members.fields)), hashCaching(unmodifiableSet(members.nestedClasses)));
+  }
+
+  private ClassType parseClassKeyword() {
+    if (accept("class")) {
+      return ClassType.CLASS;
+    }
+    if (accept("interface")) {
+      return ClassType.INTERFACE;
+    }
+    if (accept("enum")) {
+      return ClassType.ENUM;
+    }
+    if (accept("@")) {
+      expect("interface");
+      return ClassType.ANNOTATION;
+    }
+    if (isRecordDeclaration()) {
+      lexer.next();
+      return ClassType.RECORD;
+    }
+    throw new UnsupportedSyntaxException("Expected a class declaration");
+  }
+
+  private boolean isClassDeclaration() {
+    return is("class") || is("interface") || is("enum") || (is("@") && nextIs("interface")) || isRecordDeclaration();
+  }
+
+  // "record" is not a keyword: it can be the name of a type or a field too
+  private boolean isRecordDeclaration() {
+    if (!is("record")) {
+      return false;
+    }
+    int mark = lexer.start();
+    lexer.next();
+    boolean isRecord = false;
+    if (lexer.kind() == TokenKind.IDENTIFIER) {
+      lexer.next();
+      isRecord = is("(") || is("<");
+    }
+    lexer.reset(mark);
+    return isRecord;
+  }
+
+  // javac joins the types with "," and the processors split them again, so the type arguments are split too
+  private static Set<String> splitTypeList(List<String> types) {
+    return Stream.of(String.join(",", types).split(",")).map(String::trim).collect(toUnmodifiableSet());
+  }
+
+  private Set<String> internAll(Set<String> values) {
+    return canonicalizer.canonicalSet(values.stream().map(canonicalizer::intern).collect(toUnmodifiableSet()));
+  }
+
+  private void parseEnumConstants(ClassMembers members) {
+    while (!is(";") && !is("}")) {
+      Modifiers modifiers = parseModifiers();
+      String constantName = identifier();
+      List<Expression> arguments = is("(") ? parseArguments() : List.of();
+      if (is("{")) {
+        throw new UnsupportedSyntaxException("Enum constant with a body");
+      }
+      String initializer = options.includes(ModelPart.FIELD_INITIALIZERS)
+        ? "new " + members.className + "(" + joinTexts(arguments, ", ") + ")" : null;
+      addField(members, new VariableMeta(canonicalizer.intern(constantName), members.className, canonicalizer.intern(initializer),
+        canonicalizer.canonicalSet(ENUM_CONSTANT_MODIFIERS), modifiers.annotations()));
+      if (!accept(",")) {
+        break;
+      }
+    }
+  }
+
+  private void parseMember(ClassMembers members) {
+    if (accept(";")) {
+      return;
+    }
+    if (is("{") || (is("static") && nextIs("{"))) {
+      accept("static");
+      lexer.skipBlock();
+      return;
+    }
+
+    Modifiers modifiers = parseModifiers();
+    if (isClassDeclaration()) {
+      ClassMeta nestedClass = parseClass(modifiers, members.nestedCompilationUnitMeta);
+      if (options.includes(ModelPart.NESTED_CLASSES)) {
+        members.nestedClasses.add(nestedClass);
+      }
+      return;
+    }
+    skipTypeParameters();
+
+    if (is(members.className) && nextIs("(")) {
+      lexer.next();
+      List<VariableMeta> parameters = parseParameters();
+      Set<String> exceptions = parseThrows();
+      lexer.skipBlock();
+      addConstructor(members, newMethod("<init>", null, parameters, exceptions, modifiers));
+      return;
+    }
+    if (members.classType == ClassType.RECORD && is(members.className) && nextIs("{")) {
+      // Compact constructor: javac adds a parameter for every record component
+      lexer.next();
+      lexer.skipBlock();
+      List<VariableMeta> parameters = members.recordComponents.stream()
+        .map(component -> new VariableMeta(component.name(), component.type(), null, Set.of(), component.annotations()))
+        .toList();
+      addConstructor(members, newMethod("<init>", null, parameters, Set.of(), modifiers));
+      return;
+    }
+
+    String type = parseType();
+    String name = identifier();
+    if (is("(")) {
+      List<VariableMeta> parameters = parseParameters();
+      String returnType = type + parseDimensions();
+      Set<String> exceptions = parseThrows();
+      if (accept("default")) {
+        skipUntilSemicolon();
+      }
+      if (is("{")) {
+        lexer.skipBlock();
+      } else {
+        expect(";");
+      }
+      if (options.includes(ModelPart.METHODS)) {
+        members.methods.add(newMethod(name, returnType, parameters, exceptions, modifiers));
+      }
+      return;
+    }
+
+    while (true) {
+      String fieldType = type + parseDimensions();
+      String initializer = accept("=") ? initializerValue(parseVariableInitializer().text()) : null;
+      if (!options.includes(ModelPart.FIELD_INITIALIZERS)) {
+        initializer = null;
+      }
+      addField(members, new VariableMeta(canonicalizer.intern(name), canonicalizer.intern(fieldType),
+        canonicalizer.intern(initializer), modifiers.flags(), modifiers.annotations()));
+      if (!accept(",")) {
+        break;
+      }
+      name = identifier();
+    }
+    expect(";");
+  }
+
+  private void addConstructor(ClassMembers members, MethodMeta constructor) {
+    if (options.includes(ModelPart.CONSTRUCTORS)) {
+      members.constructors.add(constructor);
+    }
+  }
+
+  private void addField(ClassMembers members, VariableMeta field) {
+    if (options.includes(ModelPart.FIELDS)) {
+      members.fields.add(field);
+    }
+  }
+
+  private MethodMeta newMethod(String name, String returnType, List<VariableMeta> parameters, Set<String> exceptions,
+    Modifiers modifiers) {
+    if (!options.includes(ModelPart.PARAMETER_ANNOTATIONS)) {
+      parameters = parameters.stream()
+        .map(parameter -> parameter.annotations().isEmpty() ? parameter
+          : new VariableMeta(parameter.name(), parameter.type(), null, parameter.modifiers(), Set.of()))
+        .toList();
+    }
+    return new MethodMeta(canonicalizer.intern(name), canonicalizer.intern(returnType),
+      emptyIfEmpty(unmodifiableList(parameters)), exceptions, modifiers.flags(), modifiers.annotations());
+  }
+
+  // Same value as the one read from javac trees: the quotes of string literals are removed
+  private static String initializerValue(String initializer) {
+    if (initializer.startsWith("\"") && initializer.endsWith("\"")) {
+      return initializer.substring(1, initializer.length() - 1);
+    }
+    return initializer;
+  }
+
+  private Set<String> parseThrows() {
+    if (!accept("throws")) {
+      return Set.of();
+    }
+    return internAll(parseTypeList().stream().collect(toUnmodifiableSet()));
+  }
+
+  // Parameters of methods and constructors, and record components
+  private List<VariableMeta> parseParameters() {
+    expect("(");
+    var parameters = new ArrayList<VariableMeta>();
+    if (accept(")")) {
+      return parameters;
+    }
+    do {
+      Modifiers modifiers = parseModifiers();
+      String type = parseType();
+      if (accept("...")) {
+        type += "[]";
+      }
+      if (accept("this")) {
+        // Receiver parameters are not parameters for javac
+        continue;
+      }
+      String name = identifier();
+      if (accept(".")) {
+        expect("this");
+        continue;
+      }
+      type += parseDimensions();
+      parameters.add(new VariableMeta(canonicalizer.intern(name), canonicalizer.intern(type), null, modifiers.flags(),
+        modifiers.annotations()));
+    } while (accept(","));
+    expect(")");
+    return parameters;
+  }
+
+  private Modifiers parseModifiers() {
+    Set<Modifier> flags = EnumSet.noneOf(Modifier.class);
+    List<Expression> annotations = new ArrayList<>();
+    while (true) {
+      if (is("@") && !nextIs("interface")) {
+        annotations.add(parseAnnotation());
+      } else if (lexer.kind() == TokenKind.IDENTIFIER && MODIFIERS.contains(lexer.text())) {
+        flags.add(Modifier.from(lexer.text()));
+        lexer.next();
+      } else if (is("sealed") && isFollowedByModifierOrClassKeyword()) {
+        flags.add(Modifier.SEALED);
+        lexer.next();
+      } else if (is("non") && lexer.startsWith("non-sealed")) {
+        flags.add(Modifier.NON_SEALED);
+        lexer.reset(lexer.start() + "non-sealed".length());
+      } else {
+        break;
+      }
+    }
+    return new Modifiers(canonicalizer.canonicalSet(Set.copyOf(flags)), getAnnotationMetas(annotations));
+  }
+
+  // "sealed" is not a keyword: it can be the name of a type too
+  private boolean isFollowedByModifierOrClassKeyword() {
+    int mark = lexer.start();
+    lexer.next();
+    boolean followed = is("@") || is("class") || is("interface") || is("sealed") || is("non")
+      || (lexer.kind() == TokenKind.IDENTIFIER && MODIFIERS.contains(lexer.text()));
+    lexer.reset(mark);
+    return followed;
+  }
+
+  private Set<AnnotationMeta> getAnnotationMetas(List<Expression> annotations) {
+    if (annotations.isEmpty()) {
+      return Set.of();
+    }
+    var annotationMetas = new HashSet<AnnotationMeta>();
+    annotations.forEach(annotation -> {
+      Set<AnnotationArgument> args = annotation.arguments().stream()
+        .map(this::getAnnotationArgument)
+        .collect(toSet());
+      annotationMetas.add(canonicalizer.canonical(new AnnotationMeta(canonicalizer.intern(annotation.value()),
+        canonicalizer.canonicalSet(unmodifiableSet(args)))));
+    });
+    return canonicalizer.canonicalSet(unmodifiableSet(annotationMetas));
+  }
+
+  // Only string literals, member selections and assignments are read from javac trees
+  private AnnotationArgument getAnnotationArgument(Expression argument) {
+    AnnotationArgument annotationArgument = switch (argument.kind()) {
+      case STRING_LITERAL -> new AnnotationArgument(null, argument.value());
+      case MEMBER_SELECT -> new AnnotationArgument(null, argument.text());
+      case ASSIGNMENT -> new AnnotationArgument(argument.lhs().text(), argument.rhs().text());
+      default -> null;
+    };
+    return annotationArgument == null ? null : canonicalizer.canonical(
+      new AnnotationArgument(canonicalizer.intern(annotationArgument.name()), canonicalizer.intern(annotationArgument.value())));
+  }
+
+  // The annotation type is kept in the value of the expression and its arguments in the operands
+  private Expression parseAnnotation() {
+    expect("@");
+    String name = parseQualifiedName();
+    List<Expression> arguments = List.of();
+    if (accept("(")) {
+      arguments = new ArrayList<>();
+      if (!is(")")) {
+        do {
+          if (lexer.kind() == TokenKind.IDENTIFIER && nextIs("=")) {
+            Expression argumentName = Expression.of(identifier());
+            expect("=");
+            arguments.add(Expression.assignment(argumentName, "=", parseElementValue()));
+          } else {
+            arguments.add(parseElementValue());
+          }
+        } while (accept(","));
+      }
+      expect(")");
+    }
+    String text = "@" + name + (arguments.isEmpty() ? "" : "(" + joinTexts(arguments, ", ") + ")");
+    return new Expression(ExpressionKind.ANNOTATION, text, name, arguments, null, null);
+  }
+
+  private Expression parseElementValue() {
+    if (is("@")) {
+      return parseAnnotation();
+    }
+    if (is("{")) {
+      return parseArrayInitializer();
+    }
+    return parseConditional();
+  }
+
+  private Expression parseVariableInitializer() {
+    return is("{") ? parseArrayInitializer() : parseExpression();
+  }
+
+  private Expression parseArrayInitializer() {
+    expect("{");
+    var elements = new ArrayList<Expression>();
+    while (!is("}")) {
+      elements.add(is("@") ? parseAnnotation() : parseVariableInitializer());
+      if (!accept(",")) {
+        break;
+      }
+    }
+    expect("}");
+    return Expression.of("{" + joinTexts(elements, ", ") + "}");
+  }
+
+  private Expression parseExpression() {
+    Expression lhs = parseConditional();
+    String operator = assignmentOperator();
+    if (operator == null) {
+      return lhs;
+    }
+    lexer.reset(lexer.start() + operator.length());
+    return Expression.assignment(lhs, operator, parseExpression());
+  }
+
+  private String assignmentOperator() {
+    if (lexer.kind() != TokenKind.OPERATOR) {
+      return null;
+    }
+    String operator = is(">") ? lexer.greaterThanOperator() : lexer.text();
+    return ASSIGNMENT_OPERATORS.contains(operator) ? operator : null;
+  }
+
+  private Expression parseConditional() {
+    Expression condition = parseBinaryChain();
+    if (!accept("?")) {
+      return condition;
+    }
+    Expression ifTrue = parseExpression();
+    expect(":");
+    Expression ifFalse = parseConditional();
+    return Expression.of(condition.text() + " ? " + ifTrue.text() + " : " + ifFalse.text());
+  }
+
+  // Like javac, adjacent string literals of a concatenation are folded into one literal
+  private Expression parseBinaryChain() {
+    Expression chain = parseBinary(1);
+    return chain.kind() == ExpressionKind.PLUS ? foldStrings(chain) : chain;
+  }
+
+  private Expression parseBinary(int minPrecedence) {
+    Expression lhs = parseUnary();
+    while (true) {
+      String operator = binaryOperator();
+      if (operator == null || BINARY_OPERATOR_PRECEDENCES.get(operator) < minPrecedence) {
+        return lhs;
+      }
+      lexer.reset(lexer.start() + operator.length());
+      if (operator.equals("instanceof")) {
+        String type = parseType();
+        if (lexer.kind() == TokenKind.IDENTIFIER || is("(")) {
+          throw new UnsupportedSyntaxException("Pattern matching");
+        }
+        lhs = Expression.of(lhs.text() + " instanceof " + type);
+      } else {
+        lhs = Expression.binary(lhs, operator, parseBinary(BINARY_OPERATOR_PRECEDENCES.get(operator) + 1));
+      }
+    }
+  }
+
+  private String binaryOperator() {
+    if (is("instanceof")) {
+      return "instanceof";
+    }
+    if (lexer.kind() != TokenKind.OPERATOR) {
+      return null;
+    }
+    String operator = is(">") ? lexer.greaterThanOperator() : lexer.text();
+    return BINARY_OPERATOR_PRECEDENCES.containsKey(operator) ? operator : null;
+  }
+
+  private static Expression foldStrings(Expression chain) {
+    var operands = new ArrayList<Expression>();
+    Expression current = chain;
+    while (current.kind() == ExpressionKind.PLUS) {
+      operands.add(current.rhs());
+      current = current.lhs();
+    }
+    operands.add(current);
+    Collections.reverse(operands);
+
+    var folded = new ArrayList<Expression>();
+    boolean changed = false;
+    for (int i = 0; i < operands.size(); ) {
+      int end = i;
+      var value = new StringBuilder();
+      while (end < operands.size() && operands.get(end).kind() == ExpressionKind.STRING_LITERAL) {
+        value.append(operands.get(end).value());
+        end++;
+      }
+      if (end - i > 1) {
+        folded.add(Expression.stringLiteral(value.toString()));
+        changed = true;
+        i = end;
+      } else {
+        folded.add(operands.get(i));
+        i++;
+      }
+    }
+    if (!changed) {
+      return chain;
+    }
+    Expression result = folded.getFirst();
+    for (Expression operand : folded.subList(1, folded.size())) {
+      result = Expression.binary(result, "+", operand);
+    }
+    return result;
+  }
+
+  private Expression parseUnary() {
+    if (lexer.kind() == TokenKind.OPERATOR && UNARY_OPERATORS.contains(lexer.text())) {
+      String operator = lexer.text();
+      lexer.next();
+      if (operator.equals("-") && isDecimalIntegerLiteral()) {
+        // javac reads the minus sign as part of the literal, so that the lowest values can be written
+        return parsePostfix(parseLiteral(true));
+      }
+      return Expression.of(operator + parseUnary().text());
+    }
+    if (is("(")) {
+      return parseParenthesized();
+    }
+    return parsePostfix(parsePrimary());
+  }
+
+  // Cast, lambda or parenthesized expression
+  private Expression parseParenthesized() {
+    int mark = lexer.start();
+    if (isLambdaWithParentheses()) {
+      lexer.next();
+      var parameters = new ArrayList<String>();
+      if (!is(")")) {
+        do {
+          parameters.add(identifier());
+          if (!is(",") && !is(")")) {
+            throw new UnsupportedSyntaxException("Lambda with explicit parameter types");
+          }
+        } while (accept(","));
+      }
+      expect(")");
+      return parseLambdaBody(parameters);
+    }
+
+    lexer.next();
+    List<String> castTypes = tryParseCastTypes();
+    if (castTypes != null) {
+      boolean isPrimitive = castTypes.size() == 1 && PRIMITIVE_TYPES.contains(castTypes.getFirst());
+      if (isPrimitive || startsUnaryNotPlusMinus()) {
+        return Expression.of("(" + String.join(" & ", castTypes) + ")" + parseUnary().text());
+      }
+      lexer.reset(mark);
+      lexer.next();
+    }
+    Expression expression = parseExpression();
+    expect(")");
+    return parsePostfix(Expression.of("(" + expression.text() + ")"));
+  }
+
+  private boolean isLambdaWithParentheses() {
+    int mark = lexer.start();
+    int depth = 0;
+    do {
+      if (is("(")) {
+        depth++;
+      } else if (is(")")) {
+        depth--;
+      }
+      lexer.next();
+    } while (depth > 0 && lexer.kind() != TokenKind.EOF);
+    boolean isLambda = is("->");
+    lexer.reset(mark);
+    return isLambda;
+  }
+
+  private List<String> tryParseCastTypes() {
+    int mark = lexer.start();
+    try {
+      var types = new ArrayList<String>();
+      types.add(parseType());
+      while (accept("&")) {
+        types.add(parseType());
+      }
+      if (accept(")")) {
+        return types;
+      }
+    } catch (UnsupportedSyntaxException e) {
+      // Not a type
+    }
+    lexer.reset(mark);
+    return null;
+  }
+
+  private boolean startsUnaryNotPlusMinus() {
+    return switch (lexer.kind()) {
+      case IDENTIFIER -> !is("instanceof");
+      case OPERATOR -> is("(") || is("!") || is("~");
+      case EOF -> false;
+      default -> true;
+    };
+  }
+
+  private Expression parseLambdaBody(List<String> parameters) {
+    expect("->");
+    if (is("{")) {
+      throw new UnsupportedSyntaxException("Lambda with a block body");
+    }
+    return Expression.of("(" + String.join(",", parameters) + ")->" + parseExpression().text());
+  }
+
+  private Expression parsePrimary() {
+    if (lexer.kind() != TokenKind.IDENTIFIER && lexer.kind() != TokenKind.OPERATOR && lexer.kind() != TokenKind.EOF) {
+      return parseLiteral(false);
+    }
+    if (is("@")) {
+      return parseAnnotation();
+    }
+    if (is("{")) {
+      return parseArrayInitializer();
+    }
+    if (lexer.kind() != TokenKind.IDENTIFIER) {
+      throw new UnsupportedSyntaxException("Unexpected token " + lexer.text());
+    }
+
+    String name = lexer.text();
+    switch (name) {
+      case "new" -> {
+        return parseCreator();
+      }
+      case "switch" -> throw new UnsupportedSyntaxException("Switch expression");
+      default -> {
+      }
+    }
+    if (nextIs("->")) {
+      lexer.next();
+      return parseLambdaBody(List.of(name));
+    }
+    lexer.next();
+    if (is("(")) {
+      return Expression.of(name + "(" + joinTexts(parseArguments(), ", ") + ")");
+    }
+    return Expression.of(name);
+  }
+
+  private Expression parsePostfix(Expression expression) {
+    while (true) {
+      if (accept(".")) {
+        if (is("<")) {
+          String typeArguments = parseTypeArguments();
+          String name = identifier();
+          expression = Expression.of(expression.text() + ".<" + typeArguments + ">" + name + "("
+            + joinTexts(parseArguments(), ", ") + ")");
+        } else if (is("new")) {
+          expression = Expression.of(expression.text() + "." + parseCreator().text());
+        } else {
+          String name = identifier();
+          expression = is("(")
+            ? Expression.of(expression.text() + "." + name + "(" + joinTexts(parseArguments(), ", ") + ")")
+            : new Expression(ExpressionKind.MEMBER_SELECT, expression.text() + "." + name, null, List.of(), null, null);
+        }
+      } else if (is("[") && nextIs("]")) {
+        // Array type of a class literal or a method reference
+        expression = Expression.of(expression.text() + parseDimensions());
+      } else if (accept("[")) {
+        Expression index = parseExpression();
+        expect("]");
+        expression = Expression.of(expression.text() + "[" + index.text() + "]");
+      } else if (accept("::")) {
+        String typeArguments = is("<") ? "<" + parseTypeArguments() + ">" : "";
+        expression = Expression.of(expression.text() + "::" + typeArguments + identifier());
+      } else if (is("++") || is("--")) {
+        expression = Expression.of(expression.text() + lexer.text());
+        lexer.next();
+      } else {
+        return expression;
+      }
+    }
+  }
+
+  private Expression parseCreator() {
+    expect("new");
+    String typeArguments = is("<") ? "<" + parseTypeArguments() + ">" : "";
+    String type = parseNonArrayType();
+    if (is("[")) {
+      var text = new StringBuilder("new ").append(type);
+      boolean hasDimensionExpressions = false;
+      boolean hasEmptyDimensions = false;
+      while (accept("[")) {
+        if (accept("]")) {
+          text.append("[]");
+          hasEmptyDimensions = true;
+        } else if (hasEmptyDimensions) {
+          throw new UnsupportedSyntaxException("Array dimension after an empty one");
+        } else {
+          text.append('[').append(parseExpression().text()).append(']');
+          expect("]");
+          hasDimensionExpressions = true;
+        }
+      }
+      if (!hasDimensionExpressions) {
+        text.append(parseArrayInitializer().text());
+      }
+      return Expression.of(text.toString());
+    }
+
+    List<Expression> arguments = parseArguments();
+    if (is("{")) {
+      throw new UnsupportedSyntaxException("Anonymous class");
+    }
+    return Expression.of("new " + typeArguments + type + "(" + joinTexts(arguments, ", ") + ")");
+  }
+
+  private List<Expression> parseArguments() {
+    expect("(");
+    var arguments = new ArrayList<Expression>();
+    if (!is(")")) {
+      do {
+        arguments.add(parseExpression());
+      } while (accept(","));
+    }
+    expect(")");
+    return arguments;
+  }
+
+  private boolean isDecimalIntegerLiteral() {
+    return (lexer.kind() == TokenKind.INT_LITERAL || lexer.kind() == TokenKind.LONG_LITERAL)
+      && radix(lexer.text()) == 10;
+  }
+
+  private Expression parseLiteral(boolean negative) {
+    String literal = lexer.text();
+    TokenKind kind = lexer.kind();
+    lexer.next();
+    try {
+      return switch (kind) {
+        case INT_LITERAL -> Expression.of(String.valueOf(intValue(literal.replace("_", ""), negative)));
+        case LONG_LITERAL -> Expression.of(longValue(literal.replace("_", "").substring(0, literal.replace("_", "").length() - 1),
+          negative) + "L");
+        case FLOAT_LITERAL -> Expression.of(Float.valueOf(literal.replace("_", "")) + "F");
+        case DOUBLE_LITERAL -> Expression.of(Double.valueOf(literal.replace("_", "")).toString());
+        case CHAR_LITERAL -> {
+          String value = literal.substring(1, literal.length() - 1).translateEscapes();
+          if (value.length() != 1) {
+            throw new UnsupportedSyntaxException("Illegal char literal");
+          }
+          yield Expression.of("'" + quote(value) + "'");
+        }
+        case STRING_LITERAL -> Expression.stringLiteral(stringValue(literal));
+        default -> throw new UnsupportedSyntaxException("Unexpected token " + literal);
+      };
+    } catch (IllegalArgumentException e) {
+      // Includes NumberFormatException
+      throw new UnsupportedSyntaxException("Illegal literal " + literal);
+    }
+  }
+
+  private static int radix(String literal) {
+    if (literal.startsWith("0x") || literal.startsWith("0X")) {
+      return 16;
+    }
+    if (literal.startsWith("0b") || literal.startsWith("0B")) {
+      return 2;
+    }
+    return literal.length() > 1 && literal.startsWith("0") && Character.isDigit(literal.charAt(1)) ? 8 : 10;
+  }
+
+  private static int intValue(String digits, boolean negative) {
+    int radix = radix(digits);
+    if (radix == 10) {
+      return Integer.parseInt(negative ? "-" + digits : digits);
+    }
+    // Values up to 32 bits are allowed, so 0xFFFFFFFF is -1
+    long value = Long.parseLong(radix == 8 ? digits : digits.substring(2), radix);
+    if (value > 0xFFFFFFFFL) {
+      throw new NumberFormatException(digits);
+    }
+    return (int) value;
+  }
+
+  private static long longValue(String digits, boolean negative) {
+    int radix = radix(digits);
+    if (radix == 10) {
+      return Long.parseLong(negative ? "-" + digits : digits);
+    }
+    return Long.parseUnsignedLong(radix == 8 ? digits : digits.substring(2), radix);
+  }
+
+  private static String stringValue(String literal) {
+    if (!literal.startsWith("\"\"\"")) {
+      return literal.substring(1, literal.length() - 1).translateEscapes();
+    }
+    // Text block: the content starts in the line after the opening delimiter
+    String content = literal.substring(3, literal.length() - 3);
+    int firstLineEnd = 0;
+    while (firstLineEnd < content.length() && content.charAt(firstLineEnd) != '\n' && content.charAt(firstLineEnd) != '\r') {
+      if (!Character.isWhitespace(content.charAt(firstLineEnd))) {
+        throw new UnsupportedSyntaxException("Illegal text block");
+      }
+      firstLineEnd++;
+    }
+    if (content.startsWith("\r\n", firstLineEnd)) {
+      firstLineEnd++;
+    }
+    content = content.substring(Math.min(firstLineEnd + 1, content.length())).replace("\r\n", "\n").replace('\r', '\n');
+    return content.stripIndent().translateEscapes();
+  }
+
+  // Same escaping as javac's when printing literals
+  private static String quote(String value) {
+    var quoted = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\b' -> quoted.append("\\b");
+        case '\f' -> quoted.append("\\f");
+        case '\n' -> quoted.append("\\n");
+        case '\r' -> quoted.append("\\r");
+        case '\t' -> quoted.append("\\t");
+        case '\'' -> quoted.append("\\'");
+        case '"' -> quoted.append("\\\"");
+        case '\\' -> quoted.append("\\\\");
+        default -> {
+          if (c >= ' ' && c <= '~') {
+            quoted.append(c);
+          } else {
+            quoted.append(String.format("\\u%04x", (int) c));
+          }
+        }
+      }
+    }
+    return quoted.toString();
+  }
+
+  private String parseType() {
+    String type = parseNonArrayType();
+    return type + parseDimensions();
+  }
+
+  private String parseNonArrayType() {
+    if (is("@")) {
+      throw new UnsupportedSyntaxException("Type annotation");
+    }
+    if (lexer.kind() == TokenKind.IDENTIFIER && PRIMITIVE_TYPES.contains(lexer.text())) {
+      return identifier();
+    }
+
+    var type = new StringBuilder(identifier());
+    while (true) {
+      if (is("<")) {
+        type.append('<').append(parseTypeArguments()).append('>');
+      }
+      if (!is(".") || !nextIsTypeName()) {
+        return type.toString();
+      }
+      lexer.next();
+      type.append('.').append(identifier());
+    }
+  }
+
+  private boolean nextIsTypeName() {
+    int mark = lexer.start();
+    lexer.next();
+    boolean isTypeName = lexer.kind() == TokenKind.IDENTIFIER && !is("class") && !is("this") && !is("super") && !is("new");
+    lexer.reset(mark);
+    return isTypeName;
+  }
+
+  // Returns the arguments without the angle brackets. Empty for the diamond operator.
+  private String parseTypeArguments() {
+    expect("<");
+    if (accept(">")) {
+      return "";
+    }
+    var arguments = new ArrayList<String>();
+    do {
+      if (accept("?")) {
+        if (accept("extends")) {
+          arguments.add("? extends " + parseType());
+        } else if (accept("super")) {
+          arguments.add("? super " + parseType());
+        } else {
+          arguments.add("?");
+        }
+      } else {
+        arguments.add(parseType());
+      }
+    } while (accept(","));
+    expect(">");
+    return String.join(", ", arguments);
+  }
+
+  private List<String> parseTypeList() {
+    var types = new ArrayList<String>();
+    do {
+      types.add(parseType());
+    } while (accept(","));
+    return types;
+  }
+
+  private String parseDimensions() {
+    var dimensions = new StringBuilder();
+    while (is("[") && nextIs("]")) {
+      lexer.next();
+      lexer.next();
+      dimensions.append("[]");
+    }
+    return dimensions.toString();
+  }
+
+  private void skipTypeParameters() {
+    if (!is("<")) {
+      return;
+    }
+    int depth = 0;
+    do {
+      if (is("<")) {
+        depth++;
+      } else if (is(">")) {
+        depth--;
+      } else if (lexer.kind() == TokenKind.EOF) {
+        throw new UnsupportedSyntaxException("Unclosed type parameters");
+      }
+      lexer.next();
+    } while (depth > 0);
+  }
+
+  // Default value of an annotation method
+  private void skipUntilSemicolon() {
+    int depth = 0;
+    while (depth > 0 || !is(";")) {
+      if (is("(") || is("{") || is("[")) {
+        depth++;
+      } else if (is(")") || is("}") || is("]")) {
+        depth--;
+      } else if (lexer.kind() == TokenKind.EOF) {
+        throw new UnsupportedSyntaxException("Unexpected end of file");
+      }
+      lexer.next();
+    }
+  }
+
+  private String parseQualifiedName() {
+    var name = new StringBuilder(identifier());
+    while (accept(".")) {
+      name.append('.').append(accept("*") ? "*" : identifier());
+    }
+    return name.toString();
+  }
+
+  private String identifier() {
+    if (lexer.kind() != TokenKind.IDENTIFIER) {
+      throw new UnsupportedSyntaxException("Expected an identifier instead of " + lexer.text());
+    }
+    String identifier = lexer.text();
+    lexer.next();
+    return identifier;
+  }
+
+  private boolean is(String token) {
+    return lexer.is(token);
+  }
+
+  private boolean nextIs(String token) {
+    int mark = lexer.start();
+    lexer.next();
+    boolean next = is(token);
+    lexer.reset(mark);
+    return next;
+  }
+
+  private boolean accept(String token) {
+    if (!is(token)) {
+      return false;
+    }
+    lexer.next();
+    return true;
+  }
+
+  private void expect(String token) {
+    if (!accept(token)) {
+      throw new UnsupportedSyntaxException("Expected " + token + " instead of " + lexer.text());
+    }
+  }
+
+  private static String joinTexts(List<Expression> expressions, String separator) {
+    return expressions.stream().map(Expression::text).collect(joining(separator));
+  }
+
+  private record Modifiers(Set<Modifier> flags, Set<AnnotationMeta> annotations) {
+
+  }
+
+  /**
+   * What is needed to parse the body of a class, besides the source.
+   */
+  record ClassHeader(String className, ClassType classType, List<VariableMeta> recordComponents,
+                     CompilationUnitMeta nestedCompilationUnitMeta) {
+
+  }
+
+  record ClassBody(Set<MethodMeta> methods, Set<MethodMeta> constructors, Set<VariableMeta> fields, Set<ClassMeta> nestedClasses) {
+
+  }
+
+  private static class ClassMembers {
+
+    private final String className;
+    private final ClassType classType;
+    private final List<VariableMeta> recordComponents;
+    private final CompilationUnitMeta nestedCompilationUnitMeta;
+    private final Set<MethodMeta> methods = new HashSet<>();
+    private final Set<MethodMeta> constructors = new HashSet<>();
+    private final Set<VariableMeta> fields = new HashSet<>();
+    private final Set<ClassMeta> nestedClasses = new HashSet<>();
+
+    private ClassMembers(ClassHeader header) {
+      this.className = header.className();
+      this.classType = header.classType();
+      this.recordComponents = header.recordComponents();
+      this.nestedCompilationUnitMeta = header.nestedCompilationUnitMeta();
+    }
+  }
+
+  private enum ExpressionKind {
+    STRING_LITERAL, MEMBER_SELECT, ASSIGNMENT, PLUS, ANNOTATION, OTHER
+  }
+
+  /**
+   * Expression as printed by javac. Only the parts read by the processors are kept: the value of string literals, the operands of
+   * assignments and concatenations, and the type and arguments of annotations.
+   */
+  private record Expression(ExpressionKind kind, String text, String value, List<Expression> arguments, Expression lhs,
+                            Expression rhs) {
+
+    static Expression of(String text) {
+      return new Expression(ExpressionKind.OTHER, text, null, List.of(), null, null);
+    }
+
+    static Expression stringLiteral(String value) {
+      return new Expression(ExpressionKind.STRING_LITERAL, "\"" + quote(value) + "\"", value, List.of(), null, null);
+    }
+
+    static Expression binary(Expression lhs, String operator, Expression rhs) {
+      return new Expression(operator.equals("+") ? ExpressionKind.PLUS : ExpressionKind.OTHER,
+        lhs.text() + " " + operator + " " + rhs.text(), null, List.of(), lhs, rhs);
+    }
+
+    static Expression assignment(Expression lhs, String operator, Expression rhs) {
+      return new Expression(operator.equals("=") ? ExpressionKind.ASSIGNMENT : ExpressionKind.OTHER,
+        lhs.text() + " " + operator + " " + rhs.text(), null, List.of(), lhs, rhs);
+    }
+  }
+
+}
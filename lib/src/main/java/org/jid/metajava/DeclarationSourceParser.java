@@ -0,0 +1,167 @@
+package org.jid.metajava;
+
+import static org.jid.metajava.CompilationUnitTreeFactory.getSourceFileUri;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.jid.metajava.internal.MetaCanonicalizer;
+import org.jid.metajava.model.ClassMeta;
+
+/**
+ * Parses the files with the {@link DeclarationParser}. Files it can't read like javac does are parsed with javac.
+ */
+class DeclarationSourceParser implements SourceParser {
+
+  private final JavacSourceParser javacSourceParser;
+  private final ExtractionOptions options;
+  private final boolean lazyMembers;
+
+  /**
+   * @param javacSourceParser Must use the same options
+   * @param lazyMembers       When true, the members of the classes are read from the source files when they are accessed for the
+   *                          first time
+   */
+  DeclarationSourceParser(JavacSourceParser javacSourceParser, ExtractionOptions options, boolean lazyMembers) {
+    this.javacSourceParser = javacSourceParser;
+    this.options = options;
+    this.lazyMembers = lazyMembers;
+  }
+
+  @Override
+  public void parse(Collection<File> files, MetaCanonicalizer canonicalizer, ClassMetaSink sink) {
+    List<File> unsupportedFiles = new ArrayList<>();
+    files.forEach(file -> {
+      Set<ClassMeta> classes = tryParse(file, canonicalizer);
+      if (classes == null) {
+        unsupportedFiles.add(file);
+      } else {
+        sink.accept(getSourceFileUri(file), classes);
+      }
+    });
+
+    if (!unsupportedFiles.isEmpty()) {
+      javacSourceParser.parse(unsupportedFiles, canonicalizer, sink);
+    }
+  }
+
+  @Override
+  public void parseInMemory(Collection<InMemorySource> sources, MetaCanonicalizer canonicalizer, ClassMetaSink sink) {
+    List<InMemorySource> unsupportedSources = new ArrayList<>();
+    sources.forEach(source -> {
+      String sourceFileUri = source.toUri().toString();
+      try {
+        sink.accept(sourceFileUri, parse(source.content(), sourceFileUri, canonicalizer, null));
+      } catch (UnsupportedSyntaxException e) {
+        unsupportedSources.add(source);
+      }
+    });
+
+    if (!unsupportedSources.isEmpty()) {
+      javacSourceParser.parseInMemory(unsupportedSources, canonicalizer, sink);
+    }
+  }
+
+  @Override
+  public void parseRead(Collection<FileContent> files, MetaCanonicalizer canonicalizer, ClassMetaSink sink) {
+    List<FileContent> unsupportedFiles = new ArrayList<>();
+    files.forEach(file -> {
+      String sourceFileUri = getSourceFileUri(file.file());
+      LazySource lazySource = lazyMembers
+        ? new LazySource(file.file(), sourceFileUri, file.content(), options) : null;
+      try {
+        sink.accept(sourceFileUri, parse(file.content(), sourceFileUri, canonicalizer, lazySource));
+      } catch (UnsupportedSyntaxException e) {
+        unsupportedFiles.add(file);
+      }
+    });
+
+    if (!unsupportedFiles.isEmpty()) {
+      javacSourceParser.parseRead(unsupportedFiles, canonicalizer, sink);
+    }
+  }
+
+  /**
+   * Files that fail with the declaration parser, for any reason, are parsed with javac, that reports their errors
+   */
+  @Override
+  public void parseIsolated(Collection<File> files, MetaCanonicalizer canonicalizer, ClassMetaSink sink,
+    Consumer<FileFailure> failureSink) {
+    List<File> javacFiles = new ArrayList<>();
+    files.forEach(file -> {
+      Set<ClassMeta> classes;
+      try {
+        classes = tryParse(file, canonicalizer);
+      } catch (RuntimeException e) {
+        classes = null;
+      }
+      if (classes == null) {
+        javacFiles.add(file);
+      } else {
+        sink.accept(getSourceFileUri(file), classes);
+      }
+    });
+
+    if (!javacFiles.isEmpty()) {
+      javacSourceParser.parseIsolated(javacFiles, canonicalizer, sink, failureSink);
+    }
+  }
+
+  @Override
+  public Stream<Map.Entry<String, Set<ClassMeta>>> stream(Collection<File> files) {
+    return files.stream().flatMap(file -> {
+      Set<ClassMeta> classes = tryParse(file, new MetaCanonicalizer());
+      return classes == null ? javacSourceParser.stream(List.of(file))
+        : Stream.of(Map.entry(getSourceFileUri(file), classes));
+    });
+  }
+
+  /**
+   * @return null when the file must be parsed with javac
+   */
+  private Set<ClassMeta> tryParse(File file, MetaCanonicalizer canonicalizer) {
+    String sourceFileUri = getSourceFileUri(file);
+    try {
+      var readEvent = new FileReadEvent();
+      readEvent.begin();
+      // Not UTF-8 files are reported by javac
+      String source = Files.readString(file.toPath());
+      readEvent.end();
+      if (readEvent.shouldCommit()) {
+        readEvent.sourceFile = sourceFileUri;
+        readEvent.size = file.length();
+        readEvent.commit();
+      }
+      LazySource lazySource = lazyMembers ? new LazySource(file, sourceFileUri, source, options) : null;
+      return parse(source, sourceFileUri, canonicalizer, lazySource);
+    } catch (IOException | UnsupportedSyntaxException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @throws UnsupportedSyntaxException When the source must be parsed with javac. The {@link FileParseEvent} is not committed then:
+   *                                    javac commits its own.
+   */
+  private Set<ClassMeta> parse(String source, String sourceFileUri, MetaCanonicalizer canonicalizer, LazySource lazySource) {
+    var event = new FileParseEvent();
+    event.begin();
+    Set<ClassMeta> classes = new DeclarationParser(source, sourceFileUri, canonicalizer, options, lazySource).parseCompilationUnit();
+    event.end();
+    if (event.shouldCommit()) {
+      event.sourceFile = sourceFileUri;
+      event.parserBackend = ParserBackend.DECLARATIONS.name();
+      event.classCount = classes.size();
+      event.commit();
+    }
+    return classes;
+  }
+
+}
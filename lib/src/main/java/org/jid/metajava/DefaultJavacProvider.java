@@ -0,0 +1,41 @@
+package org.jid.metajava;
+
+import com.sun.source.util.JavacTask;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import javax.tools.DiagnosticListener;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Creates a new file manager every time one is acquired, closing it when released, and a new javac task for every worker.
+ */
+class DefaultJavacProvider implements JavacProvider {
+
+  @Override
+  public StandardJavaFileManager acquireFileManager() {
+    return ToolProvider.getSystemJavaCompiler().getStandardFileManager(null, null, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void releaseFileManager(StandardJavaFileManager fileManager) {
+    try {
+      fileManager.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public <T> T withTask(StandardJavaFileManager fileManager, DiagnosticListener<? super JavaFileObject> diagnosticListener,
+    List<String> options, Iterable<? extends JavaFileObject> compilationUnits, Function<JavacTask, T> worker) {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    return worker.apply((JavacTask) compiler.getTask(null, fileManager, diagnosticListener, options, null, compilationUnits));
+  }
+
+}
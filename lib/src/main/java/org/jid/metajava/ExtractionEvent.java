@@ -0,0 +1,45 @@
+package org.jid.metajava;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a call to {@link MetaJava}, from the files to the classes. The reading and parsing of every file are reported by
+ * {@link FileReadEvent} and {@link FileParseEvent}.
+ */
+@Name("org.jid.metajava.Extraction")
+@Label("Extraction")
+@Category("MetaJava")
+class ExtractionEvent extends jdk.jfr.Event {
+
+  @Label("Operation")
+  @Description("MetaJava method called")
+  String operation;
+
+  @Label("Parser Backend")
+  String parserBackend;
+
+  @Label("File Count")
+  int fileCount;
+
+  @Label("Class Count")
+  @Description("Top level classes extracted")
+  int classCount;
+
+  static ExtractionEvent begin(String operation, ParserBackend parserBackend, int fileCount) {
+    var event = new ExtractionEvent();
+    event.operation = operation;
+    event.parserBackend = parserBackend.name();
+    event.fileCount = fileCount;
+    event.begin();
+    return event;
+  }
+
+  void commit(int classCount) {
+    this.classCount = classCount;
+    commit();
+  }
+
+}
@@ -0,0 +1,61 @@
+package org.jid.metajava;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Parts of the model to leave out of the extraction. Source files are still parsed whole, by every {@link ParserBackend}, so that
+ * they are checked the same way whatever is excluded, but the model of excluded parts is not built: extracting less needs less
+ * memory and time.
+ *
+ * @param excludedParts Parts that are not extracted
+ */
+public record ExtractionOptions(Set<ModelPart> excludedParts) {
+
+  private static final ExtractionOptions ALL = new ExtractionOptions(Set.of());
+
+  public ExtractionOptions {
+    if (excludedParts == null) {
+      throw new IllegalArgumentException("ERROR: Parameter excludedParts is null");
+    }
+    excludedParts = Set.copyOf(excludedParts);
+  }
+
+  /**
+   * Every part of the model is extracted
+   */
+  public static ExtractionOptions all() {
+    return ALL;
+  }
+
+  /**
+   * Only the classes themselves are extracted (names, modifiers, annotations, supertypes, imports and nested classes), not their
+   * methods, constructors or fields
+   */
+  public static ExtractionOptions classSignaturesOnly() {
+    return excluding(ModelPart.METHODS, ModelPart.CONSTRUCTORS, ModelPart.FIELDS);
+  }
+
+  public static ExtractionOptions excluding(ModelPart... parts) {
+    return all().without(parts);
+  }
+
+  /**
+   * @return New options that exclude the given parts too
+   */
+  public ExtractionOptions without(ModelPart... parts) {
+    if (parts == null) {
+      throw new IllegalArgumentException("ERROR: Parameter parts is null");
+    }
+    Set<ModelPart> excluded = EnumSet.noneOf(ModelPart.class);
+    excluded.addAll(excludedParts);
+    excluded.addAll(Arrays.asList(parts));
+    return new ExtractionOptions(excluded);
+  }
+
+  public boolean includes(ModelPart part) {
+    return !excludedParts.contains(part);
+  }
+
+}
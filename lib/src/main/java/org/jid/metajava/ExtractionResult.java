@@ -0,0 +1,34 @@
+package org.jid.metajava;
+
+import java.io.File;
+import java.util.List;
+import java.util.Set;
+import org.jid.metajava.model.ClassMeta;
+
+/**
+ * Classes of the files extracted successfully and the files that failed, that can be extracted again without the rest.
+ */
+public record ExtractionResult(Set<ClassMeta> classes, List<FileFailure> failures) {
+
+  public ExtractionResult {
+    if (classes == null) {
+      throw new IllegalArgumentException("ERROR: Parameter classes is null");
+    }
+    if (failures == null) {
+      throw new IllegalArgumentException("ERROR: Parameter failures is null");
+    }
+    failures = List.copyOf(failures);
+  }
+
+  public boolean hasFailures() {
+    return !failures.isEmpty();
+  }
+
+  /**
+   * @return The files of the failures, in the same order
+   */
+  public List<File> failedFiles() {
+    return failures.stream().map(FileFailure::file).toList();
+  }
+
+}
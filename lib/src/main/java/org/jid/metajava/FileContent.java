@@ -0,0 +1,10 @@
+package org.jid.metajava;
+
+import java.io.File;
+
+/**
+ * Source file whose content has already been read
+ */
+record FileContent(File file, String content) {
+
+}
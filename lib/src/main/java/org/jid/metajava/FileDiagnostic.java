@@ -0,0 +1,22 @@
+package org.jid.metajava;
+
+import java.util.Locale;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Error reported by javac about a source file.
+ *
+ * @param line    Line of the error, starting at 1, or -1 when it's not about a position of the file
+ * @param column  Column of the error, starting at 1, or -1 when it's not about a position of the file
+ * @param code    Key of the javac message, like {@code compiler.err.illegal.start.of.type}
+ * @param message Message of javac, in English
+ */
+public record FileDiagnostic(long line, long column, String code, String message) {
+
+  static FileDiagnostic of(Diagnostic<? extends JavaFileObject> diagnostic) {
+    return new FileDiagnostic(diagnostic.getLineNumber(), diagnostic.getColumnNumber(), diagnostic.getCode(),
+      diagnostic.getMessage(Locale.ROOT));
+  }
+
+}
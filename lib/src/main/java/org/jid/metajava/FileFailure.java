@@ -0,0 +1,21 @@
+package org.jid.metajava;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Source file whose classes could not be extracted.
+ *
+ * @param diagnostics Errors reported by javac about the file. Empty when javac didn't report any.
+ * @param cause       Exception thrown while the file was parsed or its classes extracted, or null when javac only reported errors
+ */
+public record FileFailure(File file, List<FileDiagnostic> diagnostics, Throwable cause) {
+
+  public FileFailure {
+    if (file == null) {
+      throw new IllegalArgumentException("ERROR: Parameter file is null");
+    }
+    diagnostics = diagnostics == null ? List.of() : List.copyOf(diagnostics);
+  }
+
+}
@@ -0,0 +1,28 @@
+package org.jid.metajava;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of the parsing of a source file, once read. The declarations parser extracts the classes while parsing.
+ */
+@Name("org.jid.metajava.FileParse")
+@Label("Source File Parse")
+@Category("MetaJava")
+@StackTrace(false)
+class FileParseEvent extends jdk.jfr.Event {
+
+  @Label("Source File")
+  String sourceFile;
+
+  @Label("Parser Backend")
+  String parserBackend;
+
+  @Label("Class Count")
+  @Description("Top level classes of the file")
+  int classCount;
+
+}
@@ -0,0 +1,89 @@
+package org.jid.metajava;
+
+import static java.util.Comparator.comparingLong;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.PriorityQueue;
+
+class FilePartitioner {
+
+  /**
+   * Splits the files in, at most, the given number of partitions with a similar amount of bytes in each one of them. Biggest files
+   * are assigned first, always to the partition with fewer bytes (longest-processing-time-first).
+   */
+  List<List<File>> partitionBySize(Collection<File> files, int maxPartitions) {
+    int numPartitions = Math.max(1, Math.min(files.size(), maxPartitions));
+
+    var partitions = new PriorityQueue<Partition>(numPartitions, comparingLong(Partition::bytes));
+    for (int i = 0; i < numPartitions; i++) {
+      partitions.add(new Partition());
+    }
+
+    // The length of every file is read once, not in every comparison
+    files.stream()
+      .map(file -> new SizedFile(file, sizeOf(file)))
+      .sorted(comparingLong(SizedFile::bytes).reversed())
+      .forEach(sizedFile -> {
+        Partition lightest = partitions.poll();
+        lightest.add(sizedFile.file(), sizedFile.bytes());
+        partitions.add(lightest);
+      });
+
+    return partitions.stream()
+      .map(Partition::files)
+      .filter(partition -> !partition.isEmpty())
+      .toList();
+  }
+
+  /**
+   * Splits the files, keeping their order, in consecutive partitions whose sizes add up to, at most, the given bytes. Files bigger
+   * than that get a partition of their own.
+   */
+  List<List<File>> partitionByMaxSize(Collection<File> files, long maxBytes) {
+    var partitions = new ArrayList<List<File>>();
+    var partition = new Partition();
+    for (File file : files) {
+      long fileBytes = sizeOf(file);
+      if (!partition.files().isEmpty() && partition.bytes() + fileBytes > maxBytes) {
+        partitions.add(partition.files());
+        partition = new Partition();
+      }
+      partition.add(file, fileBytes);
+    }
+    if (!partition.files().isEmpty()) {
+      partitions.add(partition.files());
+    }
+    return partitions;
+  }
+
+  // Count empty files as 1 byte so that they are spread across partitions too
+  private static long sizeOf(File file) {
+    return Math.max(1, file.length());
+  }
+
+  private record SizedFile(File file, long bytes) {
+  }
+
+  private static class Partition {
+
+    private final List<File> files = new ArrayList<>();
+    private long bytes;
+
+    void add(File file, long fileBytes) {
+      files.add(file);
+      bytes += fileBytes;
+    }
+
+    List<File> files() {
+      return files;
+    }
+
+    long bytes() {
+      return bytes;
+    }
+  }
+
+}
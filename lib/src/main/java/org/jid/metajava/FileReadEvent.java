@@ -0,0 +1,25 @@
+package org.jid.metajava;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of the reading of a source file
+ */
+@Name("org.jid.metajava.FileRead")
+@Label("Source File Read")
+@Category("MetaJava")
+@StackTrace(false)
+class FileReadEvent extends jdk.jfr.Event {
+
+  @Label("Source File")
+  String sourceFile;
+
+  @Label("Size")
+  @DataAmount(DataAmount.BYTES)
+  long size;
+
+}
@@ -0,0 +1,33 @@
+package org.jid.metajava;
+
+import static org.jid.metajava.CompilationUnitTreeFactory.getSourceFileUri;
+
+import java.net.URI;
+import javax.tools.SimpleJavaFileObject;
+
+/**
+ * Gives javac the content of an {@link InMemorySource}, or of a file that has already been read, without reading it from a file.
+ */
+class InMemoryJavaFileObject extends SimpleJavaFileObject {
+
+  private final String content;
+
+  InMemoryJavaFileObject(InMemorySource source) {
+    this(source.toUri(), source.content());
+  }
+
+  InMemoryJavaFileObject(FileContent file) {
+    this(URI.create(getSourceFileUri(file.file())), file.content());
+  }
+
+  private InMemoryJavaFileObject(URI uri, String content) {
+    super(uri, Kind.SOURCE);
+    this.content = content;
+  }
+
+  @Override
+  public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+    return content;
+  }
+
+}
@@ -0,0 +1,55 @@
+package org.jid.metajava;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Source code of a compilation unit that is not read from a file.
+ *
+ * @param path    Logical path of the source, like {@code src/main/java/org/jid/Foo.java}. The {@code sourceFileUri} of the classes
+ *                read from it is the {@code memory:///} URI of this path.
+ * @param content Java source code
+ */
+public record InMemorySource(String path, String content) {
+
+  private static final String URI_SCHEME = "memory";
+
+  public InMemorySource {
+    if (path == null || path.isBlank()) {
+      throw new IllegalArgumentException("ERROR: Parameter path is null or blank");
+    }
+    if (content == null) {
+      throw new IllegalArgumentException("ERROR: Parameter content is null");
+    }
+  }
+
+  public static InMemorySource of(String path, CharSequence content) {
+    return new InMemorySource(path, content == null ? null : content.toString());
+  }
+
+  /**
+   * @param content UTF-8 encoded source code, like the one of the files
+   */
+  public static InMemorySource of(String path, byte[] content) {
+    return new InMemorySource(path, content == null ? null : new String(content, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @param content UTF-8 encoded source code between the position and the limit of the buffer. The position is not changed.
+   */
+  public static InMemorySource of(String path, ByteBuffer content) {
+    return new InMemorySource(path, content == null ? null : StandardCharsets.UTF_8.decode(content.duplicate()).toString());
+  }
+
+  URI toUri() {
+    String uriPath = path.replace('\\', '/');
+    try {
+      return new URI(URI_SCHEME, "", uriPath.startsWith("/") ? uriPath : "/" + uriPath, null);
+    } catch (URISyntaxException e) {
+      throw new IllegalArgumentException("ERROR: Parameter path is not a valid path: " + path, e);
+    }
+  }
+
+}
@@ -0,0 +1,353 @@
+package org.jid.metajava;
+
+/**
+ * Splits Java source code into tokens on demand. Whitespace and comments are skipped. Keywords are returned as identifiers.
+ * <p>
+ * {@code >} is always returned as a single token, so that the closing of nested type arguments is read the same way as the closing
+ * of a single one. Shift and comparison operators are rebuilt from the source by {@link #greaterThanOperator()}.
+ */
+class JavaLexer {
+
+  enum TokenKind {
+    IDENTIFIER, INT_LITERAL, LONG_LITERAL, FLOAT_LITERAL, DOUBLE_LITERAL, CHAR_LITERAL, STRING_LITERAL, OPERATOR, EOF
+  }
+
+  private static final String[] OPERATORS = {
+    "...", "<<=", "::", "->", "++", "--", "&&", "||", "==", "!=", "<=", "<<", "+=", "-=", "*=", "/=", "%=", "&=", "|=", "^="
+  };
+  private static final String OPERATOR_STARTS = ".<:-+&|=!*/%^";
+
+  private final String source;
+  private int position;
+
+  private TokenKind kind;
+  private String text;
+  private int start;
+  private int end;
+
+  JavaLexer(String source) {
+    this.source = translateUnicodeEscapes(source);
+    next();
+  }
+
+  TokenKind kind() {
+    return kind;
+  }
+
+  /**
+   * @return The token as written in the source. The content of string and char literals is not unescaped.
+   */
+  String text() {
+    return text;
+  }
+
+  int start() {
+    return start;
+  }
+
+  /**
+   * @return true when the source starts with the given text at the current token, even if it spans several tokens
+   */
+  boolean startsWith(String text) {
+    return source.startsWith(text, start);
+  }
+
+  boolean is(String token) {
+    return kind != TokenKind.EOF && kind != TokenKind.STRING_LITERAL && kind != TokenKind.CHAR_LITERAL && text.equals(token);
+  }
+
+  /**
+   * Moves back (or forward) to the token that starts at the given position, usually the {@link #start()} of a previous token.
+   */
+  void reset(int tokenStart) {
+    position = tokenStart;
+    next();
+  }
+
+  /**
+   * @return The longest operator starting with the current {@code >} token: {@code >>>=}, {@code >>>}, {@code >>=}, {@code >>},
+   * {@code >=} or {@code >}. The current token must be {@code >}.
+   */
+  String greaterThanOperator() {
+    for (String operator : new String[]{">>>=", ">>>", ">>=", ">>", ">="}) {
+      if (source.startsWith(operator, start)) {
+        return operator;
+      }
+    }
+    return ">";
+  }
+
+  /**
+   * Skips the block that starts with the current <code>{</code> token, including the nested ones, and moves to the token after its
+   * closing brace. The content of the block is not tokenized, only strings, chars and comments are recognized.
+   */
+  void skipBlock() {
+    int depth = 0;
+    int i = start;
+    int length = source.length();
+    while (i < length) {
+      char c = source.charAt(i);
+      if (c == '{') {
+        depth++;
+        i++;
+      } else if (c == '}') {
+        depth--;
+        i++;
+        if (depth == 0) {
+          position = i;
+          next();
+          return;
+        }
+      } else if (c == '"' || c == '\'') {
+        i = skipQuoted(i);
+      } else if (c == '/' && i + 1 < length && (source.charAt(i + 1) == '/' || source.charAt(i + 1) == '*')) {
+        i = skipComment(i);
+      } else {
+        i++;
+      }
+    }
+    throw new UnsupportedSyntaxException("Unclosed block");
+  }
+
+  void next() {
+    skipWhitespaceAndComments();
+    start = position;
+    if (position >= source.length()) {
+      kind = TokenKind.EOF;
+      text = "";
+      end = position;
+      return;
+    }
+
+    char c = source.charAt(position);
+    if (Character.isJavaIdentifierStart(c)) {
+      position++;
+      while (position < source.length() && Character.isJavaIdentifierPart(source.charAt(position))) {
+        position++;
+      }
+      kind = TokenKind.IDENTIFIER;
+    } else if (isDigit(c) || (c == '.' && position + 1 < source.length() && isDigit(source.charAt(position + 1)))) {
+      kind = readNumber();
+    } else if (c == '"') {
+      position = skipQuoted(position);
+      kind = TokenKind.STRING_LITERAL;
+    } else if (c == '\'') {
+      position = skipQuoted(position);
+      kind = TokenKind.CHAR_LITERAL;
+    } else {
+      position += operatorLength();
+      kind = TokenKind.OPERATOR;
+    }
+    end = position;
+    text = source.substring(start, end);
+  }
+
+  private int operatorLength() {
+    if (OPERATOR_STARTS.indexOf(source.charAt(position)) < 0) {
+      return 1;
+    }
+    for (String operator : OPERATORS) {
+      if (source.startsWith(operator, position)) {
+        return operator.length();
+      }
+    }
+    return 1;
+  }
+
+  private TokenKind readNumber() {
+    char first = source.charAt(position);
+    if (first == '0' && position + 1 < source.length() && "xXbB".indexOf(source.charAt(position + 1)) >= 0) {
+      boolean hex = Character.toLowerCase(source.charAt(position + 1)) == 'x';
+      position += 2;
+      boolean floating = false;
+      while (position < source.length()) {
+        char c = source.charAt(position);
+        if (Character.digit(c, 16) >= 0 || c == '_' || (hex && c == '.')) {
+          floating |= c == '.';
+          position++;
+        } else if (hex && (c == 'p' || c == 'P')) {
+          // The exponent is decimal, so a following 'f' or 'd' is a suffix
+          floating = true;
+          position++;
+          skipExponentSign();
+          while (position < source.length() && (isDigit(source.charAt(position)) || source.charAt(position) == '_')) {
+            position++;
+          }
+          break;
+        } else {
+          break;
+        }
+      }
+      return numberSuffix(floating);
+    }
+
+    boolean floating = false;
+    while (position < source.length()) {
+      char c = source.charAt(position);
+      if (isDigit(c) || c == '_') {
+        position++;
+      } else if (c == '.' && !floating && isDecimalPoint(position + 1)) {
+        floating = true;
+        position++;
+      } else if (c == 'e' || c == 'E') {
+        floating = true;
+        position++;
+        skipExponentSign();
+      } else {
+        break;
+      }
+    }
+    return numberSuffix(floating);
+  }
+
+  private boolean isDecimalPoint(int next) {
+    if (next >= source.length()) {
+      return true;
+    }
+    char c = source.charAt(next);
+    return c != '.' && (!Character.isJavaIdentifierStart(c) || "eEfFdD".indexOf(c) >= 0);
+  }
+
+  private void skipExponentSign() {
+    if (position < source.length() && (source.charAt(position) == '+' || source.charAt(position) == '-')) {
+      position++;
+    }
+  }
+
+  private TokenKind numberSuffix(boolean floating) {
+    if (position < source.length()) {
+      switch (source.charAt(position)) {
+        case 'l', 'L' -> {
+          position++;
+          return TokenKind.LONG_LITERAL;
+        }
+        case 'f', 'F' -> {
+          position++;
+          return TokenKind.FLOAT_LITERAL;
+        }
+        case 'd', 'D' -> {
+          position++;
+          return TokenKind.DOUBLE_LITERAL;
+        }
+        default -> {
+        }
+      }
+    }
+    return floating ? TokenKind.DOUBLE_LITERAL : TokenKind.INT_LITERAL;
+  }
+
+  // Returns the position after the closing quote. Text blocks are recognized too.
+  private int skipQuoted(int from) {
+    char quote = source.charAt(from);
+    if (quote == '"' && source.startsWith("\"\"\"", from)) {
+      int closing = from + 3;
+      while (closing < source.length()) {
+        if (source.charAt(closing) == '\\') {
+          closing += 2;
+        } else if (source.startsWith("\"\"\"", closing)) {
+          return closing + 3;
+        } else {
+          closing++;
+        }
+      }
+      throw new UnsupportedSyntaxException("Unclosed text block");
+    }
+
+    int i = from + 1;
+    while (i < source.length()) {
+      char c = source.charAt(i);
+      if (c == '\\') {
+        i += 2;
+      } else if (c == quote) {
+        return i + 1;
+      } else if (c == '\n' || c == '\r') {
+        break;
+      } else {
+        i++;
+      }
+    }
+    throw new UnsupportedSyntaxException("Unclosed literal");
+  }
+
+  // Returns the position after the comment that starts at the given position
+  private int skipComment(int from) {
+    if (source.charAt(from + 1) == '/') {
+      int lineEnd = source.indexOf('\n', from);
+      return lineEnd < 0 ? source.length() : lineEnd + 1;
+    }
+    int commentEnd = source.indexOf("*/", from + 2);
+    if (commentEnd < 0) {
+      throw new UnsupportedSyntaxException("Unclosed comment");
+    }
+    return commentEnd + 2;
+  }
+
+  private void skipWhitespaceAndComments() {
+    while (position < source.length()) {
+      char c = source.charAt(position);
+      if (Character.isWhitespace(c)) {
+        position++;
+      } else if (c == '/' && position + 1 < source.length()
+        && (source.charAt(position + 1) == '/' || source.charAt(position + 1) == '*')) {
+        position = skipComment(position);
+      } else {
+        return;
+      }
+    }
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  /**
+   * Unicode escapes (backslash u XXXX) are translated before anything else, everywhere in the source, like javac does. A backslash
+   * preceded by an odd number of backslashes doesn't start an escape.
+   */
+  static String translateUnicodeEscapes(String source) {
+    int firstBackslash = source.indexOf('\\');
+    if (firstBackslash < 0) {
+      return source;
+    }
+
+    var translated = new StringBuilder(source.length());
+    translated.append(source, 0, firstBackslash);
+    int i = firstBackslash;
+    while (i < source.length()) {
+      if (source.charAt(i) != '\\') {
+        int nextBackslash = source.indexOf('\\', i);
+        int chunkEnd = nextBackslash < 0 ? source.length() : nextBackslash;
+        translated.append(source, i, chunkEnd);
+        i = chunkEnd;
+        continue;
+      }
+      int backslashesEnd = i;
+      while (backslashesEnd < source.length() && source.charAt(backslashesEnd) == '\\') {
+        backslashesEnd++;
+      }
+      int backslashes = backslashesEnd - i;
+      if (backslashes % 2 == 0 || backslashesEnd >= source.length() || source.charAt(backslashesEnd) != 'u') {
+        translated.append(source, i, backslashesEnd);
+        i = backslashesEnd;
+        continue;
+      }
+      translated.append(source, i, backslashesEnd - 1);
+      int hexStart = backslashesEnd;
+      while (hexStart < source.length() && source.charAt(hexStart) == 'u') {
+        hexStart++;
+      }
+      int codeUnit = 0;
+      for (int hex = hexStart; hex < hexStart + 4; hex++) {
+        int digit = hex < source.length() ? Character.digit(source.charAt(hex), 16) : -1;
+        if (digit < 0) {
+          throw new UnsupportedSyntaxException("Illegal unicode escape");
+        }
+        codeUnit = codeUnit * 16 + digit;
+      }
+      translated.append((char) codeUnit);
+      i = hexStart + 4;
+    }
+    return translated.toString();
+  }
+
+}
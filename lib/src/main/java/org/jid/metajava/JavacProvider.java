@@ -0,0 +1,28 @@
+package org.jid.metajava;
+
+import com.sun.source.util.JavacTask;
+import java.util.List;
+import java.util.function.Function;
+import javax.tools.DiagnosticListener;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+
+interface JavacProvider {
+
+  /**
+   * @return A file manager for the exclusive use of the caller until it's released
+   */
+  StandardJavaFileManager acquireFileManager();
+
+  void releaseFileManager(StandardJavaFileManager fileManager);
+
+  /**
+   * Runs the worker with a javac task for the compilation units. The task and the trees it creates must not be used after the
+   * worker returns.
+   *
+   * @param diagnosticListener Receives the errors and warnings of the task. When null, they are printed to the standard error.
+   */
+  <T> T withTask(StandardJavaFileManager fileManager, DiagnosticListener<? super JavaFileObject> diagnosticListener,
+    List<String> options, Iterable<? extends JavaFileObject> compilationUnits, Function<JavacTask, T> worker);
+
+}
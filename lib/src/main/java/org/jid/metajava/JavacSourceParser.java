@@ -0,0 +1,126 @@
+package org.jid.metajava;
+
+import com.sun.source.tree.CompilationUnitTree;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticListener;
+import javax.tools.JavaFileObject;
+import org.jid.metajava.internal.MetaCanonicalizer;
+import org.jid.metajava.model.ClassMeta;
+
+class JavacSourceParser implements SourceParser {
+
+  private final CompilationUnitTreeFactory compilationUnitTreeFactory;
+  private final MetaExtractor metaExtractor;
+
+  JavacSourceParser(JavacProvider javacProvider, ExtractionOptions options) {
+    this.compilationUnitTreeFactory = new CompilationUnitTreeFactory(javacProvider);
+    this.metaExtractor = new MetaExtractor(options);
+  }
+
+  @Override
+  public void parse(Collection<File> files, MetaCanonicalizer canonicalizer, ClassMetaSink sink) {
+    compilationUnitTreeFactory.forEachCompilationUnitTree(files, compilationUnitTree ->
+      sink.accept(getSourceFileUri(compilationUnitTree), getMetas(compilationUnitTree, canonicalizer)));
+  }
+
+  @Override
+  public void parseInMemory(Collection<InMemorySource> sources, MetaCanonicalizer canonicalizer, ClassMetaSink sink) {
+    compilationUnitTreeFactory.forEachInMemoryCompilationUnitTree(sources, compilationUnitTree ->
+      sink.accept(getSourceFileUri(compilationUnitTree), getMetas(compilationUnitTree, canonicalizer)));
+  }
+
+  @Override
+  public void parseRead(Collection<FileContent> files, MetaCanonicalizer canonicalizer, ClassMetaSink sink) {
+    compilationUnitTreeFactory.forEachReadCompilationUnitTree(files, compilationUnitTree ->
+      sink.accept(getSourceFileUri(compilationUnitTree), getMetas(compilationUnitTree, canonicalizer)));
+  }
+
+  @Override
+  public void parseIsolated(Collection<File> files, MetaCanonicalizer canonicalizer, ClassMetaSink sink,
+    Consumer<FileFailure> failureSink) {
+    var errors = new FileErrors();
+    Map<String, File> unprocessedFiles = new LinkedHashMap<>();
+    files.forEach(file -> unprocessedFiles.put(CompilationUnitTreeFactory.getSourceFileUri(file), file));
+
+    try {
+      compilationUnitTreeFactory.forEachCompilationUnitTree(files, errors, compilationUnitTree -> {
+        String sourceFileUri = getSourceFileUri(compilationUnitTree);
+        File file = unprocessedFiles.remove(sourceFileUri);
+        if (file == null) {
+          // Given more than once
+          return;
+        }
+        // All the files are parsed before the first one is processed: its errors are already known
+        List<FileDiagnostic> fileErrors = errors.get(sourceFileUri);
+        if (!fileErrors.isEmpty()) {
+          failureSink.accept(new FileFailure(file, fileErrors, null));
+          return;
+        }
+        Set<ClassMeta> classes;
+        try {
+          classes = getMetas(compilationUnitTree, canonicalizer);
+        } catch (RuntimeException e) {
+          failureSink.accept(new FileFailure(file, List.of(), e));
+          return;
+        }
+        sink.accept(sourceFileUri, classes);
+      });
+    } catch (RuntimeException | StackOverflowError e) {
+      // javac failed as a whole: the files not processed yet are parsed one by one, so that only the ones that make it fail fail
+      if (files.size() == 1) {
+        unprocessedFiles.forEach((sourceFileUri, file) -> failureSink.accept(new FileFailure(file, errors.get(sourceFileUri), e)));
+      } else {
+        unprocessedFiles.values().forEach(file -> parseIsolated(List.of(file), canonicalizer, sink, failureSink));
+      }
+    }
+  }
+
+  @Override
+  public Stream<Map.Entry<String, Set<ClassMeta>>> stream(Collection<File> files) {
+    return compilationUnitTreeFactory.streamCompilationUnitTrees(files, compilationUnitTree ->
+      Map.entry(getSourceFileUri(compilationUnitTree), getMetas(compilationUnitTree, new MetaCanonicalizer())));
+  }
+
+  private Set<ClassMeta> getMetas(CompilationUnitTree compilationUnitTree, MetaCanonicalizer canonicalizer) {
+    Set<ClassMeta> classes = new HashSet<>();
+    metaExtractor.getMetas(compilationUnitTree, classes, canonicalizer);
+    return classes;
+  }
+
+  private static String getSourceFileUri(CompilationUnitTree compilationUnitTree) {
+    return compilationUnitTree.getSourceFile().toUri().toString();
+  }
+
+  /**
+   * Errors reported by javac by the URI of their source file. Errors that are not about a source file are ignored.
+   */
+  private static class FileErrors implements DiagnosticListener<JavaFileObject> {
+
+    private final Map<String, List<FileDiagnostic>> errorsBySourceFileUri = new HashMap<>();
+
+    @Override
+    public void report(Diagnostic<? extends JavaFileObject> diagnostic) {
+      if (diagnostic.getKind() == Diagnostic.Kind.ERROR && diagnostic.getSource() != null) {
+        errorsBySourceFileUri.computeIfAbsent(diagnostic.getSource().toUri().toString(), sourceFileUri -> new ArrayList<>())
+          .add(FileDiagnostic.of(diagnostic));
+      }
+    }
+
+    List<FileDiagnostic> get(String sourceFileUri) {
+      return errorsBySourceFileUri.getOrDefault(sourceFileUri, List.of());
+    }
+
+  }
+
+}
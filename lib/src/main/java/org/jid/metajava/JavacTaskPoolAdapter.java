@@ -0,0 +1,104 @@
+package org.jid.metajava;
+
+import com.sun.source.util.JavacTask;
+import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.function.Function;
+import javax.tools.DiagnosticListener;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+
+/**
+ * Reuses javac contexts (symbol tables, names, parser factories, etc.) between tasks through the JDK internal
+ * {@code com.sun.tools.javac.api.JavacTaskPool}, the one used by JShell. It's only available when the JVM is started with
+ * {@code --add-exports jdk.compiler/com.sun.tools.javac.api=ALL-UNNAMED} (or the module of this library). The pool is used through
+ * reflection, so that neither this library nor its users need the flag to compile.
+ */
+class JavacTaskPoolAdapter {
+
+  private static final String JAVAC_MODULE = "jdk.compiler";
+  private static final String JAVAC_API_PACKAGE = "com.sun.tools.javac.api";
+  private static final JavacTaskPoolApi API = JavacTaskPoolApi.load();
+
+  private final Object javacTaskPool;
+
+  JavacTaskPoolAdapter(int maxPoolSize) {
+    if (API == null) {
+      throw new IllegalStateException("ERROR: " + JAVAC_API_PACKAGE + " is not exported");
+    }
+    try {
+      this.javacTaskPool = API.constructor().newInstance(maxPoolSize);
+    } catch (InvocationTargetException e) {
+      throw rethrow(e);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  static boolean isAvailable() {
+    return API != null;
+  }
+
+  @SuppressWarnings("unchecked")
+  <T> T withTask(StandardJavaFileManager fileManager, DiagnosticListener<? super JavaFileObject> diagnosticListener,
+    List<String> options, Iterable<? extends JavaFileObject> compilationUnits, Function<JavacTask, T> worker) {
+    try {
+      return (T) API.getTask().invoke(javacTaskPool, null, fileManager, diagnosticListener, options, null, compilationUnits,
+        API.newWorker(worker));
+    } catch (InvocationTargetException e) {
+      throw rethrow(e);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static RuntimeException rethrow(InvocationTargetException e) {
+    switch (e.getCause()) {
+      case RuntimeException runtimeException -> throw runtimeException;
+      case Error error -> throw error;
+      default -> throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * Constructor and method of the pool and its worker interface, or null when the package is not exported to this library
+   */
+  private record JavacTaskPoolApi(Constructor<?> constructor, Method getTask, Class<?> workerInterface) {
+
+    static JavacTaskPoolApi load() {
+      boolean exported = ModuleLayer.boot().findModule(JAVAC_MODULE)
+        .map(javacModule -> javacModule.isExported(JAVAC_API_PACKAGE, JavacTaskPoolAdapter.class.getModule()))
+        .orElse(false);
+      if (!exported) {
+        return null;
+      }
+      try {
+        Class<?> poolClass = Class.forName(JAVAC_API_PACKAGE + ".JavacTaskPool");
+        Class<?> workerInterface = Class.forName(JAVAC_API_PACKAGE + ".JavacTaskPool$Worker");
+        Method getTask = poolClass.getMethod("getTask", Writer.class, JavaFileManager.class, DiagnosticListener.class,
+          Iterable.class, Iterable.class, Iterable.class, workerInterface);
+        return new JavacTaskPoolApi(poolClass.getConstructor(int.class), getTask, workerInterface);
+      } catch (ReflectiveOperationException | LinkageError e) {
+        // Not in this JDK: javac contexts are not reused
+        return null;
+      }
+    }
+
+    Object newWorker(Function<JavacTask, ?> worker) {
+      return Proxy.newProxyInstance(workerInterface.getClassLoader(), new Class<?>[] {workerInterface}, (proxy, method, args) ->
+        switch (method.getName()) {
+          case "withTask" -> worker.apply((JavacTask) args[0]);
+          case "equals" -> proxy == args[0];
+          case "hashCode" -> System.identityHashCode(proxy);
+          default -> "JavacTaskPool.Worker of " + worker;
+        });
+    }
+
+  }
+
+}
@@ -0,0 +1,62 @@
+package org.jid.metajava;
+
+import org.jid.metajava.DeclarationParser.ClassBody;
+import org.jid.metajava.DeclarationParser.ClassHeader;
+import org.jid.metajava.exceptions.ClassNotParseableException;
+import org.jid.metajava.internal.MetaCanonicalizer;
+import org.jid.metajava.model.ClassMeta;
+
+/**
+ * Members of a top level class, parsed from its source file the first time any of them is accessed.
+ */
+class LazyClassBody {
+
+  private final LazySource lazySource;
+  private final int bodyStart;
+  private final ClassHeader header;
+  private final String packageName;
+  private volatile ClassBody body;
+
+  LazyClassBody(LazySource lazySource, int bodyStart, ClassHeader header, String packageName) {
+    this.lazySource = lazySource;
+    this.bodyStart = bodyStart;
+    this.header = header;
+    this.packageName = packageName;
+  }
+
+  ClassBody asClassBody() {
+    return new ClassBody(new LazySet<>(() -> getBody().methods()), new LazySet<>(() -> getBody().constructors()),
+      new LazySet<>(() -> getBody().fields()), new LazySet<>(() -> getBody().nestedClasses()));
+  }
+
+  private ClassBody getBody() {
+    ClassBody result = body;
+    if (result == null) {
+      synchronized (this) {
+        result = body;
+        if (result == null) {
+          result = readBody();
+          body = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  private ClassBody readBody() {
+    String source = lazySource.read();
+    try {
+      // Values are shared only inside the class, so that the canonicalizer of the extraction is not kept in memory
+      return new DeclarationParser(source, lazySource.sourceFileUri(), new MetaCanonicalizer(), lazySource.options(), null)
+        .parseClassBody(bodyStart, header);
+    } catch (UnsupportedSyntaxException e) {
+      ClassMeta classMeta = lazySource.parseWithJavac().stream()
+        .filter(javacClass -> javacClass.name().equals(header.className()) && javacClass.packageName().equals(packageName))
+        .findFirst()
+        .orElseThrow(() -> new ClassNotParseableException("ERROR: Class " + header.className() + " not found in "
+          + lazySource.sourceFileUri()));
+      return new ClassBody(classMeta.methods(), classMeta.constructors(), classMeta.fields(), classMeta.nestedClasses());
+    }
+  }
+
+}
@@ -0,0 +1,63 @@
+package org.jid.metajava;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Unmodifiable set whose elements are computed when it's used for the first time. Thread safe.
+ */
+class LazySet<E> extends AbstractSet<E> {
+
+  private final Supplier<Set<E>> elementsSupplier;
+  private volatile Set<E> elements;
+
+  /**
+   * @param elementsSupplier Called only once. It must return an unmodifiable set.
+   */
+  LazySet(Supplier<Set<E>> elementsSupplier) {
+    this.elementsSupplier = elementsSupplier;
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return getElements().iterator();
+  }
+
+  @Override
+  public int size() {
+    return getElements().size();
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return getElements().contains(o);
+  }
+
+  // Delegated so that the hash code cached by the elements is used
+  @Override
+  public int hashCode() {
+    return getElements().hashCode();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o == this || getElements().equals(o instanceof LazySet<?> lazySet ? lazySet.getElements() : o);
+  }
+
+  private Set<E> getElements() {
+    Set<E> result = elements;
+    if (result == null) {
+      synchronized (this) {
+        result = elements;
+        if (result == null) {
+          result = elementsSupplier.get();
+          elements = result;
+        }
+      }
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,56 @@
+package org.jid.metajava;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.jid.metajava.exceptions.ClassNotParseableException;
+import org.jid.metajava.internal.MetaCanonicalizer;
+import org.jid.metajava.model.ClassMeta;
+
+/**
+ * Source file whose class members are read when they are accessed for the first time. Only its location is kept in memory, not its
+ * content.
+ *
+ * @param sourceLength Length of the content read the first time, to detect files changed since then
+ * @param sourceDigest SHA-256 of the content read the first time, like the entries of {@link MetaCache}
+ * @param options      Options of the extraction that read the classes
+ */
+record LazySource(File file, String sourceFileUri, int sourceLength, String sourceDigest, ExtractionOptions options) {
+
+  LazySource(File file, String sourceFileUri, String source, ExtractionOptions options) {
+    this(file, sourceFileUri, source.length(), digest(source), options);
+  }
+
+  String read() {
+    String source;
+    try {
+      source = Files.readString(file.toPath());
+    } catch (IOException e) {
+      throw new ClassNotParseableException(e);
+    }
+    if (source.length() != sourceLength || !digest(source).equals(sourceDigest)) {
+      throw new ClassNotParseableException("ERROR: Source file " + sourceFileUri + " changed after its classes were read");
+    }
+    return source;
+  }
+
+  /**
+   * Used when the members can't be read without javac. A new javac instance is used, so that it doesn't depend on the session of the
+   * {@link MetaJava} that read the classes, which may be closed by now.
+   */
+  Set<ClassMeta> parseWithJavac() {
+    Set<ClassMeta> classes = new HashSet<>();
+    new JavacSourceParser(new DefaultJavacProvider(), options).parse(List.of(file), new MetaCanonicalizer(),
+      (uri, classesOfUnit) -> classes.addAll(classesOfUnit));
+    return classes;
+  }
+
+  private static String digest(String source) {
+    return MetaCache.contentHash(source.getBytes(StandardCharsets.UTF_8));
+  }
+
+}
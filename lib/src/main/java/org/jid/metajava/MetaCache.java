@@ -0,0 +1,96 @@
+package org.jid.metajava;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import org.jid.metajava.io.ClassMetaReader;
+import org.jid.metajava.io.ClassMetaWriter;
+import org.jid.metajava.model.ClassMeta;
+
+/**
+ * On disk cache of the classes read from a source file, keyed by the hash of the file content and the library version. Entries are
+ * written to a temporary file and atomically renamed, so a directory can be shared by several JVMs at the same time.
+ */
+public class MetaCache {
+
+  // Bump it when the extracted model or the ClassMetaWriter format changes
+  static final int CACHE_FORMAT_VERSION = 2;
+
+  private final Path directory;
+  private final String version;
+
+  public MetaCache(Path directory) {
+    if (directory == null) {
+      throw new IllegalArgumentException("ERROR: Parameter directory is null");
+    }
+    try {
+      this.directory = Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    this.version = getLibraryVersion() + "-" + CACHE_FORMAT_VERSION;
+  }
+
+  Optional<Set<ClassMeta>> get(String contentHash) {
+    try (var reader = new ClassMetaReader(Files.newInputStream(getEntryPath(contentHash)))) {
+      return Optional.of(reader.readAll());
+    } catch (IOException | RuntimeException e) {
+      // Missing or unreadable entry: it's a miss, so the file is parsed again and the entry overwritten
+      return Optional.empty();
+    }
+  }
+
+  void put(String contentHash, Set<ClassMeta> classes) {
+    Path entryPath = getEntryPath(contentHash);
+    try {
+      Files.createDirectories(entryPath.getParent());
+      Path tmpPath = Files.createTempFile(entryPath.getParent(), entryPath.getFileName().toString(), ".tmp");
+      try {
+        try (var writer = new ClassMetaWriter(Files.newOutputStream(tmpPath))) {
+          writer.writeAll(classes);
+        }
+        move(tmpPath, entryPath);
+      } finally {
+        Files.deleteIfExists(tmpPath);
+      }
+    } catch (IOException e) {
+      // The cache is best effort: the classes are already read, so a failed write only means a future miss
+    }
+  }
+
+  static String contentHash(byte[] content) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    } catch (NoSuchAlgorithmException e) {
+      // Every JVM implementation is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private Path getEntryPath(String contentHash) {
+    // Entries spread in subdirectories to avoid huge directories
+    return directory.resolve(contentHash.substring(0, 2)).resolve(contentHash + "-" + version + ".meta");
+  }
+
+  private static void move(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private static String getLibraryVersion() {
+    String implementationVersion = MetaCache.class.getPackage().getImplementationVersion();
+    return implementationVersion == null ? "dev" : implementationVersion.replaceAll("[^A-Za-z0-9._-]", "_");
+  }
+
+}
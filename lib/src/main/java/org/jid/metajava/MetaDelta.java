@@ -0,0 +1,27 @@
+package org.jid.metajava;
+
+import java.util.Map;
+import java.util.Set;
+import org.jid.metajava.model.ClassMeta;
+
+/**
+ * Classes changed by a batch of changes of the watched source files, by source file URI.
+ *
+ * @param added   Classes of the new source files
+ * @param changed New classes of the modified source files. Files whose classes are equal to the previous ones are not included.
+ * @param removed Previous classes of the deleted source files
+ */
+public record MetaDelta(Map<String, Set<ClassMeta>> added, Map<String, Set<ClassMeta>> changed,
+                        Map<String, Set<ClassMeta>> removed) {
+
+  public MetaDelta {
+    added = Map.copyOf(added);
+    changed = Map.copyOf(changed);
+    removed = Map.copyOf(removed);
+  }
+
+  public boolean isEmpty() {
+    return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+  }
+
+}
@@ -0,0 +1,11 @@
+package org.jid.metajava;
+
+/**
+ * Receives the classes changed by every batch of changes of the source files watched by a {@link MetaWatcher}.
+ */
+@FunctionalInterface
+public interface MetaDeltaListener {
+
+  void accept(MetaDelta delta);
+
+}
@@ -0,0 +1,44 @@
+package org.jid.metajava;
+
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import java.util.Set;
+import org.jid.metajava.internal.MetaCanonicalizer;
+import org.jid.metajava.model.ClassMeta;
+
+class MetaExtractor {
+
+  private final CompilationUnitMetaProcessor compilationUnitMetaProcessor;
+  private final AnnotationProcessor annotationProcessor = new AnnotationProcessor();
+  private final ModifierProcessor modifierProcessor = new ModifierProcessor();
+  private final ExtractionOptions options;
+
+  MetaExtractor(ExtractionOptions options) {
+    this.options = options;
+    compilationUnitMetaProcessor = new CompilationUnitMetaProcessor(options.includes(ModelPart.IMPORTS));
+  }
+
+  /**
+   * @param canonicalizer Shared by all the compilation units of an extraction so that equal values are kept only once
+   */
+  void getMetas(CompilationUnitTree compilationUnitTree, Set<ClassMeta> classes, MetaCanonicalizer canonicalizer) {
+    var typeRenderer = new TypeRenderer();
+    var compilationUnitMeta = compilationUnitMetaProcessor.getMeta(compilationUnitTree, canonicalizer, typeRenderer);
+    var scanner = new ClassMetaScanner(annotationProcessor, modifierProcessor, typeRenderer, options, canonicalizer,
+      compilationUnitMeta, classes);
+    compilationUnitTree.getTypeDecls().forEach(tree -> {
+      var event = new ClassExtractionEvent();
+      event.begin();
+      scanner.scan(tree, null);
+      event.end();
+      if (event.shouldCommit() && tree instanceof ClassTree classTree) {
+        event.sourceFile = compilationUnitMeta.sourceFile();
+        event.className = compilationUnitMeta.packageName().isEmpty() ? classTree.getSimpleName().toString()
+          : compilationUnitMeta.packageName() + "." + classTree.getSimpleName();
+        event.memberCount = classTree.getMembers().size();
+        event.commit();
+      }
+    });
+  }
+
+}
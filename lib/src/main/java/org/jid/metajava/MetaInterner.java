@@ -0,0 +1,37 @@
+package org.jid.metajava;
+
+import java.util.Collection;
+import java.util.Set;
+import org.jid.metajava.internal.MetaCanonicalizer;
+import org.jid.metajava.model.ClassMeta;
+
+/**
+ * Returns a single shared instance for equal classes, members, annotations and the strings and sets they are made of, like the
+ * classes of several extractions of the same sources. Equal values then share their memory and are compared by identity: two
+ * interned classes are equal only when they are the same instance, and the sets of interned elements are compared without going
+ * through the elements below them. Thread safe.
+ * <p>
+ * Parts are interned before the element that has them, so interning a class costs as many lookups as its direct parts. A class
+ * already interned by this instance is found with a single lookup. Lazy members are read when their class is interned.
+ * <p>
+ * Every interned value is kept until the interner is no longer used.
+ */
+public final class MetaInterner {
+
+  private final MetaCanonicalizer canonicalizer = new MetaCanonicalizer();
+
+  public ClassMeta intern(ClassMeta classMeta) {
+    return canonicalizer.intern(classMeta);
+  }
+
+  /**
+   * @return Unmodifiable set of the interned classes
+   */
+  public Set<ClassMeta> internAll(Collection<ClassMeta> classes) {
+    if (classes == null) {
+      throw new IllegalArgumentException("ERROR: Parameter classes is null");
+    }
+    return canonicalizer.internAll(classes);
+  }
+
+}
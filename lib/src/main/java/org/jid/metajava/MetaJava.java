@@ -1,39 +1,314 @@
 package org.jid.metajava;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.jid.metajava.internal.MetaCanonicalizer;
 import org.jid.metajava.model.ClassMeta;
 
 public class MetaJava {
 
-  private final CompilationUnitTreeFactory compilationUnitTreeFactory = new CompilationUnitTreeFactory();
-  private final CompilationUnitMetaProcessor compilationUnitMetaProcessor = new CompilationUnitMetaProcessor();
-  private final ClassProcessor classProcessor;
+  private final ParserBackend parserBackend;
+  private final SourceParser sourceParser;
+  private final SourceParser lazySourceParser;
+  private final ParallelExtractor parallelExtractor;
+  private final PipelinedExtractor pipelinedExtractor;
+  private final BatchedExtractor batchedExtractor;
+  private final ShardedExtractor shardedExtractor;
+  private final CachedExtractor cachedExtractor;
 
   public MetaJava() {
-    var annotationProcessor = new AnnotationProcessor();
-    var modifierProcessor = new ModifierProcessor();
-    var variableProcessor = new VariableProcessor(annotationProcessor, modifierProcessor);
-    var methodProcessor = new MethodProcessor(annotationProcessor, modifierProcessor, variableProcessor);
-    classProcessor = new ClassProcessor(methodProcessor, annotationProcessor, variableProcessor, modifierProcessor);
+    this(new Builder());
+  }
+
+  private MetaJava(Builder builder) {
+    this.parserBackend = builder.parserBackend;
+    ExtractionOptions options = builder.options;
+    JavacProvider javacProvider = builder.session == null ? new DefaultJavacProvider() : builder.session.getJavacProvider();
+    var javacSourceParser = new JavacSourceParser(javacProvider, options);
+    sourceParser = switch (parserBackend) {
+      case JAVAC -> javacSourceParser;
+      case DECLARATIONS -> new DeclarationSourceParser(javacSourceParser, options, false);
+    };
+    lazySourceParser = new DeclarationSourceParser(javacSourceParser, options, true);
+    parallelExtractor = new ParallelExtractor(sourceParser);
+    pipelinedExtractor = new PipelinedExtractor(sourceParser);
+    batchedExtractor = new BatchedExtractor(sourceParser);
+    shardedExtractor = new ShardedExtractor(parserBackend, options, builder.workerJvmOptions);
+    cachedExtractor = new CachedExtractor(sourceParser, options);
+  }
+
+  /**
+   * @return Builder of a {@link MetaJava} with the {@link ParserBackend#JAVAC} backend, every part of the model and no session
+   */
+  public static Builder builder() {
+    return new Builder();
   }
 
   public Set<ClassMeta> getMetaFrom(Collection<File> files) {
-    if (files == null || files.isEmpty()) {
-      throw new IllegalArgumentException("ERROR: Parameter files is null or empty");
+    validateFiles(files);
+
+    var event = ExtractionEvent.begin("getMetaFrom", parserBackend, files.size());
+    Set<ClassMeta> classes = new HashSet<>();
+    var canonicalizer = new MetaCanonicalizer();
+    sourceParser.parse(files, canonicalizer, (sourceFileUri, classesOfUnit) -> classes.addAll(classesOfUnit));
+
+    event.commit(classes.size());
+    return classes;
+  }
+
+  /**
+   * Same as {@link #getMetaFrom(Collection)} but the sources are read from memory instead of from files. The
+   * {@code sourceFileUri} of the classes is the URI of the logical path of their source.
+   */
+  public Set<ClassMeta> getMetaFromInMemory(Collection<InMemorySource> sources) {
+    if (sources == null || sources.isEmpty()) {
+      throw new IllegalArgumentException("ERROR: Parameter sources is null or empty");
     }
 
-    var compilationUnitTrees = compilationUnitTreeFactory.getCompilationUnitTrees(files);
+    var event = ExtractionEvent.begin("getMetaFromInMemory", parserBackend, sources.size());
+    Set<ClassMeta> classes = new HashSet<>();
+    var canonicalizer = new MetaCanonicalizer();
+    sourceParser.parseInMemory(sources, canonicalizer, (sourceFileUri, classesOfUnit) -> classes.addAll(classesOfUnit));
 
+    event.commit(classes.size());
+    return classes;
+  }
+
+  /**
+   * Same as {@link #getMetaFrom(Collection)} but every file succeeds or fails on its own, instead of the whole extraction failing
+   * with the first file that can't be read or parsed. Files that javac reports errors about fail too: the classes javac recovers
+   * from them are incomplete. The failed files can be extracted again without the rest with {@link ExtractionResult#failedFiles()}.
+   */
+  public ExtractionResult getPartialMetaFrom(Collection<File> files) {
+    validateFiles(files);
+
+    var event = ExtractionEvent.begin("getPartialMetaFrom", parserBackend, files.size());
     Set<ClassMeta> classes = new HashSet<>();
-    compilationUnitTrees.forEach(compilationUnitTree -> {
-      var compilationUnitMeta = compilationUnitMetaProcessor.getMeta(compilationUnitTree);
-      compilationUnitTree.getTypeDecls().forEach(tree -> classProcessor.getMetas(tree, classes, compilationUnitMeta));
-    });
+    List<FileFailure> failures = new ArrayList<>();
+    var canonicalizer = new MetaCanonicalizer();
+    sourceParser.parseIsolated(files, canonicalizer, (sourceFileUri, classesOfUnit) -> classes.addAll(classesOfUnit), failures::add);
+
+    event.commit(classes.size());
+    return new ExtractionResult(classes, failures);
+  }
+
+  /**
+   * Same as {@link #getMetaFrom(Collection)} but the members of the classes ({@code methods()}, {@code constructors()},
+   * {@code fields()} and {@code nestedClasses()}) are read from the source file the first time any of them is accessed, so that
+   * reading only the rest of the class (name, annotations, supertypes, etc.) is faster and needs less memory.
+   * <p>
+   * Classes are always read with {@link ParserBackend#DECLARATIONS}. The source files must not change until the members of their
+   * classes are read: a {@link org.jid.metajava.exceptions.ClassNotParseableException} is thrown otherwise. {@code equals()} and
+   * {@code hashCode()} of the classes read their members too, so the classes are returned in a set that doesn't hash them.
+   */
+  public Set<ClassMeta> getLazyMetaFrom(Collection<File> files) {
+    validateFiles(files);
+
+    var event = ExtractionEvent.begin("getLazyMetaFrom", ParserBackend.DECLARATIONS, files.size());
+    Set<ClassMeta> classes = new ClassMetaSet();
+    var canonicalizer = new MetaCanonicalizer();
+    lazySourceParser.parse(files, canonicalizer, (sourceFileUri, classesOfUnit) -> classes.addAll(classesOfUnit));
+
+    event.commit(classes.size());
+    return classes;
+  }
+
+  /**
+   * Same as {@link #getMetaFrom(Collection)} but files are parsed and processed in parallel by, at most, {@code parallelism}
+   * threads. Files are split by size between independent javac tasks.
+   */
+  public Set<ClassMeta> getMetaFromParallel(Collection<File> files, int parallelism) {
+    validateFiles(files);
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("ERROR: Parameter parallelism must be greater than 0");
+    }
+
+    if (parallelism == 1) {
+      return getMetaFrom(files);
+    }
+    var event = ExtractionEvent.begin("getMetaFromParallel", parserBackend, files.size());
+    Set<ClassMeta> classes = parallelExtractor.getMetaFrom(files, parallelism);
+    event.commit(classes.size());
+    return classes;
+  }
+
+  /**
+   * Same as {@link #getMetaFrom(Collection)} but reading the files overlaps with parsing and processing the ones already read.
+   * Files are read by virtual threads and parsed and processed by {@code parallelism} platform threads, with a bounded number of
+   * files read in advance. Useful when reading the files is slow, like on network file systems.
+   */
+  public Set<ClassMeta> getMetaFromPipelined(Collection<File> files, int parallelism) {
+    validateFiles(files);
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("ERROR: Parameter parallelism must be greater than 0");
+    }
+
+    var event = ExtractionEvent.begin("getMetaFromPipelined", parserBackend, files.size());
+    Set<ClassMeta> classes = pipelinedExtractor.getMetaFrom(files, parallelism);
+    event.commit(classes.size());
+    return classes;
+  }
+
+  /**
+   * Same as {@link #getMetaFrom(Collection)} but the files are parsed in consecutive batches, each one with its own javac task, so
+   * that the trees of only one batch are in memory at a time. The memory needed grows with the classes extracted, not with the
+   * trees of all the files.
+   */
+  public Set<ClassMeta> getMetaFromBatched(Collection<File> files, BatchLimit batchLimit) {
+    validateFiles(files);
+    if (batchLimit == null) {
+      throw new IllegalArgumentException("ERROR: Parameter batchLimit is null");
+    }
+
+    var event = ExtractionEvent.begin("getMetaFromBatched", parserBackend, files.size());
+    Set<ClassMeta> classes = batchedExtractor.getMetaFrom(files, batchLimit);
+    event.commit(classes.size());
+    return classes;
+  }
+
+  /**
+   * Same as {@link #getMetaFrom(Collection)} but the files are split by size between {@code workers} JVMs forked on this machine,
+   * that parse them with the parser backend and options of this instance, so that every JVM has its own heap and garbage
+   * collection. Workers don't use the session of this instance, if any, and are started with the
+   * {@link Builder#workerJvmOptions(List) worker JVM options}. A worker that crashes is restarted and its files are parsed again.
+   * A {@link org.jid.metajava.exceptions.ClassNotParseableException}, with the error output of the worker, is thrown when they
+   * keep crashing or can't be parsed: the other workers are stopped then.
+   */
+  public Set<ClassMeta> getMetaFromSharded(Collection<File> files, int workers) {
+    validateFiles(files);
+    if (workers < 1) {
+      throw new IllegalArgumentException("ERROR: Parameter workers must be greater than 0");
+    }
+
+    var event = ExtractionEvent.begin("getMetaFromSharded", parserBackend, files.size());
+    Set<ClassMeta> classes = shardedExtractor.getMetaFrom(files, workers);
+    event.commit(classes.size());
+    return classes;
+  }
 
+  /**
+   * Same as {@link #getMetaFrom(Collection)} but only the files whose content is not in the cache are parsed. Their classes are
+   * added to the cache afterward. Files with the same content are parsed only once. Classes extracted with different
+   * {@link ExtractionOptions} are cached apart.
+   */
+  public Set<ClassMeta> getMetaFromCached(Collection<File> files, MetaCache cache) {
+    validateFiles(files);
+    if (cache == null) {
+      throw new IllegalArgumentException("ERROR: Parameter cache is null");
+    }
+
+    var event = ExtractionEvent.begin("getMetaFromCached", parserBackend, files.size());
+    Set<ClassMeta> classes = cachedExtractor.getMetaFrom(files, cache);
+    event.commit(classes.size());
     return classes;
   }
 
+  /**
+   * Lazily reads the files one by one. Only the compilation unit being processed is kept in memory, so peak memory depends on the
+   * biggest file instead of on the number of files. The returned stream should be closed after use.
+   */
+  public Stream<ClassMeta> streamMetaFrom(Collection<File> files) {
+    validateFiles(files);
+
+    // The extraction lasts until the stream is closed
+    var event = ExtractionEvent.begin("streamMetaFrom", parserBackend, files.size());
+    var classCount = new AtomicInteger();
+    return sourceParser.stream(files)
+      .peek(classesOfUnit -> classCount.addAndGet(classesOfUnit.getValue().size()))
+      .flatMap(classesOfUnit -> classesOfUnit.getValue().stream())
+      .onClose(() -> event.commit(classCount.get()));
+  }
+
+  /**
+   * Same as {@link #streamMetaFrom(Collection)} but the classes of every compilation unit are sent together to the sink.
+   */
+  public void streamMetaFrom(Collection<File> files, ClassMetaSink sink) {
+    validateFiles(files);
+    if (sink == null) {
+      throw new IllegalArgumentException("ERROR: Parameter sink is null");
+    }
+
+    var event = ExtractionEvent.begin("streamMetaFrom(sink)", parserBackend, files.size());
+    var classCount = new AtomicInteger();
+    try (var classesBySourceFile = sourceParser.stream(files)) {
+      classesBySourceFile.forEach(classesOfUnit -> {
+        sink.accept(classesOfUnit.getKey(), classesOfUnit.getValue());
+        classCount.addAndGet(classesOfUnit.getValue().size());
+      });
+    }
+    event.commit(classCount.get());
+  }
+
+  private static void validateFiles(Collection<File> files) {
+    if (files == null || files.isEmpty()) {
+      throw new IllegalArgumentException("ERROR: Parameter files is null or empty");
+    }
+  }
+
+  public static final class Builder {
+
+    private ParserBackend parserBackend = ParserBackend.JAVAC;
+    private ExtractionOptions options = ExtractionOptions.all();
+    private MetaJavaSession session;
+    private List<String> workerJvmOptions = List.of();
+
+    private Builder() {
+    }
+
+    public Builder parserBackend(ParserBackend parserBackend) {
+      if (parserBackend == null) {
+        throw new IllegalArgumentException("ERROR: Parameter parserBackend is null");
+      }
+      this.parserBackend = parserBackend;
+      return this;
+    }
+
+    /**
+     * Only the parts of the model included in the options are extracted by all the calls of the instance
+     */
+    public Builder options(ExtractionOptions options) {
+      if (options == null) {
+        throw new IllegalArgumentException("ERROR: Parameter options is null");
+      }
+      this.options = options;
+      return this;
+    }
+
+    /**
+     * All the calls of the instance reuse the javac infrastructure of the session. The session must not be closed while the
+     * instance is in use.
+     */
+    public Builder session(MetaJavaSession session) {
+      if (session == null) {
+        throw new IllegalArgumentException("ERROR: Parameter session is null");
+      }
+      this.session = session;
+      return this;
+    }
+
+    /**
+     * Options of the JVMs forked by {@link #getMetaFromSharded(Collection, int)}, like {@code -Xmx512m}. None by default: workers
+     * use the defaults of the JVM.
+     */
+    public Builder workerJvmOptions(List<String> workerJvmOptions) {
+      if (workerJvmOptions == null || workerJvmOptions.stream().anyMatch(Objects::isNull)) {
+        throw new IllegalArgumentException("ERROR: Parameter workerJvmOptions is null or contains null");
+      }
+      this.workerJvmOptions = List.copyOf(workerJvmOptions);
+      return this;
+    }
+
+    public MetaJava build() {
+      return new MetaJava(this);
+    }
+
+  }
+
 }
@@ -0,0 +1,52 @@
+package org.jid.metajava;
+
+/**
+ * Long-lived javac infrastructure shared by the {@link MetaJava} instances created with it. The compiler, the file managers and the
+ * javac contexts are kept between calls instead of being created again in every call, which dominates the time needed to read a few
+ * files.
+ * <p>
+ * Javac contexts are only reused when the JVM is started with
+ * {@code --add-exports jdk.compiler/com.sun.tools.javac.api=ALL-UNNAMED}. Otherwise, only the compiler and the file managers are.
+ * <p>
+ * A session is thread safe and must be closed when it's no longer needed.
+ */
+public class MetaJavaSession implements AutoCloseable {
+
+  private final PooledJavacProvider javacProvider;
+
+  public MetaJavaSession() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @param maxIdle Max number of file managers and javac contexts kept between calls. Usually, the number of threads using the
+   *                session.
+   */
+  public MetaJavaSession(int maxIdle) {
+    this(maxIdle, true);
+  }
+
+  MetaJavaSession(int maxIdle, boolean reuseJavacContexts) {
+    if (maxIdle < 1) {
+      throw new IllegalArgumentException("ERROR: Parameter maxIdle must be greater than 0");
+    }
+    this.javacProvider = new PooledJavacProvider(maxIdle, reuseJavacContexts);
+  }
+
+  /**
+   * @return true when the javac contexts are reused between calls, not only the file managers
+   */
+  public boolean isReusingJavacContexts() {
+    return javacProvider.isReusingJavacContexts();
+  }
+
+  JavacProvider getJavacProvider() {
+    return javacProvider;
+  }
+
+  @Override
+  public void close() {
+    javacProvider.close();
+  }
+
+}
@@ -0,0 +1,299 @@
+package org.jid.metajava;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.net.URI;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.jid.metajava.model.ClassMeta;
+
+/**
+ * Keeps the classes of the source files of a directory, and of its subdirectories, up to date while the files change. Changes are
+ * read with a {@link WatchService} and collected until no more changes arrive for the debounce time. Then, only the created and
+ * modified files are parsed again, and the classes of the deleted ones are dropped.
+ * <p>
+ * Every batch of changes is published to the listeners as a {@link MetaDelta}. The first one, with the classes of all the files
+ * found, is published by {@link #start()}, and the rest by the thread of the watcher, one at a time. Files that can't be parsed
+ * keep their previous classes, and the classes of files that no longer have any are removed. Listeners that fail are logged and
+ * don't stop the watcher.
+ * <p>
+ * A watcher must be closed when it's no longer needed.
+ */
+public class MetaWatcher implements AutoCloseable {
+
+  private static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(200);
+  private static final Logger LOGGER = System.getLogger(MetaWatcher.class.getName());
+
+  private final MetaJava metaJava;
+  private final Path directory;
+  private final Duration debounce;
+  private final List<MetaDeltaListener> listeners = new CopyOnWriteArrayList<>();
+  private final Map<String, Set<ClassMeta>> classesBySourceFile = new ConcurrentHashMap<>();
+  // Only used by the thread of the watcher after start()
+  private final Map<Path, String> sourceFileUrisByPath = new HashMap<>();
+  private final Map<WatchKey, Path> directoriesByKey = new HashMap<>();
+
+  private WatchService watchService;
+  private Thread thread;
+
+  public MetaWatcher(MetaJava metaJava, Path directory) {
+    this(metaJava, directory, DEFAULT_DEBOUNCE);
+  }
+
+  /**
+   * @param debounce Time without changes to wait before parsing the changed files
+   */
+  public MetaWatcher(MetaJava metaJava, Path directory, Duration debounce) {
+    if (metaJava == null) {
+      throw new IllegalArgumentException("ERROR: Parameter metaJava is null");
+    }
+    if (directory == null || !Files.isDirectory(directory)) {
+      throw new IllegalArgumentException("ERROR: Parameter directory is null or not a directory");
+    }
+    if (debounce == null || debounce.isNegative()) {
+      throw new IllegalArgumentException("ERROR: Parameter debounce is null or negative");
+    }
+    this.metaJava = metaJava;
+    this.directory = directory.toAbsolutePath().normalize();
+    this.debounce = debounce;
+  }
+
+  /**
+   * Listeners added before {@link #start()} receive the classes of all the files found by it too.
+   */
+  public void addListener(MetaDeltaListener listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("ERROR: Parameter listener is null");
+    }
+    listeners.add(listener);
+  }
+
+  public void removeListener(MetaDeltaListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Reads the classes of all the source files of the directory, publishes them and starts watching for changes
+   */
+  public synchronized void start() {
+    if (watchService != null) {
+      throw new IllegalStateException("ERROR: The watcher has already been started");
+    }
+    Set<Path> sourceFiles = new LinkedHashSet<>();
+    try {
+      watchService = directory.getFileSystem().newWatchService();
+      // Registered before reading the files, so that no change is lost
+      register(directory, sourceFiles);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    publish(update(sourceFiles));
+
+    thread = new Thread(this::watch, "meta-watcher-" + directory.getFileName());
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * @return The current classes by source file URI
+   */
+  public Map<String, Set<ClassMeta>> getClassesBySourceFile() {
+    return Map.copyOf(classesBySourceFile);
+  }
+
+  @Override
+  public synchronized void close() {
+    if (watchService == null) {
+      return;
+    }
+    try {
+      watchService.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if (thread != null && thread != Thread.currentThread()) {
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void watch() {
+    Set<Path> changedPaths = new LinkedHashSet<>();
+    try {
+      while (true) {
+        WatchKey key = changedPaths.isEmpty() ? watchService.take() : watchService.poll(debounce.toNanos(), TimeUnit.NANOSECONDS);
+        if (key == null) {
+          // No more changes for the debounce time
+          publish(update(changedPaths));
+          changedPaths.clear();
+          continue;
+        }
+        readEvents(key, changedPaths);
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      // Closed
+    }
+  }
+
+  private void readEvents(WatchKey key, Set<Path> changedPaths) {
+    Path changedDirectory = directoriesByKey.get(key);
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == OVERFLOW) {
+        // Events have been lost: every file is checked again
+        changedPaths.addAll(sourceFileUrisByPath.keySet());
+        registerQuietly(directory, changedPaths);
+      } else if (changedDirectory != null) {
+        Path path = changedDirectory.resolve((Path) event.context());
+        changedPaths.add(path);
+        if (event.kind() == ENTRY_CREATE && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+          // Its files may have been created before it was registered
+          registerQuietly(path, changedPaths);
+        }
+      }
+    }
+    if (!key.reset()) {
+      directoriesByKey.remove(key);
+    }
+  }
+
+  private void registerQuietly(Path startDirectory, Set<Path> sourceFiles) {
+    try {
+      register(startDirectory, sourceFiles);
+    } catch (IOException e) {
+      // Deleted while being registered: its deletion is read as another change
+    }
+  }
+
+  private void register(Path startDirectory, Set<Path> sourceFiles) throws IOException {
+    try (Stream<Path> paths = Files.walk(startDirectory)) {
+      for (Iterator<Path> iterator = paths.iterator(); iterator.hasNext(); ) {
+        Path path = iterator.next();
+        if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+          directoriesByKey.put(path.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), path);
+        } else if (isSourceFile(path)) {
+          sourceFiles.add(path);
+        }
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private MetaDelta update(Collection<Path> changedPaths) {
+    List<File> files = new ArrayList<>();
+    Map<String, Set<ClassMeta>> removed = new HashMap<>();
+    for (Path path : changedPaths) {
+      if (isSourceFile(path) && Files.isRegularFile(path)) {
+        files.add(path.toFile());
+      } else if (Files.notExists(path, LinkOption.NOFOLLOW_LINKS)) {
+        // A deleted source file, or a deleted directory with source files
+        sourceFileUrisByPath.entrySet().removeIf(pathAndUri -> {
+          if (pathAndUri.getKey().startsWith(path)) {
+            removed.put(pathAndUri.getValue(), classesBySourceFile.remove(pathAndUri.getValue()));
+            return true;
+          }
+          return false;
+        });
+      }
+    }
+
+    Map<String, Set<ClassMeta>> added = new HashMap<>();
+    Map<String, Set<ClassMeta>> changed = new HashMap<>();
+    Set<String> sourceFileUrisWithClasses = new HashSet<>();
+    List<File> parsedFiles = parse(files, (sourceFileUri, classes) -> {
+      if (classes.isEmpty()) {
+        return;
+      }
+      sourceFileUrisWithClasses.add(sourceFileUri);
+      sourceFileUrisByPath.put(Path.of(URI.create(sourceFileUri)), sourceFileUri);
+      Set<ClassMeta> previousClasses = classesBySourceFile.put(sourceFileUri, classes);
+      if (previousClasses == null) {
+        added.put(sourceFileUri, classes);
+      } else if (!previousClasses.equals(classes)) {
+        changed.put(sourceFileUri, classes);
+      }
+    });
+    // Files parsed without classes, like files whose classes have all been deleted, lose their previous classes
+    for (File file : parsedFiles) {
+      String sourceFileUri = CompilationUnitTreeFactory.getSourceFileUri(file);
+      if (!sourceFileUrisWithClasses.contains(sourceFileUri)) {
+        sourceFileUrisByPath.values().remove(sourceFileUri);
+        Set<ClassMeta> previousClasses = classesBySourceFile.remove(sourceFileUri);
+        if (previousClasses != null) {
+          removed.put(sourceFileUri, previousClasses);
+        }
+      }
+    }
+    return new MetaDelta(added, changed, removed);
+  }
+
+  /**
+   * @return The files parsed. The ones that can't be parsed are not, and keep their previous classes.
+   */
+  private List<File> parse(List<File> files, ClassMetaSink sink) {
+    if (files.isEmpty()) {
+      return List.of();
+    }
+    try {
+      metaJava.streamMetaFrom(files, sink);
+      return files;
+    } catch (RuntimeException e) {
+      if (files.size() == 1) {
+        return List.of();
+      }
+      // Some file can't be parsed: the files are parsed one by one, so that only the failing ones keep their previous classes
+      List<File> parsedFiles = new ArrayList<>();
+      files.forEach(file -> parsedFiles.addAll(parse(List.of(file), sink)));
+      return parsedFiles;
+    }
+  }
+
+  private void publish(MetaDelta delta) {
+    if (delta.isEmpty()) {
+      return;
+    }
+    for (MetaDeltaListener listener : listeners) {
+      try {
+        listener.accept(delta);
+      } catch (RuntimeException e) {
+        // A failing listener must not stop the watcher nor the rest of listeners
+        LOGGER.log(Level.WARNING, "Listener " + listener + " of the watcher of " + directory + " failed", e);
+      }
+    }
+  }
+
+  private static boolean isSourceFile(Path path) {
+    return path.getFileName() != null && path.getFileName().toString().endsWith(".java");
+  }
+
+}
@@ -0,0 +1,44 @@
+package org.jid.metajava;
+
+/**
+ * Parts of the {@link org.jid.metajava.model.ClassMeta} model that can be left out of the extraction with
+ * {@link ExtractionOptions}. Excluded parts are empty: empty sets, empty lists or null initial values.
+ */
+public enum ModelPart {
+
+  /**
+   * {@code ClassMeta.imports()}
+   */
+  IMPORTS,
+
+  /**
+   * {@code ClassMeta.methods()}
+   */
+  METHODS,
+
+  /**
+   * {@code ClassMeta.constructors()}
+   */
+  CONSTRUCTORS,
+
+  /**
+   * Annotations of the parameters of methods and constructors
+   */
+  PARAMETER_ANNOTATIONS,
+
+  /**
+   * {@code ClassMeta.fields()}, enum constants and record fields included
+   */
+  FIELDS,
+
+  /**
+   * {@code VariableMeta.initializer()} of the fields
+   */
+  FIELD_INITIALIZERS,
+
+  /**
+   * {@code ClassMeta.nestedClasses()}
+   */
+  NESTED_CLASSES
+
+}
@@ -2,14 +2,41 @@ package org.jid.metajava;
 
 import com.sun.source.tree.ModifiersTree;
 import java.util.Set;
-import java.util.stream.Collectors;
+import org.jid.metajava.internal.MetaCanonicalizer;
 import org.jid.metajava.model.Modifier;
 
 class ModifierProcessor {
 
-  Set<Modifier> getModifierFlags(ModifiersTree modifierTree) {
-    return modifierTree.getFlags().stream()
-      .map(m -> Modifier.from(m.toString()))
-      .collect(Collectors.toUnmodifiableSet());
+  Set<Modifier> getModifierFlags(ModifiersTree modifierTree, MetaCanonicalizer canonicalizer) {
+    Set<javax.lang.model.element.Modifier> flags = modifierTree.getFlags();
+    if (flags.isEmpty()) {
+      return Set.of();
+    }
+    var modifiers = new Modifier[flags.size()];
+    int i = 0;
+    for (javax.lang.model.element.Modifier flag : flags) {
+      modifiers[i++] = from(flag);
+    }
+    return canonicalizer.canonicalSet(Set.of(modifiers));
   }
-}
\ No newline at end of file
+
+  private static Modifier from(javax.lang.model.element.Modifier flag) {
+    return switch (flag) {
+      case PUBLIC -> Modifier.PUBLIC;
+      case PROTECTED -> Modifier.PROTECTED;
+      case PRIVATE -> Modifier.PRIVATE;
+      case ABSTRACT -> Modifier.ABSTRACT;
+      case DEFAULT -> Modifier.DEFAULT;
+      case STATIC -> Modifier.STATIC;
+      case SEALED -> Modifier.SEALED;
+      case NON_SEALED -> Modifier.NON_SEALED;
+      case FINAL -> Modifier.FINAL;
+      case TRANSIENT -> Modifier.TRANSIENT;
+      case VOLATILE -> Modifier.VOLATILE;
+      case SYNCHRONIZED -> Modifier.SYNCHRONIZED;
+      case NATIVE -> Modifier.NATIVE;
+      case STRICTFP -> Modifier.STRICTFP;
+    };
+  }
+
+}
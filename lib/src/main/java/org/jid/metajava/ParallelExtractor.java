@@ -0,0 +1,38 @@
+package org.jid.metajava;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jid.metajava.internal.MetaCanonicalizer;
+import org.jid.metajava.internal.ParallelTasks;
+import org.jid.metajava.model.ClassMeta;
+
+class ParallelExtractor {
+
+  private final SourceParser sourceParser;
+  private final FilePartitioner filePartitioner = new FilePartitioner();
+
+  ParallelExtractor(SourceParser sourceParser) {
+    this.sourceParser = sourceParser;
+  }
+
+  Set<ClassMeta> getMetaFrom(Collection<File> files, int parallelism) {
+    List<List<File>> partitions = filePartitioner.partitionBySize(files, ParallelTasks.numPartitions(parallelism));
+    Set<ClassMeta> classes = ConcurrentHashMap.newKeySet(files.size());
+    var canonicalizer = new MetaCanonicalizer();
+
+    // Each partition gets its own JavacTask when parsed with javac: javac contexts can't be shared between threads
+    List<Callable<Void>> tasks = partitions.stream()
+      .<Callable<Void>>map(partition -> () -> {
+        sourceParser.parse(partition, canonicalizer, (sourceFileUri, classesOfUnit) -> classes.addAll(classesOfUnit));
+        return null;
+      })
+      .toList();
+    ParallelTasks.invokeAll(tasks, parallelism);
+    return classes;
+  }
+
+}
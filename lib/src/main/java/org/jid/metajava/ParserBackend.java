@@ -0,0 +1,21 @@
+package org.jid.metajava;
+
+/**
+ * How the source files are parsed.
+ */
+public enum ParserBackend {
+
+  /**
+   * The javac parser. Every file accepted by javac is supported.
+   */
+  JAVAC,
+
+  /**
+   * Only the declarations are read: method bodies and initializer blocks are skipped without being parsed, which is several times
+   * faster than javac. The classes are the same ones extracted with {@link #JAVAC}: the few files using constructs that are not read
+   * exactly like javac does (anonymous classes, block lambdas or switch expressions in field initializers, type annotations, etc.)
+   * are parsed with javac.
+   */
+  DECLARATIONS
+
+}
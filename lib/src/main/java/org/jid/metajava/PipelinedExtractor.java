@@ -0,0 +1,168 @@
+package org.jid.metajava;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jid.metajava.exceptions.ClassNotParseableException;
+import org.jid.metajava.internal.MetaCanonicalizer;
+import org.jid.metajava.model.ClassMeta;
+
+/**
+ * Reads, parses and extracts the files in two stages connected by a bounded queue, so that reading the files overlaps with parsing
+ * the ones already read:
+ * <ol>
+ *   <li>Every file is read by its own virtual thread. At most {@value #READ_AHEAD_PER_WORKER} files per worker are read and waiting
+ *   to be parsed: reading waits for the workers when they fall behind.</li>
+ *   <li>A fixed number of platform threads (workers) parse the files read and extract their classes. Every worker takes all the
+ *   files waiting in the queue, up to {@value #MAX_BATCH_SIZE}, and parses them with the same javac task.</li>
+ * </ol>
+ */
+class PipelinedExtractor {
+
+  private static final int READ_AHEAD_PER_WORKER = 16;
+  private static final int MAX_BATCH_SIZE = 8;
+  // Put after the last file. Every worker puts it back for the next one.
+  private static final FileContent END = new FileContent(null, null);
+
+  private final SourceParser sourceParser;
+
+  PipelinedExtractor(SourceParser sourceParser) {
+    this.sourceParser = sourceParser;
+  }
+
+  Set<ClassMeta> getMetaFrom(Collection<File> files, int parallelism) {
+    int maxReadAhead = parallelism * READ_AHEAD_PER_WORKER;
+    var readAheadPermits = new Semaphore(maxReadAhead);
+    // Never full: there are, at most, maxReadAhead files and END
+    BlockingQueue<FileContent> readFiles = new ArrayBlockingQueue<>(maxReadAhead + 1);
+    Set<ClassMeta> classes = ConcurrentHashMap.newKeySet(files.size());
+    var canonicalizer = new MetaCanonicalizer();
+    var failure = new AtomicReference<Throwable>();
+
+    ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+    try {
+      for (int i = 0; i < parallelism; i++) {
+        workers.execute(() -> parseReadFiles(readFiles, readAheadPermits, canonicalizer, classes, failure));
+      }
+      try (var readers = Executors.newVirtualThreadPerTaskExecutor()) {
+        for (File file : files) {
+          readAheadPermits.acquire();
+          if (failure.get() != null) {
+            readAheadPermits.release();
+            break;
+          }
+          readers.execute(() -> {
+            try {
+              readFiles.add(read(file));
+            } catch (Throwable e) {
+              // Only an Error gets here: the extraction fails instead of skipping the file
+              failure.compareAndSet(null, e);
+              readAheadPermits.release();
+            }
+          });
+        }
+      }
+      readFiles.add(END);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      failure.compareAndSet(null, e);
+      readFiles.add(END);
+    } finally {
+      workers.close();
+    }
+
+    switch (failure.get()) {
+      case null -> {
+        return classes;
+      }
+      case RuntimeException runtimeException -> throw runtimeException;
+      case Error error -> throw error;
+      default -> throw new ClassNotParseableException(failure.get());
+    }
+  }
+
+  /**
+   * @return The file without content when it can't be read or isn't valid UTF-8: it's parsed from the file then, so that errors
+   * are reported like when it is not read in advance
+   */
+  private static FileContent read(File file) {
+    var event = new FileReadEvent();
+    event.begin();
+    try {
+      byte[] content = Files.readAllBytes(file.toPath());
+      event.end();
+      if (event.shouldCommit()) {
+        event.sourceFile = CompilationUnitTreeFactory.getSourceFileUri(file);
+        event.size = content.length;
+        event.commit();
+      }
+      // Malformed input is reported instead of replaced
+      String source = StandardCharsets.UTF_8.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPORT)
+        .onUnmappableCharacter(CodingErrorAction.REPORT)
+        .decode(ByteBuffer.wrap(content))
+        .toString();
+      return new FileContent(file, source);
+    } catch (IOException | RuntimeException e) {
+      return new FileContent(file, null);
+    }
+  }
+
+  private void parseReadFiles(BlockingQueue<FileContent> readFiles, Semaphore readAheadPermits, MetaCanonicalizer canonicalizer,
+    Set<ClassMeta> classes, AtomicReference<Throwable> failure) {
+
+    List<FileContent> batch = new ArrayList<>(MAX_BATCH_SIZE);
+    boolean end = false;
+    while (!end) {
+      batch.clear();
+      try {
+        batch.add(readFiles.take());
+      } catch (InterruptedException e) {
+        failure.compareAndSet(null, e);
+        return;
+      }
+      readFiles.drainTo(batch, MAX_BATCH_SIZE - 1);
+      end = batch.remove(END);
+      if (end) {
+        readFiles.add(END);
+      }
+
+      // After a failure, files are only taken from the queue, so that reading doesn't wait forever
+      if (failure.get() == null && !batch.isEmpty()) {
+        try {
+          parse(batch, canonicalizer, classes);
+        } catch (RuntimeException | Error e) {
+          failure.compareAndSet(null, e);
+        }
+      }
+      readAheadPermits.release(batch.size());
+    }
+  }
+
+  private void parse(List<FileContent> batch, MetaCanonicalizer canonicalizer, Set<ClassMeta> classes) {
+    List<FileContent> readFiles = batch.stream().filter(file -> file.content() != null).toList();
+    List<File> unreadFiles = batch.stream().filter(file -> file.content() == null).map(FileContent::file).toList();
+    ClassMetaSink sink = (sourceFileUri, classesOfUnit) -> classes.addAll(classesOfUnit);
+    if (!readFiles.isEmpty()) {
+      sourceParser.parseRead(readFiles, canonicalizer, sink);
+    }
+    if (!unreadFiles.isEmpty()) {
+      sourceParser.parse(unreadFiles, canonicalizer, sink);
+    }
+  }
+
+}
@@ -0,0 +1,98 @@
+package org.jid.metajava;
+
+import com.sun.source.util.JavacTask;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Function;
+import javax.tools.DiagnosticListener;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Keeps the compiler, the released file managers and, when the JDK allows it, the javac contexts to reuse them in the following
+ * calls. Javac file managers are not thread safe, so a file manager is only given to one caller at a time and a new one is created
+ * when there is no idle one.
+ */
+class PooledJavacProvider implements JavacProvider {
+
+  private final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+  private final ConcurrentLinkedDeque<StandardJavaFileManager> idleFileManagers = new ConcurrentLinkedDeque<>();
+  private final JavacTaskPoolAdapter javacTaskPool;
+  private final int maxIdle;
+  private volatile boolean closed;
+
+  /**
+   * @param reuseJavacContexts Whether the javac contexts are reused when the JDK allows it. Otherwise, only the file managers are.
+   */
+  PooledJavacProvider(int maxIdle, boolean reuseJavacContexts) {
+    this.maxIdle = maxIdle;
+    this.javacTaskPool = reuseJavacContexts && JavacTaskPoolAdapter.isAvailable() ? new JavacTaskPoolAdapter(maxIdle) : null;
+  }
+
+  @Override
+  public StandardJavaFileManager acquireFileManager() {
+    if (closed) {
+      throw new IllegalStateException("ERROR: Session is closed");
+    }
+    StandardJavaFileManager fileManager = idleFileManagers.pollFirst();
+    return fileManager != null ? fileManager : compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void releaseFileManager(StandardJavaFileManager fileManager) {
+    if (closed || idleFileManagers.size() >= maxIdle || !flush(fileManager)) {
+      close(fileManager);
+      return;
+    }
+    idleFileManagers.offerFirst(fileManager);
+    // The pool could have been closed while the file manager was being added
+    if (closed && idleFileManagers.remove(fileManager)) {
+      close(fileManager);
+    }
+  }
+
+  @Override
+  public <T> T withTask(StandardJavaFileManager fileManager, DiagnosticListener<? super JavaFileObject> diagnosticListener,
+    List<String> options, Iterable<? extends JavaFileObject> compilationUnits, Function<JavacTask, T> worker) {
+    if (javacTaskPool != null) {
+      return javacTaskPool.withTask(fileManager, diagnosticListener, options, compilationUnits, worker);
+    }
+    return worker.apply((JavacTask) compiler.getTask(null, fileManager, diagnosticListener, options, null, compilationUnits));
+  }
+
+  boolean isReusingJavacContexts() {
+    return javacTaskPool != null;
+  }
+
+  void close() {
+    closed = true;
+    StandardJavaFileManager fileManager;
+    while ((fileManager = idleFileManagers.pollFirst()) != null) {
+      close(fileManager);
+    }
+  }
+
+  // Drops the content of the parsed files cached by the file manager
+  private static boolean flush(StandardJavaFileManager fileManager) {
+    try {
+      fileManager.flush();
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private static void close(StandardJavaFileManager fileManager) {
+    try {
+      fileManager.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+}
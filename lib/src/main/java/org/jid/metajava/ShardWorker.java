@@ -0,0 +1,62 @@
+package org.jid.metajava;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import org.jid.metajava.io.SnapshotWriter;
+
+/**
+ * Main class of the worker JVMs of {@link ShardedExtractor}. The arguments are the parser backend and the excluded model parts. The
+ * files of the shard are read from the standard input, as a count followed by their paths, and the classes extracted are written
+ * to the standard output as a snapshot, compilation unit by compilation unit. The exit code is 0 only when every file is extracted
+ * and {@link #EXIT_FAILURE} when they can't be: any other one is a crash of the JVM, like running out of memory.
+ */
+final class ShardWorker {
+
+  // Not 1, the exit code of the JVM when an error ends main()
+  static final int EXIT_FAILURE = 2;
+
+  private ShardWorker() {
+  }
+
+  public static void main(String[] args) {
+    // The classes are the only output of the standard output: anything else printed goes to the standard error
+    var results = new FileOutputStream(FileDescriptor.out);
+    System.setOut(System.err);
+
+    try {
+      var parserBackend = ParserBackend.valueOf(args[0]);
+      Set<ModelPart> excludedParts = EnumSet.noneOf(ModelPart.class);
+      for (int i = 1; i < args.length; i++) {
+        excludedParts.add(ModelPart.valueOf(args[i]));
+      }
+      List<File> files = readFiles();
+
+      try (var writer = new SnapshotWriter(results)) {
+        MetaJava.builder().parserBackend(parserBackend).options(new ExtractionOptions(excludedParts)).build()
+          .streamMetaFrom(files, (sourceFileUri, classes) -> classes.forEach(writer::write));
+      }
+    } catch (Exception e) {
+      e.printStackTrace();
+      System.exit(EXIT_FAILURE);
+    }
+  }
+
+  private static List<File> readFiles() throws IOException {
+    var in = new DataInputStream(new BufferedInputStream(System.in));
+    int numFiles = in.readInt();
+    List<File> files = new ArrayList<>(numFiles);
+    for (int i = 0; i < numFiles; i++) {
+      files.add(new File(in.readUTF()));
+    }
+    return files;
+  }
+
+}
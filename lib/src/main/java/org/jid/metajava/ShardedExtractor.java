@@ -0,0 +1,202 @@
+package org.jid.metajava;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.jid.metajava.exceptions.ClassNotParseableException;
+import org.jid.metajava.io.SnapshotReader;
+import org.jid.metajava.model.ClassMeta;
+
+/**
+ * Extracts the files in worker JVMs ({@link ShardWorker}) forked on the same machine, so that the memory and garbage collection of
+ * javac are split between processes. Files are split by size in a shard per worker. Every worker receives its shard through its
+ * standard input and sends back the classes, as a snapshot, through its standard output. The classes of a worker are merged only
+ * when it ends successfully. A worker that crashes is started again, up to {@value #MAX_ATTEMPTS} times. A worker that can't parse
+ * its shard is not: the files would fail again. When a shard fails, the other workers are stopped and the error output of the
+ * worker is thrown.
+ */
+class ShardedExtractor {
+
+  private static final int MAX_ATTEMPTS = 3;
+  // Only the end of the error output of a failed worker is thrown: that's where the failure is
+  private static final int MAX_ERROR_OUTPUT_LENGTH = 4096;
+
+  private final ParserBackend parserBackend;
+  private final ExtractionOptions options;
+  private final List<String> jvmOptions;
+  private final FilePartitioner filePartitioner = new FilePartitioner();
+
+  ShardedExtractor(ParserBackend parserBackend, ExtractionOptions options, List<String> jvmOptions) {
+    this.parserBackend = parserBackend;
+    this.options = options;
+    this.jvmOptions = jvmOptions;
+  }
+
+  Set<ClassMeta> getMetaFrom(Collection<File> files, int workers) {
+    List<List<File>> shards = filePartitioner.partitionBySize(files, workers);
+    Set<ClassMeta> classes = ConcurrentHashMap.newKeySet(files.size());
+    List<String> command = getWorkerCommand();
+    Set<Process> runningWorkers = ConcurrentHashMap.newKeySet(shards.size());
+
+    // Every worker is waited by its own virtual thread
+    try (var coordinator = Executors.newVirtualThreadPerTaskExecutor()) {
+      var completion = new ExecutorCompletionService<Boolean>(coordinator);
+      List<Future<Boolean>> results = new ArrayList<>(shards.size());
+      for (List<File> shard : shards) {
+        results.add(completion.submit(() -> classes.addAll(extract(shard, command, runningWorkers))));
+      }
+      try {
+        for (int i = 0; i < results.size(); i++) {
+          completion.take().get();
+        }
+      } catch (InterruptedException | ExecutionException e) {
+        // Cancelled first, so that a worker started after being stopped sees it and stops itself
+        results.forEach(result -> result.cancel(true));
+        runningWorkers.forEach(Process::destroyForcibly);
+        throw e;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ClassNotParseableException(e);
+    } catch (ExecutionException e) {
+      switch (e.getCause()) {
+        case RuntimeException runtimeException -> throw runtimeException;
+        case Error error -> throw error;
+        default -> throw new ClassNotParseableException(e.getCause());
+      }
+    }
+    return classes;
+  }
+
+  private List<ClassMeta> extract(List<File> shard, List<String> command, Set<Process> runningWorkers) throws InterruptedException {
+    String lastFailure = null;
+    for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+      Process worker = startWorker(command);
+      runningWorkers.add(worker);
+      try {
+        if (Thread.currentThread().isInterrupted()) {
+          throw new InterruptedException();
+        }
+        var errorOutput = new ByteArrayOutputStream();
+        Thread errorReader = Thread.ofVirtual().start(() -> readErrorOutput(worker, errorOutput));
+
+        List<ClassMeta> classes = null;
+        String readFailure = null;
+        try {
+          classes = extract(shard, worker);
+        } catch (IOException | UncheckedIOException e) {
+          readFailure = e.toString();
+        }
+        int exitCode = worker.waitFor();
+        errorReader.join();
+
+        if (exitCode == 0 && readFailure == null) {
+          return classes;
+        }
+        lastFailure = "exit code " + exitCode + (readFailure == null ? "" : ", " + readFailure) + getErrorOutputEnd(errorOutput);
+        if (exitCode == ShardWorker.EXIT_FAILURE) {
+          throw new ClassNotParseableException(getShardDescription(shard) + " not extracted: " + lastFailure);
+        }
+      } finally {
+        runningWorkers.remove(worker);
+        worker.destroyForcibly();
+      }
+    }
+    throw new ClassNotParseableException(getShardDescription(shard) + " not extracted after " + MAX_ATTEMPTS
+      + " attempts. Last failure: " + lastFailure);
+  }
+
+  private static String getShardDescription(List<File> shard) {
+    return "Shard of " + shard.size() + " files, from " + shard.getFirst() + ",";
+  }
+
+  private static void readErrorOutput(Process worker, ByteArrayOutputStream errorOutput) {
+    try (InputStream errors = worker.getErrorStream()) {
+      errors.transferTo(errorOutput);
+    } catch (IOException e) {
+      // The worker is stopped: its error output is what was read
+    }
+  }
+
+  private static String getErrorOutputEnd(ByteArrayOutputStream errorOutput) {
+    String errors = errorOutput.toString(Charset.defaultCharset()).strip();
+    if (errors.isEmpty()) {
+      return "";
+    }
+    if (errors.length() > MAX_ERROR_OUTPUT_LENGTH) {
+      String end = errors.substring(errors.length() - MAX_ERROR_OUTPUT_LENGTH);
+      errors = "...\n" + end.substring(end.indexOf('\n') + 1);
+    }
+    return ". Error output:\n" + errors;
+  }
+
+  private static List<ClassMeta> extract(List<File> shard, Process worker) throws IOException {
+    try (var out = new DataOutputStream(new BufferedOutputStream(worker.getOutputStream()))) {
+      out.writeInt(shard.size());
+      for (File file : shard) {
+        out.writeUTF(file.getAbsolutePath());
+      }
+    }
+
+    List<ClassMeta> classes = new ArrayList<>();
+    try (var reader = new SnapshotReader(worker.getInputStream())) {
+      for (ClassMeta classMeta = reader.read(); classMeta != null; classMeta = reader.read()) {
+        classes.add(classMeta);
+      }
+    }
+    return classes;
+  }
+
+  private static Process startWorker(List<String> command) {
+    try {
+      return new ProcessBuilder(command).start();
+    } catch (IOException e) {
+      throw new ClassNotParseableException(e);
+    }
+  }
+
+  private List<String> getWorkerCommand() {
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(jvmOptions);
+    command.add("-cp");
+    command.add(getClassPath());
+    command.add(ShardWorker.class.getName());
+    command.add(parserBackend.name());
+    options.excludedParts().forEach(part -> command.add(part.name()));
+    return command;
+  }
+
+  /**
+   * @return Where this library is loaded from, so that workers load the same classes, or the class path of this JVM when unknown
+   */
+  private static String getClassPath() {
+    CodeSource codeSource = ShardWorker.class.getProtectionDomain().getCodeSource();
+    if (codeSource != null && codeSource.getLocation() != null) {
+      try {
+        return Path.of(codeSource.getLocation().toURI()).toString();
+      } catch (URISyntaxException | IllegalArgumentException e) {
+        // Not a file: the class path is used instead
+      }
+    }
+    return System.getProperty("java.class.path");
+  }
+
+}
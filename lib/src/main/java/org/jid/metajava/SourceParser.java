@@ -0,0 +1,47 @@
+package org.jid.metajava;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.jid.metajava.internal.MetaCanonicalizer;
+import org.jid.metajava.model.ClassMeta;
+
+/**
+ * Reads the classes defined in source files. The classes of every compilation unit are returned together.
+ */
+interface SourceParser {
+
+  /**
+   * @param canonicalizer Shared by all the compilation units so that equal values are kept only once
+   */
+  void parse(Collection<File> files, MetaCanonicalizer canonicalizer, ClassMetaSink sink);
+
+  /**
+   * Same as {@link #parse(Collection, MetaCanonicalizer, ClassMetaSink)} but the sources are read from memory
+   */
+  void parseInMemory(Collection<InMemorySource> sources, MetaCanonicalizer canonicalizer, ClassMetaSink sink);
+
+  /**
+   * Same as {@link #parse(Collection, MetaCanonicalizer, ClassMetaSink)} but the content of the files has already been read
+   */
+  void parseRead(Collection<FileContent> files, MetaCanonicalizer canonicalizer, ClassMetaSink sink);
+
+  /**
+   * Same as {@link #parse(Collection, MetaCanonicalizer, ClassMetaSink)} but every file succeeds or fails on its own. The classes of
+   * the files that javac reports errors about, or whose extraction throws an exception, are not sent to the sink: their failures are
+   * sent to the failure sink instead.
+   */
+  void parseIsolated(Collection<File> files, MetaCanonicalizer canonicalizer, ClassMetaSink sink, Consumer<FileFailure> failureSink);
+
+  /**
+   * Lazily parses the files one by one. Values are shared only inside every compilation unit, so that memory doesn't grow with the
+   * number of streamed files. The returned stream must be closed.
+   *
+   * @return The classes of every compilation unit by its source file URI
+   */
+  Stream<Map.Entry<String, Set<ClassMeta>>> stream(Collection<File> files);
+
+}
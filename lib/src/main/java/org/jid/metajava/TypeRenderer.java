@@ -0,0 +1,128 @@
+package org.jid.metajava;
+
+import com.sun.source.tree.ArrayTypeTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.ParameterizedTypeTree;
+import com.sun.source.tree.PrimitiveTypeTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.WildcardTree;
+import java.util.List;
+import javax.lang.model.element.Name;
+
+/**
+ * Renders names and types (identifiers, member selects, and primitive, array, parameterized and wildcard types) exactly like
+ * {@code Tree.toString()}, but appending them to a reused builder instead of creating a javac pretty printer and its writer for
+ * every tree. Any other tree, or a tree that contains one, is rendered with {@code toString()}.
+ * <p>
+ * Not thread safe: every compilation unit is rendered by a new instance.
+ */
+class TypeRenderer {
+
+  private final StringBuilder builder = new StringBuilder();
+
+  String render(Tree tree) {
+    // The most common trees, rendered without the builder
+    if (tree.getKind() == Tree.Kind.IDENTIFIER) {
+      String name = ((IdentifierTree) tree).getName().toString();
+      return isPrintable(name) ? name : tree.toString();
+    }
+    if (tree.getKind() == Tree.Kind.PRIMITIVE_TYPE) {
+      String primitiveTypeName = getPrimitiveTypeName((PrimitiveTypeTree) tree);
+      return primitiveTypeName != null ? primitiveTypeName : tree.toString();
+    }
+
+    builder.setLength(0);
+    return append(tree) ? builder.toString() : tree.toString();
+  }
+
+  /**
+   * @return False when the tree can't be rendered. The builder is left with part of the tree then.
+   */
+  private boolean append(Tree tree) {
+    return switch (tree) {
+      case null -> false;
+      case IdentifierTree identifierTree -> append(identifierTree.getName());
+      case MemberSelectTree memberSelectTree -> append(memberSelectTree.getExpression()) && append('.')
+        && append(memberSelectTree.getIdentifier());
+      case PrimitiveTypeTree primitiveTypeTree -> {
+        String primitiveTypeName = getPrimitiveTypeName(primitiveTypeTree);
+        builder.append(primitiveTypeName);
+        yield primitiveTypeName != null;
+      }
+      case ArrayTypeTree arrayTypeTree -> {
+        boolean appended = append(arrayTypeTree.getType());
+        builder.append("[]");
+        yield appended;
+      }
+      case ParameterizedTypeTree parameterizedTypeTree -> append(parameterizedTypeTree.getType()) && append('<')
+        && appendAll(parameterizedTypeTree.getTypeArguments()) && append('>');
+      case WildcardTree wildcardTree -> switch (wildcardTree.getKind()) {
+        case UNBOUNDED_WILDCARD -> append('?');
+        case EXTENDS_WILDCARD -> append("? extends ") && append(wildcardTree.getBound());
+        case SUPER_WILDCARD -> append("? super ") && append(wildcardTree.getBound());
+        default -> false;
+      };
+      default -> false;
+    };
+  }
+
+  private boolean appendAll(List<? extends Tree> trees) {
+    for (int i = 0; i < trees.size(); i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      if (!append(trees.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean append(Name name) {
+    String value = name.toString();
+    builder.append(value);
+    return isPrintable(value);
+  }
+
+  private boolean append(String value) {
+    builder.append(value);
+    return true;
+  }
+
+  private boolean append(char c) {
+    builder.append(c);
+    return true;
+  }
+
+  /**
+   * @return False when the pretty printer would escape any of its characters
+   */
+  private static boolean isPrintable(String name) {
+    for (int i = 0; i < name.length(); i++) {
+      if (name.charAt(i) > 255) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return Null for erroneous types
+   */
+  private static String getPrimitiveTypeName(PrimitiveTypeTree primitiveTypeTree) {
+    return switch (primitiveTypeTree.getPrimitiveTypeKind()) {
+      case BOOLEAN -> "boolean";
+      case BYTE -> "byte";
+      case SHORT -> "short";
+      case INT -> "int";
+      case LONG -> "long";
+      case CHAR -> "char";
+      case FLOAT -> "float";
+      case DOUBLE -> "double";
+      case VOID -> "void";
+      default -> null;
+    };
+  }
+
+}
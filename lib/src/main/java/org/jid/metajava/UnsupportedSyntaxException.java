@@ -0,0 +1,16 @@
+package org.jid.metajava;
+
+/**
+ * Thrown by the {@link DeclarationParser} when a source file uses a construct it can't read exactly like javac does, or when the
+ * file doesn't compile. The file is parsed again with javac.
+ */
+class UnsupportedSyntaxException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  UnsupportedSyntaxException(String message) {
+    // Thrown to fall back to javac, not to be logged: the stack trace is not needed
+    super(message, null, false, false);
+  }
+
+}
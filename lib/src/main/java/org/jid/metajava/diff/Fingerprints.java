@@ -0,0 +1,211 @@
+package org.jid.metajava.diff;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import org.jid.metajava.model.AnnotationArgument;
+import org.jid.metajava.model.AnnotationMeta;
+import org.jid.metajava.model.ClassMeta;
+import org.jid.metajava.model.ImportMeta;
+import org.jid.metajava.model.MethodMeta;
+import org.jid.metajava.model.Modifier;
+import org.jid.metajava.model.VariableMeta;
+
+/**
+ * 64-bit structural fingerprints of the model. The fingerprint of an element is computed from the fingerprints of its parts, like
+ * in a Merkle tree, so equal elements have equal fingerprints and, but for a very unlikely collision, different elements have
+ * different ones. Fingerprints of sets don't depend on the iteration order.
+ * <p>
+ * The {@code sourceFileUri} of the classes is not part of their fingerprint: the same class read from another checkout has the
+ * same fingerprint.
+ */
+public final class Fingerprints {
+
+  private static final long NULL = 0x6A09E667F3BCC908L;
+  private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+  private static final long FNV_PRIME = 0x100000001B3L;
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+  private static final Fingerprints UNCACHED = new Fingerprints(null, null);
+
+  // By identity: the model is immutable, so a class has always the same fingerprint. Null when not cached.
+  private final Map<ClassMeta, Long> classFingerprints;
+  private final Map<ClassMeta, Long> classDeclarationFingerprints;
+
+  private Fingerprints(Map<ClassMeta, Long> classFingerprints, Map<ClassMeta, Long> classDeclarationFingerprints) {
+    this.classFingerprints = classFingerprints;
+    this.classDeclarationFingerprints = classDeclarationFingerprints;
+  }
+
+  /**
+   * @return Fingerprints that compute the fingerprints of every class only once, so that going down through the nested classes
+   * doesn't compute again the fingerprints of the classes below. Members are not cached: their fingerprints are computed at most
+   * twice, and caching every element costs more than that. Not thread safe.
+   */
+  static Fingerprints cached() {
+    return new Fingerprints(new IdentityHashMap<>(), new IdentityHashMap<>());
+  }
+
+  /**
+   * @return Fingerprint of the class, its members, annotations and nested classes included
+   */
+  public static long of(ClassMeta classMeta) {
+    return UNCACHED.fingerprint(classMeta);
+  }
+
+  /**
+   * @return Fingerprint of the method or constructor, its annotations included
+   */
+  public static long of(MethodMeta methodMeta) {
+    return UNCACHED.fingerprint(methodMeta);
+  }
+
+  /**
+   * @return Fingerprint of the field or parameter, its annotations included
+   */
+  public static long of(VariableMeta variableMeta) {
+    return UNCACHED.fingerprint(variableMeta);
+  }
+
+  public static long of(AnnotationMeta annotationMeta) {
+    return UNCACHED.fingerprint(annotationMeta);
+  }
+
+  long fingerprint(ClassMeta classMeta) {
+    return cached(classFingerprints, classMeta, this::compute);
+  }
+
+  long fingerprint(MethodMeta methodMeta) {
+    return combine(declarationFingerprint(methodMeta), ofAll(methodMeta.annotations(), this::fingerprint));
+  }
+
+  long fingerprint(VariableMeta variableMeta) {
+    return combine(declarationFingerprint(variableMeta), ofAll(variableMeta.annotations(), this::fingerprint));
+  }
+
+  long fingerprint(AnnotationMeta annotationMeta) {
+    return combine(of(annotationMeta.name()), ofAll(annotationMeta.args(), Fingerprints::of));
+  }
+
+  /**
+   * The class without its annotations, members and nested classes
+   */
+  long declarationFingerprint(ClassMeta classMeta) {
+    return cached(classDeclarationFingerprints, classMeta, this::computeDeclaration);
+  }
+
+  /**
+   * The method without its annotations. The annotations of its parameters are included.
+   */
+  long declarationFingerprint(MethodMeta methodMeta) {
+    long fingerprint = of(methodMeta.name());
+    fingerprint = combine(fingerprint, of(methodMeta.returnType()));
+    // Parameters in order
+    long params = methodMeta.params().size();
+    for (VariableMeta param : methodMeta.params()) {
+      params = combine(params, fingerprint(param));
+    }
+    fingerprint = combine(fingerprint, params);
+    fingerprint = combine(fingerprint, ofAll(methodMeta.exceptions(), Fingerprints::of));
+    return combine(fingerprint, ofModifiers(methodMeta.modifiers()));
+  }
+
+  /**
+   * The variable without its annotations
+   */
+  long declarationFingerprint(VariableMeta variableMeta) {
+    long fingerprint = of(variableMeta.name());
+    fingerprint = combine(fingerprint, of(variableMeta.type()));
+    fingerprint = combine(fingerprint, of(variableMeta.initializer()));
+    return combine(fingerprint, ofModifiers(variableMeta.modifiers()));
+  }
+
+  private static long cached(Map<ClassMeta, Long> cache, ClassMeta classMeta, ToLongFunction<ClassMeta> fingerprintOf) {
+    if (cache == null) {
+      return fingerprintOf.applyAsLong(classMeta);
+    }
+    // Not computeIfAbsent: the fingerprints of the nested classes are added to the map while it's computed
+    Long fingerprint = cache.get(classMeta);
+    if (fingerprint == null) {
+      fingerprint = fingerprintOf.applyAsLong(classMeta);
+      cache.put(classMeta, fingerprint);
+    }
+    return fingerprint;
+  }
+
+  private long compute(ClassMeta classMeta) {
+    long fingerprint = declarationFingerprint(classMeta);
+    fingerprint = combine(fingerprint, ofAll(classMeta.annotations(), this::fingerprint));
+    fingerprint = combine(fingerprint, ofAll(classMeta.methods(), this::fingerprint));
+    fingerprint = combine(fingerprint, ofAll(classMeta.constructors(), this::fingerprint));
+    fingerprint = combine(fingerprint, ofAll(classMeta.fields(), this::fingerprint));
+    return combine(fingerprint, ofAll(classMeta.nestedClasses(), this::fingerprint));
+  }
+
+  private long computeDeclaration(ClassMeta classMeta) {
+    long fingerprint = of(classMeta.name());
+    fingerprint = combine(fingerprint, classMeta.type() == null ? NULL : of(classMeta.type().name()));
+    fingerprint = combine(fingerprint, of(classMeta.packageName()));
+    fingerprint = combine(fingerprint, ofAll(classMeta.imports(), Fingerprints::of));
+    fingerprint = combine(fingerprint, ofAll(classMeta.extendsFrom(), Fingerprints::of));
+    fingerprint = combine(fingerprint, ofAll(classMeta.implementsFrom(), Fingerprints::of));
+    fingerprint = combine(fingerprint, ofModifiers(classMeta.modifiers()));
+    return combine(fingerprint, ofAll(classMeta.permits(), Fingerprints::of));
+  }
+
+  private static long of(AnnotationArgument arg) {
+    // Arguments that are not literals, member selects or assignments are null
+    return arg == null ? NULL : combine(of(arg.name()), of(arg.value()));
+  }
+
+  private static long of(ImportMeta importMeta) {
+    return combine(of(importMeta.importString()), importMeta.isStatic() ? 1 : 0);
+  }
+
+  private static long ofModifiers(Collection<Modifier> modifiers) {
+    long flags = 0;
+    for (Modifier modifier : modifiers) {
+      flags |= 1L << modifier.ordinal();
+    }
+    return mix(flags);
+  }
+
+  /**
+   * FNV-1a of the chars of the string
+   */
+  private static long of(String string) {
+    if (string == null) {
+      return NULL;
+    }
+    long hash = FNV_OFFSET_BASIS;
+    for (int i = 0; i < string.length(); i++) {
+      hash = (hash ^ string.charAt(i)) * FNV_PRIME;
+    }
+    return mix(hash);
+  }
+
+  /**
+   * Sum of the mixed fingerprints of the elements, so that it doesn't depend on their order
+   */
+  private static <T> long ofAll(Collection<T> elements, ToLongFunction<T> fingerprintOf) {
+    long sum = 0;
+    for (T element : elements) {
+      sum += mix(fingerprintOf.applyAsLong(element));
+    }
+    return combine(elements.size(), sum);
+  }
+
+  private static long combine(long fingerprint, long partFingerprint) {
+    return mix(fingerprint * GOLDEN_GAMMA + partFingerprint);
+  }
+
+  /**
+   * Finalizer of MurmurHash3: every bit of the input affects every bit of the output
+   */
+  private static long mix(long value) {
+    value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+    value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+    return value ^ (value >>> 33);
+  }
+
+}
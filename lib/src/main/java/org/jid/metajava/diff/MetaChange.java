@@ -0,0 +1,44 @@
+package org.jid.metajava.diff;
+
+/**
+ * Element added, removed or changed between two sets of classes.
+ *
+ * @param path       Where the element is. The fully qualified name of classes, like {@code org.jid.Outer.Nested}. Members follow
+ *                   their class and {@code #}, with the types of the parameters of methods and constructors, like
+ *                   {@code org.jid.Foo#bar(int,String)} or {@code org.jid.Foo#<init>()}. Annotations follow their element and
+ *                   {@code @}, like {@code org.jid.Foo#bar(int,String)@Deprecated}.
+ * @param oldElement A {@link org.jid.metajava.model.ClassMeta}, {@link org.jid.metajava.model.MethodMeta},
+ *                   {@link org.jid.metajava.model.VariableMeta} or {@link org.jid.metajava.model.AnnotationMeta}, depending on
+ *                   the element. Null when it's added.
+ * @param newElement Same as {@code oldElement}. Null when it's removed.
+ */
+public record MetaChange<T>(Type type, Element element, String path, T oldElement, T newElement) {
+
+  public enum Type {
+
+    ADDED,
+
+    REMOVED,
+
+    /**
+     * The element itself changed. Changes of its annotations, members and nested classes are changes of those elements.
+     */
+    CHANGED
+
+  }
+
+  public enum Element {
+
+    CLASS,
+
+    METHOD,
+
+    CONSTRUCTOR,
+
+    FIELD,
+
+    ANNOTATION
+
+  }
+
+}
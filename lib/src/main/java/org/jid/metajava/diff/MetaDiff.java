@@ -0,0 +1,219 @@
+package org.jid.metajava.diff;
+
+import static java.util.Comparator.comparing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import org.jid.metajava.diff.MetaChange.Element;
+import org.jid.metajava.diff.MetaChange.Type;
+import org.jid.metajava.internal.ParallelTasks;
+import org.jid.metajava.model.AnnotationMeta;
+import org.jid.metajava.model.ClassMeta;
+import org.jid.metajava.model.MethodMeta;
+import org.jid.metajava.model.VariableMeta;
+
+/**
+ * Structural differences between two sets of classes read by {@link org.jid.metajava.MetaJava}, like the ones of two releases.
+ * <p>
+ * Classes, members and annotations are matched by their path (see {@link MetaChange#path()}) and compared by their
+ * {@link Fingerprints}: a class whose fingerprint didn't change is skipped without going through its members. When a class
+ * changed, only its elements whose fingerprints changed are compared, down to the elements that changed. The fingerprints of the
+ * classes are computed only once, so going down through nested classes costs as much as comparing them once. When several elements
+ * have the same path, like a class read from several source files, the ones with the same fingerprint on both sides are matched and
+ * the rest are removed and added.
+ * <p>
+ * Classes are compared package by package, by, at most, {@code parallelism} threads. Changes are sorted by path.
+ */
+public class MetaDiff {
+
+  private final List<MetaChange<?>> changes;
+
+  public MetaDiff(Collection<ClassMeta> oldClasses, Collection<ClassMeta> newClasses) {
+    this(oldClasses, newClasses, 1);
+  }
+
+  public MetaDiff(Collection<ClassMeta> oldClasses, Collection<ClassMeta> newClasses, int parallelism) {
+    if (oldClasses == null) {
+      throw new IllegalArgumentException("ERROR: Parameter oldClasses is null");
+    }
+    if (newClasses == null) {
+      throw new IllegalArgumentException("ERROR: Parameter newClasses is null");
+    }
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("ERROR: Parameter parallelism must be greater than 0");
+    }
+
+    Map<String, List<ClassMeta>> oldClassesByPackage = groupByPackage(oldClasses);
+    Map<String, List<ClassMeta>> newClassesByPackage = groupByPackage(newClasses);
+    var packageNames = new TreeSet<>(oldClassesByPackage.keySet());
+    packageNames.addAll(newClassesByPackage.keySet());
+
+    List<Callable<List<MetaChange<?>>>> tasks = packageNames.stream()
+      .<Callable<List<MetaChange<?>>>>map(packageName -> () -> new PackageDiff().diffClasses(
+        oldClassesByPackage.getOrDefault(packageName, List.of()), newClassesByPackage.getOrDefault(packageName, List.of())))
+      .toList();
+
+    List<MetaChange<?>> allChanges = new ArrayList<>();
+    ParallelTasks.invokeAll(tasks, parallelism).forEach(allChanges::addAll);
+    allChanges.sort(comparing(MetaChange::path));
+    this.changes = List.copyOf(allChanges);
+  }
+
+  public List<MetaChange<?>> changes() {
+    return changes;
+  }
+
+  public List<MetaChange<?>> changes(Type type) {
+    return changes.stream().filter(change -> change.type() == type).toList();
+  }
+
+  public boolean isEmpty() {
+    return changes.isEmpty();
+  }
+
+  private static Map<String, List<ClassMeta>> groupByPackage(Collection<ClassMeta> classes) {
+    return classes.stream().collect(Collectors.groupingBy(classMeta -> nullToEmpty(classMeta.packageName())));
+  }
+
+  private static String getQualifiedName(ClassMeta classMeta) {
+    String packageName = nullToEmpty(classMeta.packageName());
+    return packageName.isEmpty() ? classMeta.name() : packageName + "." + classMeta.name();
+  }
+
+  private static String getSignature(MethodMeta methodMeta) {
+    return methodMeta.params().stream()
+      .map(VariableMeta::type)
+      .collect(Collectors.joining(",", methodMeta.name() + "(", ")"));
+  }
+
+  private static String nullToEmpty(String value) {
+    return value == null ? "" : value;
+  }
+
+  /**
+   * Changes of the classes of a package. Not thread safe.
+   */
+  private static class PackageDiff {
+
+    private final List<MetaChange<?>> changes = new ArrayList<>();
+    // Of both sides: a class in both has the same fingerprint
+    private final Fingerprints fingerprints = Fingerprints.cached();
+
+    List<MetaChange<?>> diffClasses(Collection<ClassMeta> oldClasses, Collection<ClassMeta> newClasses) {
+      diff(oldClasses, newClasses, MetaDiff::getQualifiedName, Element.CLASS, fingerprints::fingerprint, this::diffClass);
+      return changes;
+    }
+
+    private void diffClass(String path, ClassMeta oldClass, ClassMeta newClass) {
+      if (fingerprints.declarationFingerprint(oldClass) != fingerprints.declarationFingerprint(newClass)) {
+        changes.add(new MetaChange<>(Type.CHANGED, Element.CLASS, path, oldClass, newClass));
+      }
+      diffAnnotations(path, oldClass.annotations(), newClass.annotations());
+      diff(oldClass.methods(), newClass.methods(), method -> path + "#" + getSignature(method), Element.METHOD,
+        fingerprints::fingerprint,
+        (methodPath, oldMethod, newMethod) -> diffMethod(methodPath, Element.METHOD, oldMethod, newMethod));
+      diff(oldClass.constructors(), newClass.constructors(), constructor -> path + "#" + getSignature(constructor),
+        Element.CONSTRUCTOR, fingerprints::fingerprint,
+        (constructorPath, oldConstructor, newConstructor) -> diffMethod(constructorPath, Element.CONSTRUCTOR, oldConstructor,
+          newConstructor));
+      diff(oldClass.fields(), newClass.fields(), field -> path + "#" + field.name(), Element.FIELD, fingerprints::fingerprint,
+        this::diffField);
+      diff(oldClass.nestedClasses(), newClass.nestedClasses(), MetaDiff::getQualifiedName, Element.CLASS,
+        fingerprints::fingerprint, this::diffClass);
+    }
+
+    private void diffMethod(String path, Element element, MethodMeta oldMethod, MethodMeta newMethod) {
+      if (fingerprints.declarationFingerprint(oldMethod) != fingerprints.declarationFingerprint(newMethod)) {
+        changes.add(new MetaChange<>(Type.CHANGED, element, path, oldMethod, newMethod));
+      }
+      diffAnnotations(path, oldMethod.annotations(), newMethod.annotations());
+    }
+
+    private void diffField(String path, VariableMeta oldField, VariableMeta newField) {
+      if (fingerprints.declarationFingerprint(oldField) != fingerprints.declarationFingerprint(newField)) {
+        changes.add(new MetaChange<>(Type.CHANGED, Element.FIELD, path, oldField, newField));
+      }
+      diffAnnotations(path, oldField.annotations(), newField.annotations());
+    }
+
+    private void diffAnnotations(String path, Set<AnnotationMeta> oldAnnotations, Set<AnnotationMeta> newAnnotations) {
+      diff(oldAnnotations, newAnnotations, annotation -> path + "@" + annotation.name(), Element.ANNOTATION,
+        fingerprints::fingerprint, (annotationPath, oldAnnotation, newAnnotation) ->
+          changes.add(new MetaChange<>(Type.CHANGED, Element.ANNOTATION, annotationPath, oldAnnotation, newAnnotation)));
+    }
+
+    /**
+     * Matches the elements by path. Elements with a different fingerprint are compared with the given diff.
+     */
+    private <T> void diff(Collection<T> oldElements, Collection<T> newElements, Function<T, String> pathOf, Element element,
+      ToLongFunction<T> fingerprintOf, ElementDiff<T> elementDiff) {
+      if (oldElements.isEmpty() && newElements.isEmpty()) {
+        return;
+      }
+
+      Map<String, List<T>> oldElementsByPath = groupByPath(oldElements, pathOf);
+      Map<String, List<T>> newElementsByPath = groupByPath(newElements, pathOf);
+      newElementsByPath.forEach((path, newElementsOfPath) -> {
+        List<T> oldElementsOfPath = oldElementsByPath.remove(path);
+        if (oldElementsOfPath == null) {
+          newElementsOfPath.forEach(newElement -> changes.add(new MetaChange<>(Type.ADDED, element, path, null, newElement)));
+        } else if (oldElementsOfPath.size() == 1 && newElementsOfPath.size() == 1) {
+          T oldElement = oldElementsOfPath.getFirst();
+          T newElement = newElementsOfPath.getFirst();
+          if (fingerprintOf.applyAsLong(oldElement) != fingerprintOf.applyAsLong(newElement)) {
+            elementDiff.diff(path, oldElement, newElement);
+          }
+        } else {
+          diffSamePath(path, oldElementsOfPath, newElementsOfPath, element, fingerprintOf);
+        }
+      });
+      oldElementsByPath.forEach((path, oldElementsOfPath) ->
+        oldElementsOfPath.forEach(oldElement -> changes.add(new MetaChange<>(Type.REMOVED, element, path, oldElement, null))));
+    }
+
+    /**
+     * Elements with the same fingerprint on both sides are unchanged. The rest are removed and added.
+     */
+    private <T> void diffSamePath(String path, List<T> oldElements, List<T> newElements, Element element,
+      ToLongFunction<T> fingerprintOf) {
+      Map<Long, List<T>> unmatchedOldElements = new HashMap<>();
+      oldElements.forEach(oldElement -> unmatchedOldElements
+        .computeIfAbsent(fingerprintOf.applyAsLong(oldElement), fingerprint -> new ArrayList<>())
+        .add(oldElement));
+      for (T newElement : newElements) {
+        List<T> sameFingerprint = unmatchedOldElements.get(fingerprintOf.applyAsLong(newElement));
+        if (sameFingerprint == null || sameFingerprint.isEmpty()) {
+          changes.add(new MetaChange<>(Type.ADDED, element, path, null, newElement));
+        } else {
+          sameFingerprint.removeLast();
+        }
+      }
+      unmatchedOldElements.values().forEach(unmatched ->
+        unmatched.forEach(oldElement -> changes.add(new MetaChange<>(Type.REMOVED, element, path, oldElement, null))));
+    }
+
+    private static <T> Map<String, List<T>> groupByPath(Collection<T> elements, Function<T, String> pathOf) {
+      // Sorted, so that changes are found in the same order every time
+      Map<String, List<T>> elementsByPath = new TreeMap<>();
+      elements.forEach(element -> elementsByPath.computeIfAbsent(pathOf.apply(element), path -> new ArrayList<>(1)).add(element));
+      return elementsByPath;
+    }
+
+  }
+
+  @FunctionalInterface
+  private interface ElementDiff<T> {
+    void diff(String path, T oldElement, T newElement);
+  }
+
+}
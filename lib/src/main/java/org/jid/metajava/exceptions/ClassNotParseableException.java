@@ -2,7 +2,13 @@ package org.jid.metajava.exceptions;
 
 public class ClassNotParseableException extends RuntimeException {
 
+  private static final long serialVersionUID = 1L;
+
   public ClassNotParseableException(Throwable cause) {
     super(cause);
   }
+
+  public ClassNotParseableException(String message) {
+    super(message);
+  }
 }
@@ -0,0 +1,10 @@
+package org.jid.metajava.index;
+
+import org.jid.metajava.model.ClassMeta;
+
+/**
+ * Method, constructor or field found in a {@link MetaIndex}, with the class that declares it.
+ */
+public record IndexedMember<T>(ClassMeta declaringClass, T member) {
+
+}
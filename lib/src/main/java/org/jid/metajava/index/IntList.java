@@ -0,0 +1,62 @@
+package org.jid.metajava.index;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of ints without boxing, used to build the postings of the index.
+ */
+class IntList {
+
+  private int[] values = new int[4];
+  private int size;
+
+  void add(int value) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, size * 2);
+    }
+    values[size++] = value;
+  }
+
+  /**
+   * Adds the value unless it's the last one added. Values are added in ascending order, so this keeps them unique.
+   */
+  void addIfNotLast(int value) {
+    if (size == 0 || values[size - 1] != value) {
+      add(value);
+    }
+  }
+
+  /**
+   * Removes the first occurrence of the value, if any. The order of the rest of values is kept.
+   */
+  void removeValue(int value) {
+    for (int i = 0; i < size; i++) {
+      if (values[i] == value) {
+        System.arraycopy(values, i + 1, values, i, size - i - 1);
+        size--;
+        return;
+      }
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  int get(int index) {
+    return values[index];
+  }
+
+  void addAll(IntList other) {
+    if (size + other.size > values.length) {
+      values = Arrays.copyOf(values, Math.max(size + other.size, size * 2));
+    }
+    System.arraycopy(other.values, 0, values, size, other.size);
+    size += other.size;
+  }
+
+  int[] toArray() {
+    return Arrays.copyOf(values, size);
+  }
+
+}
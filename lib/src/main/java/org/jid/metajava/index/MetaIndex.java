@@ -0,0 +1,253 @@
+package org.jid.metajava.index;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import org.jid.metajava.internal.ParallelTasks;
+import org.jid.metajava.model.AnnotationMeta;
+import org.jid.metajava.model.ClassMeta;
+import org.jid.metajava.model.ClassType;
+import org.jid.metajava.model.MethodMeta;
+import org.jid.metajava.model.Modifier;
+import org.jid.metajava.model.VariableMeta;
+
+/**
+ * Index of the classes read by {@link org.jid.metajava.MetaJava}, and of their methods, constructors and fields, to look them up
+ * without going through all of them. Nested classes are indexed like top level ones.
+ * <p>
+ * Every class, method and field gets an id, in the order of the classes given. Every key of the index points to the sorted array of
+ * ids of its elements, and lookups return views over those arrays, so a lookup takes the time of a hash map access. Annotation names
+ * are the ones written in the source code: {@code Deprecated} and {@code java.lang.Deprecated} are different keys.
+ */
+public class MetaIndex {
+
+  private static final int[] NO_IDS = new int[0];
+
+  private final ClassMeta[] classes;
+  private final MethodMeta[] methods;
+  private final int[] methodClassIds;
+  private final VariableMeta[] fields;
+  private final int[] fieldClassIds;
+
+  private final Map<String, int[]> classIdsByName = new HashMap<>();
+  private final Map<String, int[]> classIdsByAnnotation = new HashMap<>();
+  private final Map<Modifier, int[]> classIdsByModifier = new EnumMap<>(Modifier.class);
+  private final Map<ClassType, int[]> classIdsByType = new EnumMap<>(ClassType.class);
+  private final Map<String, int[]> methodIdsByAnnotation = new HashMap<>();
+  private final Map<String, int[]> fieldIdsByAnnotation = new HashMap<>();
+
+  public MetaIndex(Collection<ClassMeta> classes) {
+    this(classes, 1);
+  }
+
+  /**
+   * Same as {@link #MetaIndex(Collection)} but the index is built by, at most, {@code parallelism} threads
+   */
+  public MetaIndex(Collection<ClassMeta> classes, int parallelism) {
+    if (classes == null) {
+      throw new IllegalArgumentException("ERROR: Parameter classes is null");
+    }
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("ERROR: Parameter parallelism must be greater than 0");
+    }
+
+    var flattened = new FlattenedClasses();
+    classes.forEach(flattened::add);
+    this.classes = flattened.classes.toArray(ClassMeta[]::new);
+    this.methods = flattened.methods.toArray(MethodMeta[]::new);
+    this.methodClassIds = flattened.methodClassIds.toArray();
+    this.fields = flattened.fields.toArray(VariableMeta[]::new);
+    this.fieldClassIds = flattened.fieldClassIds.toArray();
+
+    List<PartialIndex> partials = buildPartials(flattened, parallelism);
+    // Partials cover consecutive ids, so concatenating them in order keeps the ids sorted
+    merge(partials, partial -> partial.classIdsByName, classIdsByName);
+    merge(partials, partial -> partial.classIdsByAnnotation, classIdsByAnnotation);
+    merge(partials, partial -> partial.classIdsByModifier, classIdsByModifier);
+    merge(partials, partial -> partial.classIdsByType, classIdsByType);
+    merge(partials, partial -> partial.methodIdsByAnnotation, methodIdsByAnnotation);
+    merge(partials, partial -> partial.fieldIdsByAnnotation, fieldIdsByAnnotation);
+  }
+
+  /**
+   * @param fullyQualifiedName Package and name of the class, like {@code org.jid.Outer.Nested} for nested classes
+   * @return Usually one class, but the same class can be read from several source files
+   */
+  public List<ClassMeta> findClasses(String fullyQualifiedName) {
+    return classesOf(classIdsByName.getOrDefault(fullyQualifiedName, NO_IDS));
+  }
+
+  public List<ClassMeta> findClassesByAnnotation(String annotationName) {
+    return classesOf(classIdsByAnnotation.getOrDefault(annotationName, NO_IDS));
+  }
+
+  public List<ClassMeta> findClassesByModifier(Modifier modifier) {
+    return classesOf(classIdsByModifier.getOrDefault(modifier, NO_IDS));
+  }
+
+  public List<ClassMeta> findClassesByType(ClassType classType) {
+    return classesOf(classIdsByType.getOrDefault(classType, NO_IDS));
+  }
+
+  /**
+   * Constructors are included: they are methods named {@code <init>}
+   */
+  public List<IndexedMember<MethodMeta>> findMethodsByAnnotation(String annotationName) {
+    int[] ids = methodIdsByAnnotation.getOrDefault(annotationName, NO_IDS);
+    return new IdsView<>(ids, id -> new IndexedMember<>(classes[methodClassIds[id]], methods[id]));
+  }
+
+  public List<IndexedMember<VariableMeta>> findFieldsByAnnotation(String annotationName) {
+    int[] ids = fieldIdsByAnnotation.getOrDefault(annotationName, NO_IDS);
+    return new IdsView<>(ids, id -> new IndexedMember<>(classes[fieldClassIds[id]], fields[id]));
+  }
+
+  static String fullyQualifiedName(ClassMeta classMeta) {
+    // The package name of nested classes includes the enclosing classes
+    return classMeta.packageName() == null || classMeta.packageName().isEmpty() ? classMeta.name()
+      : classMeta.packageName() + "." + classMeta.name();
+  }
+
+  private List<ClassMeta> classesOf(int[] ids) {
+    return new IdsView<>(ids, id -> classes[id]);
+  }
+
+  private static List<PartialIndex> buildPartials(FlattenedClasses flattened, int parallelism) {
+    int numClasses = flattened.classes.size();
+    if (parallelism == 1 || numClasses == 0) {
+      return List.of(new PartialIndex(flattened, 0, numClasses));
+    }
+
+    int numPartitions = Math.min(numClasses, ParallelTasks.numPartitions(parallelism));
+    List<Callable<PartialIndex>> tasks = new ArrayList<>();
+    for (int partition = 0; partition < numPartitions; partition++) {
+      int fromClassId = (int) ((long) numClasses * partition / numPartitions);
+      int toClassId = (int) ((long) numClasses * (partition + 1) / numPartitions);
+      tasks.add(() -> new PartialIndex(flattened, fromClassId, toClassId));
+    }
+    return ParallelTasks.invokeAll(tasks, parallelism);
+  }
+
+  private static <K> void merge(List<PartialIndex> partials, Function<PartialIndex, Map<K, IntList>> postings,
+    Map<K, int[]> target) {
+
+    Map<K, IntList> merged = new HashMap<>();
+    partials.forEach(partial -> postings.apply(partial).forEach((key, ids) -> {
+      IntList mergedIds = merged.putIfAbsent(key, ids);
+      if (mergedIds != null) {
+        mergedIds.addAll(ids);
+      }
+    }));
+    merged.forEach((key, ids) -> target.put(key, ids.toArray()));
+  }
+
+  /**
+   * Classes, nested ones included, and their members in id order. The members of a class have consecutive ids.
+   */
+  private static class FlattenedClasses {
+
+    private final List<ClassMeta> classes = new ArrayList<>();
+    private final IntList firstMethodIds = new IntList();
+    private final List<MethodMeta> methods = new ArrayList<>();
+    private final IntList methodClassIds = new IntList();
+    private final IntList firstFieldIds = new IntList();
+    private final List<VariableMeta> fields = new ArrayList<>();
+    private final IntList fieldClassIds = new IntList();
+
+    void add(ClassMeta classMeta) {
+      int classId = classes.size();
+      classes.add(classMeta);
+      firstMethodIds.add(methods.size());
+      firstFieldIds.add(fields.size());
+      classMeta.methods().forEach(method -> addMethod(method, classId));
+      classMeta.constructors().forEach(constructor -> addMethod(constructor, classId));
+      classMeta.fields().forEach(field -> {
+        fields.add(field);
+        fieldClassIds.add(classId);
+      });
+      classMeta.nestedClasses().forEach(this::add);
+    }
+
+    private void addMethod(MethodMeta method, int classId) {
+      methods.add(method);
+      methodClassIds.add(classId);
+    }
+
+  }
+
+  /**
+   * Postings of the classes with ids between {@code fromClassId} (inclusive) and {@code toClassId} (exclusive), and of their
+   * members.
+   */
+  private static class PartialIndex {
+
+    private final Map<String, IntList> classIdsByName = new HashMap<>();
+    private final Map<String, IntList> classIdsByAnnotation = new HashMap<>();
+    private final Map<Modifier, IntList> classIdsByModifier = new EnumMap<>(Modifier.class);
+    private final Map<ClassType, IntList> classIdsByType = new EnumMap<>(ClassType.class);
+    private final Map<String, IntList> methodIdsByAnnotation = new HashMap<>();
+    private final Map<String, IntList> fieldIdsByAnnotation = new HashMap<>();
+
+    PartialIndex(FlattenedClasses flattened, int fromClassId, int toClassId) {
+      for (int classId = fromClassId; classId < toClassId; classId++) {
+        ClassMeta classMeta = flattened.classes.get(classId);
+        add(classIdsByName, fullyQualifiedName(classMeta), classId);
+        addAnnotations(classIdsByAnnotation, classMeta.annotations(), classId);
+        for (Modifier modifier : classMeta.modifiers()) {
+          add(classIdsByModifier, modifier, classId);
+        }
+        add(classIdsByType, classMeta.type(), classId);
+      }
+
+      int toMethodId = toClassId < flattened.classes.size() ? flattened.firstMethodIds.get(toClassId) : flattened.methods.size();
+      for (int methodId = flattened.firstMethodIds.get(fromClassId); methodId < toMethodId; methodId++) {
+        addAnnotations(methodIdsByAnnotation, flattened.methods.get(methodId).annotations(), methodId);
+      }
+      int toFieldId = toClassId < flattened.classes.size() ? flattened.firstFieldIds.get(toClassId) : flattened.fields.size();
+      for (int fieldId = flattened.firstFieldIds.get(fromClassId); fieldId < toFieldId; fieldId++) {
+        addAnnotations(fieldIdsByAnnotation, flattened.fields.get(fieldId).annotations(), fieldId);
+      }
+    }
+
+    private static void addAnnotations(Map<String, IntList> idsByAnnotation, Collection<AnnotationMeta> annotations, int id) {
+      // Repeated annotations are indexed once
+      annotations.forEach(annotation -> idsByAnnotation.computeIfAbsent(annotation.name(), name -> new IntList()).addIfNotLast(id));
+    }
+
+    private static <K> void add(Map<K, IntList> idsByKey, K key, int id) {
+      idsByKey.computeIfAbsent(key, k -> new IntList()).add(id);
+    }
+
+  }
+
+  private static class IdsView<T> extends AbstractList<T> implements RandomAccess {
+
+    private final int[] ids;
+    private final IntFunction<T> elementById;
+
+    IdsView(int[] ids, IntFunction<T> elementById) {
+      this.ids = ids;
+      this.elementById = elementById;
+    }
+
+    @Override
+    public T get(int index) {
+      return elementById.apply(ids[index]);
+    }
+
+    @Override
+    public int size() {
+      return ids.length;
+    }
+
+  }
+
+}
@@ -0,0 +1,541 @@
+package org.jid.metajava.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import org.jid.metajava.model.ClassMeta;
+import org.jid.metajava.model.ImportMeta;
+import org.jid.metajava.model.Modifier;
+
+/**
+ * Graph of the supertypes ({@code extendsFrom()} and {@code implementsFrom()}) and permitted subtypes ({@code permits()}) of the
+ * classes read by {@link org.jid.metajava.MetaJava}, nested classes included.
+ * <p>
+ * Type names are resolved to fully qualified names like javac does: classes nested in the enclosing classes or inherited by them,
+ * single type and static imports, classes of the same package, on demand imports and {@code java.lang}. Supertypes that are not in
+ * the graph, like {@code java.io.Serializable}, are nodes without a {@link ClassMeta}: the ones of the JDK are resolved with the
+ * classes of the running JVM and the rest are expected in the same package. Only the declared supertypes are included, not the
+ * implicit ones ({@code Object}, {@code Enum} or {@code Record}).
+ * <p>
+ * The model splits the supertypes on commas, type arguments included ({@code BiFunction<T, U, R>} is read as {@code BiFunction<T},
+ * {@code U} and {@code R>}). Type arguments cut from their type are ignored, but the ones in the middle are only ignored when they
+ * can't be resolved.
+ * <p>
+ * Every type is a node with an id. The supertypes of a node are an array of ids, its subtypes a list of ids, and transitive queries
+ * walk them marking the visited nodes in a {@link BitSet}. Classes can be added and removed afterward: the names looked up in the
+ * graph to resolve the types of every class are indexed, and only the classes that looked up the added or removed ones are resolved
+ * again. Not thread safe.
+ */
+public class TypeHierarchy {
+
+  private static final int[] NO_IDS = new int[0];
+
+  private final Map<String, Integer> nodeIdsByName = new HashMap<>();
+  private final List<String> names = new ArrayList<>();
+  // Null for types that are not in the graph
+  private final List<ClassMeta> classes = new ArrayList<>();
+  private final List<String> compilationUnitPackages = new ArrayList<>();
+  private final List<int[]> supertypeIds = new ArrayList<>();
+  private final List<int[]> permittedIds = new ArrayList<>();
+  private final List<IntList> subtypeIds = new ArrayList<>();
+  // Names looked up in the graph to resolve the types of each class, and the classes that looked up each name
+  private final List<Set<String>> lookedUpNames = new ArrayList<>();
+  private final Map<String, Set<Integer>> dependentIdsByName = new HashMap<>();
+  private final Map<String, Optional<Class<?>>> jdkClasses = new HashMap<>();
+
+  /**
+   * @param classes Top level classes, like the ones returned by {@link org.jid.metajava.MetaJava#getMetaFrom(Collection)}
+   */
+  public TypeHierarchy(Collection<ClassMeta> classes) {
+    addClasses(classes);
+  }
+
+  /**
+   * Adds top level classes, and their nested classes, to the graph. A class with the same fully qualified name as one already in
+   * the graph replaces it.
+   */
+  public void add(Collection<ClassMeta> classes) {
+    addClasses(classes);
+  }
+
+  /**
+   * Removes top level classes, and their nested classes, from the graph. Types still used as supertypes by other classes are kept,
+   * without {@link ClassMeta}.
+   */
+  public void remove(Collection<ClassMeta> classes) {
+    validateClasses(classes);
+
+    Set<Integer> removedIds = new LinkedHashSet<>();
+    classes.forEach(classMeta -> removeClass(classMeta, removedIds));
+    Set<Integer> affectedIds = new LinkedHashSet<>();
+    removedIds.forEach(id -> {
+      compilationUnitPackages.set(id, null);
+      unlink(id);
+      forEach(subtypeIds.get(id), affectedIds::add);
+    });
+
+    affectedIds.addAll(getIdsToResolveAgain(removedIds));
+    link(affectedIds);
+  }
+
+  /**
+   * @param fullyQualifiedName Package and name of the class, like {@code org.jid.Outer.Nested} for nested classes
+   */
+  public Optional<ClassMeta> findClass(String fullyQualifiedName) {
+    Integer id = nodeIdsByName.get(fullyQualifiedName);
+    return id == null ? Optional.empty() : Optional.ofNullable(classes.get(id));
+  }
+
+  /**
+   * @return Fully qualified names of the declared supertypes, in or out of the graph
+   */
+  public List<String> findDirectSupertypes(String fullyQualifiedName) {
+    return namesOf(supertypesOf(fullyQualifiedName));
+  }
+
+  /**
+   * @return Fully qualified names of the supertypes, the ones of the supertypes, and so on
+   */
+  public List<String> findAllSupertypes(String fullyQualifiedName) {
+    return namesOf(walk(fullyQualifiedName, supertypeIds::get));
+  }
+
+  public List<ClassMeta> findDirectSubtypes(String fullyQualifiedName) {
+    Integer id = nodeIdsByName.get(fullyQualifiedName);
+    return id == null ? List.of() : classesOf(subtypeIds.get(id).toArray());
+  }
+
+  /**
+   * @return The subtypes, the ones of the subtypes, and so on
+   */
+  public List<ClassMeta> findAllSubtypes(String fullyQualifiedName) {
+    return classesOf(walk(fullyQualifiedName, id -> subtypeIds.get(id).toArray()));
+  }
+
+  /**
+   * @return The permitted subtypes of the sealed class or interface, and the ones of its sealed subtypes, and so on. When there is
+   * no permits clause, the permitted subtypes are the ones in the same source file, like javac does.
+   */
+  public List<ClassMeta> findSealedHierarchy(String fullyQualifiedName) {
+    return classesOf(walk(fullyQualifiedName, this::permittedSubtypesOf));
+  }
+
+  private void addClasses(Collection<ClassMeta> classes) {
+    validateClasses(classes);
+
+    Set<Integer> addedIds = new LinkedHashSet<>();
+    classes.forEach(classMeta -> addClass(classMeta, classMeta.packageName(), addedIds));
+
+    Set<Integer> affectedIds = new LinkedHashSet<>(addedIds);
+    affectedIds.addAll(getIdsToResolveAgain(addedIds));
+    link(affectedIds);
+  }
+
+  private int[] supertypesOf(String fullyQualifiedName) {
+    Integer id = nodeIdsByName.get(fullyQualifiedName);
+    return id == null ? NO_IDS : supertypeIds.get(id);
+  }
+
+  private int[] permittedSubtypesOf(int id) {
+    ClassMeta classMeta = classes.get(id);
+    if (classMeta == null || !classMeta.modifiers().contains(Modifier.SEALED)) {
+      return NO_IDS;
+    }
+    if (permittedIds.get(id).length > 0) {
+      return permittedIds.get(id);
+    }
+    var sameFileSubtypes = new IntList();
+    forEach(subtypeIds.get(id), subtypeId -> {
+      if (classMeta.sourceFileUri().equals(classes.get(subtypeId).sourceFileUri())) {
+        sameFileSubtypes.add(subtypeId);
+      }
+    });
+    return sameFileSubtypes.toArray();
+  }
+
+  // Ids of the nodes reachable from the given one, without it, in breadth first order
+  private int[] walk(String fullyQualifiedName, IntFunction<int[]> edges) {
+    Integer startId = nodeIdsByName.get(fullyQualifiedName);
+    return startId == null ? NO_IDS : walk(startId, edges);
+  }
+
+  private int[] walk(int startId, IntFunction<int[]> edges) {
+    var visited = new BitSet(names.size());
+    visited.set(startId);
+    var reached = new IntList();
+    var pending = new IntList();
+    for (int id : edges.apply(startId)) {
+      pending.add(id);
+    }
+    for (int i = 0; i < pending.size(); i++) {
+      int id = pending.get(i);
+      if (visited.get(id)) {
+        continue;
+      }
+      visited.set(id);
+      reached.add(id);
+      for (int edge : edges.apply(id)) {
+        if (!visited.get(edge)) {
+          pending.add(edge);
+        }
+      }
+    }
+    return reached.toArray();
+  }
+
+  private void addClass(ClassMeta classMeta, String compilationUnitPackage, Set<Integer> addedIds) {
+    int id = getOrCreateNode(fullyQualifiedName(classMeta));
+    if (classes.get(id) != null) {
+      unlink(id);
+    }
+    classes.set(id, classMeta);
+    compilationUnitPackages.set(id, compilationUnitPackage);
+    addedIds.add(id);
+    classMeta.nestedClasses().forEach(nestedClass -> addClass(nestedClass, compilationUnitPackage, addedIds));
+  }
+
+  private void removeClass(ClassMeta classMeta, Set<Integer> removedIds) {
+    Integer id = nodeIdsByName.get(fullyQualifiedName(classMeta));
+    if (id != null && classMeta.equals(classes.get(id))) {
+      classes.set(id, null);
+      removedIds.add(id);
+    }
+    classMeta.nestedClasses().forEach(nestedClass -> removeClass(nestedClass, removedIds));
+  }
+
+  /**
+   * Classes whose types may be resolved to other classes now: the ones that looked up the names of the added or removed classes.
+   */
+  private Set<Integer> getIdsToResolveAgain(Set<Integer> changedIds) {
+    Set<Integer> ids = new LinkedHashSet<>();
+    changedIds.forEach(id -> ids.addAll(dependentIdsByName.getOrDefault(names.get(id), Set.of())));
+    return ids;
+  }
+
+  private void link(Set<Integer> ids) {
+    Set<Integer> linkedIds = new HashSet<>();
+    Set<Integer> pendingIds = ids;
+    while (!pendingIds.isEmpty()) {
+      // Enclosing classes first: the types inherited by them are in scope in their nested classes
+      List<Integer> sortedIds = pendingIds.stream()
+        .sorted(Comparator.comparingInt(id -> names.get(id).length()))
+        .toList();
+      Set<Integer> changedIds = new LinkedHashSet<>();
+      for (int id : sortedIds) {
+        linkedIds.add(id);
+        if (link(id)) {
+          changedIds.add(id);
+        }
+      }
+      // The member types inherited through the classes whose supertypes changed may be others
+      pendingIds = getIdsToResolveAgain(changedIds);
+      pendingIds.removeAll(linkedIds);
+    }
+  }
+
+  /**
+   * @return true when the supertypes of the class changed
+   */
+  private boolean link(int id) {
+    int[] previousSupertypes = supertypeIds.get(id);
+    unlink(id);
+    ClassMeta classMeta = classes.get(id);
+    if (classMeta == null) {
+      return previousSupertypes.length > 0;
+    }
+    boolean typeArgumentsSplit = Stream.concat(classMeta.extendsFrom().stream(), classMeta.implementsFrom().stream())
+      .anyMatch(typeName -> typeName.indexOf('<') >= 0 && typeName.indexOf('>') < 0);
+    var supertypes = new IntList();
+    classMeta.extendsFrom().forEach(typeName -> resolveNode(typeName, id, typeArgumentsSplit, supertypes));
+    classMeta.implementsFrom().forEach(typeName -> resolveNode(typeName, id, typeArgumentsSplit, supertypes));
+    int[] supertypesOfClass = supertypes.toArray();
+    supertypeIds.set(id, supertypesOfClass);
+    for (int supertypeId : supertypesOfClass) {
+      subtypeIds.get(supertypeId).add(id);
+    }
+    var permitted = new IntList();
+    classMeta.permits().forEach(typeName -> resolveNode(typeName, id, false, permitted));
+    permittedIds.set(id, permitted.toArray());
+    return !Arrays.equals(previousSupertypes, supertypesOfClass);
+  }
+
+  private void unlink(int id) {
+    for (int supertypeId : supertypeIds.get(id)) {
+      subtypeIds.get(supertypeId).removeValue(id);
+    }
+    supertypeIds.set(id, NO_IDS);
+    permittedIds.set(id, NO_IDS);
+    for (String name : lookedUpNames.get(id)) {
+      Set<Integer> dependentIds = dependentIdsByName.get(name);
+      dependentIds.remove(id);
+      if (dependentIds.isEmpty()) {
+        dependentIdsByName.remove(name);
+      }
+    }
+    lookedUpNames.get(id).clear();
+  }
+
+  private void resolveNode(String typeName, int ownerId, boolean typeArgumentsSplit, IntList ids) {
+    String resolvedName = resolve(typeName, ownerId, typeArgumentsSplit);
+    if (resolvedName != null) {
+      int id = getOrCreateNode(resolvedName);
+      if (id != ownerId) {
+        ids.addIfNotLast(id);
+      }
+    }
+  }
+
+  /**
+   * @param typeArgumentsSplit True when some of the types of the same clause have been split by a comma of their type arguments
+   * @return The fully qualified name of the type, without type arguments, or null for the type arguments that are split from their
+   * type in the model (like {@code Integer>} in {@code Map<String, Integer>})
+   */
+  private String resolve(String typeName, int ownerId, boolean typeArgumentsSplit) {
+    int typeArgumentsStart = typeName.indexOf('<');
+    if (typeArgumentsStart < 0 && typeName.indexOf('>') >= 0) {
+      return null;
+    }
+    String rawName = eraseTypeArguments(typeName);
+    if (rawName.isEmpty()) {
+      return null;
+    }
+
+    int firstDot = rawName.indexOf('.');
+    String firstName = firstDot < 0 ? rawName : rawName.substring(0, firstDot);
+    String resolvedFirstName = resolveSimpleName(firstName, ownerId);
+    if (resolvedFirstName != null) {
+      return firstDot < 0 ? resolvedFirstName : resolvedFirstName + rawName.substring(firstDot);
+    }
+    if (firstDot >= 0) {
+      // Already fully qualified
+      return rawName;
+    }
+    if (typeArgumentsSplit && typeArgumentsStart < 0) {
+      // Probably a type argument in the middle of a split type
+      return null;
+    }
+    String compilationUnitPackage = compilationUnitPackages.get(ownerId);
+    return compilationUnitPackage.isEmpty() ? rawName : compilationUnitPackage + "." + rawName;
+  }
+
+  // Keeps the text out of the angle brackets: Outer<A, B>.Inner<C> is Outer.Inner
+  private static String eraseTypeArguments(String typeName) {
+    var rawName = new StringBuilder(typeName.length());
+    int depth = 0;
+    for (int i = 0; i < typeName.length(); i++) {
+      char c = typeName.charAt(i);
+      if (c == '<') {
+        depth++;
+      } else if (c == '>') {
+        depth--;
+      } else if (depth == 0 && !Character.isWhitespace(c)) {
+        rawName.append(c);
+      }
+    }
+    return rawName.toString();
+  }
+
+  private String resolveSimpleName(String simpleName, int ownerId) {
+    String compilationUnitPackage = compilationUnitPackages.get(ownerId);
+    // Classes nested in the class and in its enclosing classes, or inherited by them
+    String scope = names.get(ownerId);
+    while (scope.length() > compilationUnitPackage.length()) {
+      Integer scopeId = lookUpNode(scope, ownerId);
+      String memberType = scopeId == null ? null : findMemberType(scopeId, simpleName, ownerId);
+      if (memberType != null) {
+        return memberType;
+      }
+      scope = scope.substring(0, Math.max(0, scope.lastIndexOf('.')));
+    }
+
+    Set<ImportMeta> imports = classes.get(ownerId).imports();
+    // Static imports import member types too
+    for (ImportMeta importMeta : imports) {
+      if (importMeta.importString().endsWith("." + simpleName)) {
+        return importMeta.importString();
+      }
+    }
+    String samePackageName = compilationUnitPackage.isEmpty() ? simpleName : compilationUnitPackage + "." + simpleName;
+    if (isInGraph(samePackageName, ownerId)) {
+      return samePackageName;
+    }
+    List<String> onDemandNames = new ArrayList<>();
+    for (ImportMeta importMeta : imports) {
+      if (importMeta.importString().endsWith(".*")) {
+        String importedName = importMeta.importString().substring(0, importMeta.importString().length() - 2);
+        String memberType = importMeta.isStatic() ? findImportedMemberType(importedName, simpleName, ownerId) : null;
+        if (memberType != null) {
+          return memberType;
+        }
+        onDemandNames.add(importedName + "." + simpleName);
+      }
+    }
+    onDemandNames.add("java.lang." + simpleName);
+    for (String onDemandName : onDemandNames) {
+      if (isInGraph(onDemandName, ownerId)) {
+        return onDemandName;
+      }
+    }
+    for (String onDemandName : onDemandNames) {
+      if (findJdkClass(onDemandName).isPresent()) {
+        return onDemandName;
+      }
+    }
+    return null;
+  }
+
+  private String findMemberType(int classId, String simpleName, int ownerId) {
+    String declared = names.get(classId) + "." + simpleName;
+    if (isInGraph(declared, ownerId)) {
+      return declared;
+    }
+    for (int supertypeId : walk(classId, supertypeIds::get)) {
+      // The supertypes of the walked classes change when they are replaced
+      lookUpNode(names.get(supertypeId), ownerId);
+      String inherited = names.get(supertypeId) + "." + simpleName;
+      if (isInGraph(inherited, ownerId)) {
+        return inherited;
+      }
+      if (classes.get(supertypeId) == null) {
+        String jdkInherited = findJdkMemberType(names.get(supertypeId), simpleName);
+        if (jdkInherited != null) {
+          return jdkInherited;
+        }
+      }
+    }
+    return null;
+  }
+
+  private String findImportedMemberType(String fullyQualifiedName, String simpleName, int ownerId) {
+    Integer classId = lookUpNode(fullyQualifiedName, ownerId);
+    if (classId != null && classes.get(classId) != null) {
+      return findMemberType(classId, simpleName, ownerId);
+    }
+    return findJdkMemberType(fullyQualifiedName, simpleName);
+  }
+
+  private String findJdkMemberType(String fullyQualifiedName, String simpleName) {
+    Optional<Class<?>> jdkClass = findJdkClass(fullyQualifiedName);
+    if (jdkClass.isEmpty()) {
+      return null;
+    }
+    List<Class<?>> pending = new ArrayList<>(List.of(jdkClass.get()));
+    for (int i = 0; i < pending.size(); i++) {
+      Class<?> type = pending.get(i);
+      if (findJdkClass(type.getName() + "$" + simpleName).isPresent()) {
+        return type.getName().replace('$', '.') + "." + simpleName;
+      }
+      if (type.getSuperclass() != null) {
+        pending.add(type.getSuperclass());
+      }
+      pending.addAll(List.of(type.getInterfaces()));
+    }
+    return null;
+  }
+
+  private boolean isInGraph(String fullyQualifiedName, int dependentId) {
+    Integer id = lookUpNode(fullyQualifiedName, dependentId);
+    return id != null && classes.get(id) != null;
+  }
+
+  /**
+   * Finds the node and records that the types of the dependent class are resolved again when a class with that name is added or
+   * removed.
+   */
+  private Integer lookUpNode(String fullyQualifiedName, int dependentId) {
+    if (lookedUpNames.get(dependentId).add(fullyQualifiedName)) {
+      dependentIdsByName.computeIfAbsent(fullyQualifiedName, name -> new HashSet<>()).add(dependentId);
+    }
+    return nodeIdsByName.get(fullyQualifiedName);
+  }
+
+  /**
+   * @param name Fully qualified or binary name. The dots between nested classes are replaced by the {@code $} of binary names.
+   */
+  private Optional<Class<?>> findJdkClass(String name) {
+    Optional<Class<?>> jdkClass = jdkClasses.get(name);
+    if (jdkClass == null) {
+      jdkClass = Optional.empty();
+      String binaryName = name;
+      for (int nesting = 0; nesting < 3 && jdkClass.isEmpty() && binaryName.indexOf('.') >= 0; nesting++) {
+        jdkClass = loadJdkClass(binaryName);
+        int lastDot = binaryName.lastIndexOf('.');
+        binaryName = binaryName.substring(0, lastDot) + "$" + binaryName.substring(lastDot + 1);
+      }
+      jdkClasses.put(name, jdkClass);
+    }
+    return jdkClass;
+  }
+
+  private static Optional<Class<?>> loadJdkClass(String binaryName) {
+    try {
+      return Optional.of(Class.forName(binaryName, false, ClassLoader.getPlatformClassLoader()));
+    } catch (ClassNotFoundException | LinkageError e) {
+      return Optional.empty();
+    }
+  }
+
+  private int getOrCreateNode(String fullyQualifiedName) {
+    Integer id = nodeIdsByName.get(fullyQualifiedName);
+    if (id != null) {
+      return id;
+    }
+    int newId = names.size();
+    nodeIdsByName.put(fullyQualifiedName, newId);
+    names.add(fullyQualifiedName);
+    classes.add(null);
+    compilationUnitPackages.add(null);
+    supertypeIds.add(NO_IDS);
+    permittedIds.add(NO_IDS);
+    subtypeIds.add(new IntList());
+    lookedUpNames.add(new HashSet<>());
+    return newId;
+  }
+
+  private List<String> namesOf(int[] ids) {
+    List<String> result = new ArrayList<>(ids.length);
+    for (int id : ids) {
+      result.add(names.get(id));
+    }
+    return result;
+  }
+
+  private List<ClassMeta> classesOf(int[] ids) {
+    List<ClassMeta> result = new ArrayList<>(ids.length);
+    for (int id : ids) {
+      if (classes.get(id) != null) {
+        result.add(classes.get(id));
+      }
+    }
+    return result;
+  }
+
+  private static void forEach(IntList ids, IntConsumer action) {
+    for (int i = 0; i < ids.size(); i++) {
+      action.accept(ids.get(i));
+    }
+  }
+
+  private static String fullyQualifiedName(ClassMeta classMeta) {
+    return MetaIndex.fullyQualifiedName(classMeta);
+  }
+
+  private static void validateClasses(Collection<ClassMeta> classes) {
+    if (classes == null) {
+      throw new IllegalArgumentException("ERROR: Parameter classes is null");
+    }
+  }
+
+}
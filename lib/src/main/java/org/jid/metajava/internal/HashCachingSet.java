@@ -0,0 +1,83 @@
+package org.jid.metajava.internal;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Unmodifiable view of a set that computes its hash code only once. The hash code of a set of classes or members goes through the
+ * whole tree below them; once the sets of a class cache it, the hash code of the class only combines the ones of its components.
+ * <p>
+ * Equal sets whose hash codes are cached are compared element by element, but different hash codes tell they are different
+ * without going through their elements. The hash code is computed as {@link String#hashCode()} does: thread safe without locks.
+ */
+final class HashCachingSet<E> extends AbstractSet<E> {
+
+  private final Set<E> elements;
+  private int hash;
+  private boolean hashIsZero;
+
+  private HashCachingSet(Set<E> elements) {
+    this.elements = elements;
+  }
+
+  /**
+   * @param set Set that nobody modifies anymore
+   * @return The same set when it already caches its hash code. Otherwise, a view of the set.
+   */
+  static <E> Set<E> of(Set<E> set) {
+    return set instanceof HashCachingSet<E> ? set : new HashCachingSet<>(set);
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    Iterator<E> iterator = elements.iterator();
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public E next() {
+        return iterator.next();
+      }
+    };
+  }
+
+  @Override
+  public int size() {
+    return elements.size();
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return elements.contains(o);
+  }
+
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0 && !hashIsZero) {
+      h = elements.hashCode();
+      if (h == 0) {
+        hashIsZero = true;
+      } else {
+        hash = h;
+      }
+    }
+    return h;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof HashCachingSet<?> other && other.hashCode() != hashCode()) {
+      return false;
+    }
+    return super.equals(o);
+  }
+
+}
@@ -0,0 +1,155 @@
+package org.jid.metajava.internal;
+
+import static java.util.Collections.unmodifiableSet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SequencedCollection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+import org.jid.metajava.model.AnnotationArgument;
+import org.jid.metajava.model.AnnotationMeta;
+import org.jid.metajava.model.ClassMeta;
+import org.jid.metajava.model.ImportMeta;
+import org.jid.metajava.model.MethodMeta;
+import org.jid.metajava.model.VariableMeta;
+
+/**
+ * Returns a single shared instance for equal strings and immutable model objects, so that repeated names, types, annotations and
+ * classes are kept only once in memory. Thread safe.
+ * <p>
+ * The extraction and the readers canonicalize the strings, annotations, imports and modifier sets they create: values whose hash
+ * code is cheap to compute. Classes and members are canonicalized only by {@link #intern(ClassMeta)}, that canonicalizes their
+ * parts first, so that their hash code only combines the ones of their parts.
+ */
+public class MetaCanonicalizer {
+
+  private final Map<Object, Object> canonicals = new ConcurrentHashMap<>();
+
+  public String intern(String value) {
+    return value == null ? null : canonical(value);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T canonical(T value) {
+    Object canonical = canonicals.putIfAbsent(value, value);
+    return canonical == null ? value : (T) canonical;
+  }
+
+  /**
+   * @param set Unmodifiable set that won't be modified by the caller
+   * @return The shared instance, that caches its hash code
+   */
+  public <E> Set<E> canonicalSet(Set<E> set) {
+    return set.isEmpty() ? Set.of() : canonical(HashCachingSet.of(set));
+  }
+
+  /**
+   * Interns the class and everything it's made of: equal classes interned by the same instance are the same instance, and the sets
+   * of interned elements are compared without going through the elements below them. Lazy members are read.
+   */
+  public ClassMeta intern(ClassMeta classMeta) {
+    if (classMeta == null) {
+      return null;
+    }
+    ClassMeta existing = get(classMeta);
+    if (existing != null) {
+      return existing;
+    }
+    return canonical(new ClassMeta(intern(classMeta.name()), classMeta.type(), internSet(classMeta.methods(), this::intern),
+      internSet(classMeta.annotations(), this::intern), intern(classMeta.packageName()), intern(classMeta.sourceFileUri()),
+      internSet(classMeta.imports(), this::intern), internSet(classMeta.extendsFrom(), this::intern),
+      internSet(classMeta.implementsFrom(), this::intern), internSet(classMeta.fields(), this::intern),
+      internSet(classMeta.constructors(), this::intern), internSet(classMeta.nestedClasses(), this::intern),
+      internSet(classMeta.modifiers(), UnaryOperator.identity()), internSet(classMeta.permits(), this::intern)));
+  }
+
+  /**
+   * @return Unmodifiable set of the interned classes
+   */
+  public Set<ClassMeta> internAll(Collection<ClassMeta> classes) {
+    var interned = HashSet.<ClassMeta>newHashSet(classes.size());
+    classes.forEach(classMeta -> interned.add(intern(classMeta)));
+    return unmodifiableSet(interned);
+  }
+
+  /**
+   * @param set Unmodifiable set that won't be modified by the caller, like the members of a class
+   * @return The shared empty set when the set is empty. Otherwise, a view of the set that caches its hash code.
+   */
+  public static <E> Set<E> hashCaching(Set<E> set) {
+    return set.isEmpty() ? Set.of() : HashCachingSet.of(set);
+  }
+
+  /**
+   * @return The shared empty list when the list is empty. Otherwise, the same list.
+   */
+  public static <E> List<E> emptyIfEmpty(List<E> list) {
+    return list.isEmpty() ? List.of() : list;
+  }
+
+  private MethodMeta intern(MethodMeta methodMeta) {
+    MethodMeta existing = get(methodMeta);
+    if (existing != null) {
+      return existing;
+    }
+    return canonical(new MethodMeta(intern(methodMeta.name()), intern(methodMeta.returnType()), internParams(methodMeta.params()),
+      internSet(methodMeta.exceptions(), this::intern), internSet(methodMeta.modifiers(), UnaryOperator.identity()),
+      internSet(methodMeta.annotations(), this::intern)));
+  }
+
+  private VariableMeta intern(VariableMeta variableMeta) {
+    VariableMeta existing = get(variableMeta);
+    if (existing != null) {
+      return existing;
+    }
+    return canonical(new VariableMeta(intern(variableMeta.name()), intern(variableMeta.type()), intern(variableMeta.initializer()),
+      internSet(variableMeta.modifiers(), UnaryOperator.identity()), internSet(variableMeta.annotations(), this::intern)));
+  }
+
+  private AnnotationMeta intern(AnnotationMeta annotationMeta) {
+    AnnotationMeta existing = get(annotationMeta);
+    if (existing != null) {
+      return existing;
+    }
+    return canonical(new AnnotationMeta(intern(annotationMeta.name()), internSet(annotationMeta.args(), this::intern)));
+  }
+
+  private AnnotationArgument intern(AnnotationArgument arg) {
+    // Arguments that are not literals, member selects or assignments are null
+    return arg == null ? null : canonical(new AnnotationArgument(intern(arg.name()), intern(arg.value())));
+  }
+
+  private ImportMeta intern(ImportMeta importMeta) {
+    return canonical(new ImportMeta(intern(importMeta.importString()), importMeta.isStatic()));
+  }
+
+  private SequencedCollection<VariableMeta> internParams(SequencedCollection<VariableMeta> params) {
+    if (params.isEmpty()) {
+      return List.of();
+    }
+    List<VariableMeta> interned = new ArrayList<>(params.size());
+    params.forEach(param -> interned.add(intern(param)));
+    return canonical(List.copyOf(interned));
+  }
+
+  private <E> Set<E> internSet(Set<E> set, UnaryOperator<E> internElement) {
+    if (set.isEmpty()) {
+      return Set.of();
+    }
+    // Not Set.copyOf(): annotation arguments may be null
+    var interned = HashSet.<E>newHashSet(set.size());
+    set.forEach(element -> interned.add(internElement.apply(element)));
+    return canonicalSet(unmodifiableSet(interned));
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T get(T value) {
+    return (T) canonicals.get(value);
+  }
+
+}
@@ -0,0 +1,46 @@
+package org.jid.metajava.internal;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Runs the tasks of the parallel operations of the library (extraction, indexing and diff) in a fork join pool of their own.
+ */
+public final class ParallelTasks {
+
+  // More partitions than workers so that idle workers can steal the pending ones from busy workers
+  private static final int PARTITIONS_PER_WORKER = 4;
+
+  private ParallelTasks() {
+  }
+
+  /**
+   * @return How many partitions to split the work of {@code parallelism} workers into
+   */
+  public static int numPartitions(int parallelism) {
+    return parallelism * PARTITIONS_PER_WORKER;
+  }
+
+  /**
+   * Runs the tasks with, at most, {@code parallelism} threads: in the calling thread when it's 1 or there is only one task.
+   *
+   * @return The results of the tasks, in the same order
+   */
+  public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks, int parallelism) {
+    List<ForkJoinTask<T>> forkJoinTasks = tasks.stream().<ForkJoinTask<T>>map(ForkJoinTask::adapt).toList();
+    if (parallelism == 1 || forkJoinTasks.size() < 2) {
+      forkJoinTasks.forEach(ForkJoinTask::invoke);
+    } else {
+      var pool = new ForkJoinPool(parallelism);
+      try {
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(forkJoinTasks)));
+      } finally {
+        pool.shutdown();
+      }
+    }
+    return forkJoinTasks.stream().map(ForkJoinTask::join).toList();
+  }
+
+}
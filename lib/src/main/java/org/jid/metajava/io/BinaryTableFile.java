@@ -0,0 +1,57 @@
+package org.jid.metajava.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * {@link ColumnarFormat#BINARY}
+ */
+class BinaryTableFile implements TableFile {
+
+  static final int MAGIC = 0x4D4A434F; // "MJCO"
+  static final int FORMAT_VERSION = 1;
+
+  private final DataOutputStream out;
+
+  BinaryTableFile(OutputStream out, List<String> columnNames) throws IOException {
+    this.out = new DataOutputStream(new BufferedOutputStream(out));
+    this.out.writeInt(MAGIC);
+    this.out.writeInt(FORMAT_VERSION);
+    this.out.writeInt(columnNames.size());
+    for (String columnName : columnNames) {
+      this.out.writeUTF(columnName);
+    }
+  }
+
+  @Override
+  public void writeRows(int[][] columns, int rows) throws IOException {
+    out.writeInt(rows);
+    for (int[] column : columns) {
+      for (int row = 0; row < rows; row++) {
+        out.writeInt(column[row]);
+      }
+    }
+  }
+
+  @Override
+  public void writeStrings(List<String> strings, int firstId) throws IOException {
+    out.writeInt(strings.size());
+    for (String string : strings) {
+      byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    try (out) {
+      out.writeInt(0);
+    }
+  }
+
+}
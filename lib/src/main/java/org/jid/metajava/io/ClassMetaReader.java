@@ -0,0 +1,249 @@
+package org.jid.metajava.io;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+import static org.jid.metajava.io.ClassMetaWriter.FIRST_STRING_REFERENCE;
+import static org.jid.metajava.io.ClassMetaWriter.NEW_STRING;
+import static org.jid.metajava.io.ClassMetaWriter.NULL_STRING;
+import static org.jid.metajava.internal.MetaCanonicalizer.hashCaching;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.jid.metajava.internal.MetaCanonicalizer;
+import org.jid.metajava.model.AnnotationArgument;
+import org.jid.metajava.model.AnnotationMeta;
+import org.jid.metajava.model.ClassMeta;
+import org.jid.metajava.model.ClassType;
+import org.jid.metajava.model.ImportMeta;
+import org.jid.metajava.model.MethodMeta;
+import org.jid.metajava.model.Modifier;
+import org.jid.metajava.model.VariableMeta;
+
+/**
+ * Reads the {@link ClassMeta} written by {@link ClassMetaWriter}.
+ */
+public class ClassMetaReader implements Closeable {
+
+  private static final ClassType[] CLASS_TYPES = ClassType.values();
+  private static final Modifier[] MODIFIERS = Modifier.values();
+  private static final int MAX_INITIAL_SIZE = 1024;
+
+  private final DataInputStream in;
+  private final List<String> stringTable = new ArrayList<>();
+  // Equal small values read only once, like the strings of the string table
+  private final MetaCanonicalizer canonicalizer = new MetaCanonicalizer();
+
+  public ClassMetaReader(InputStream in) {
+    this.in = new DataInputStream(new BufferedInputStream(in));
+  }
+
+  public ClassMeta read() throws IOException {
+    String name = readString();
+    ClassType type = CLASS_TYPES[checkIndex(in.readUnsignedByte(), CLASS_TYPES.length)];
+    Set<MethodMeta> methods = readMethods();
+    Set<AnnotationMeta> annotations = readAnnotations();
+    String packageName = readString();
+    String sourceFileUri = readString();
+    int numImports = readVarInt();
+    var imports = new HashSet<ImportMeta>(hashCapacity(numImports));
+    for (int i = 0; i < numImports; i++) {
+      imports.add(canonicalizer.canonical(new ImportMeta(readString(), in.readBoolean())));
+    }
+    Set<String> extendsFrom = readStrings();
+    Set<String> implementsFrom = readStrings();
+    Set<VariableMeta> fields = hashCaching(unmodifiableSet(readVariables(new HashSet<>())));
+    Set<MethodMeta> constructors = readMethods();
+    int numNestedClasses = readVarInt();
+    var nestedClasses = new HashSet<ClassMeta>(hashCapacity(numNestedClasses));
+    for (int i = 0; i < numNestedClasses; i++) {
+      nestedClasses.add(read());
+    }
+    Set<Modifier> modifiers = readModifiers();
+    Set<String> permits = readStrings();
+
+    return new ClassMeta(name, type, methods, annotations, packageName, sourceFileUri,
+      canonicalizer.canonicalSet(unmodifiableSet(imports)), extendsFrom, implementsFrom, fields, constructors,
+      hashCaching(unmodifiableSet(nestedClasses)), modifiers, permits);
+  }
+
+  public Set<ClassMeta> readAll() throws IOException {
+    int numClasses = readVarInt();
+    var classes = new HashSet<ClassMeta>(hashCapacity(numClasses));
+    for (int i = 0; i < numClasses; i++) {
+      classes.add(read());
+    }
+    return classes;
+  }
+
+  boolean readHasNext() throws IOException {
+    return in.readBoolean();
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+  private Set<MethodMeta> readMethods() throws IOException {
+    int numMethods = readVarInt();
+    var methods = new HashSet<MethodMeta>(hashCapacity(numMethods));
+    for (int i = 0; i < numMethods; i++) {
+      String name = readString();
+      String returnType = readString();
+      List<VariableMeta> params = unmodifiableList(readVariables(new ArrayList<>()));
+      Set<String> exceptions = readStrings();
+      Set<Modifier> modifiers = readModifiers();
+      Set<AnnotationMeta> annotations = readAnnotations();
+      methods.add(new MethodMeta(name, returnType, params, exceptions, modifiers, annotations));
+    }
+    return hashCaching(unmodifiableSet(methods));
+  }
+
+  private <C extends Collection<VariableMeta>> C readVariables(C variables) throws IOException {
+    int numVariables = readVarInt();
+    for (int i = 0; i < numVariables; i++) {
+      String name = readString();
+      String type = readString();
+      String initializer = readString();
+      Set<Modifier> modifiers = readModifiers();
+      Set<AnnotationMeta> annotations = readAnnotations();
+      variables.add(new VariableMeta(name, type, initializer, modifiers, annotations));
+    }
+    return variables;
+  }
+
+  private Set<AnnotationMeta> readAnnotations() throws IOException {
+    int numAnnotations = readVarInt();
+    if (numAnnotations == 0) {
+      return Set.of();
+    }
+    var annotations = new HashSet<AnnotationMeta>(hashCapacity(numAnnotations));
+    for (int i = 0; i < numAnnotations; i++) {
+      String name = readString();
+      int numArgs = readVarInt();
+      var args = new HashSet<AnnotationArgument>(hashCapacity(numArgs));
+      for (int j = 0; j < numArgs; j++) {
+        args.add(in.readBoolean() ? new AnnotationArgument(readString(), readString()) : null);
+      }
+      annotations.add(canonicalizer.canonical(new AnnotationMeta(name, unmodifiableSet(args))));
+    }
+    return canonicalizer.canonicalSet(unmodifiableSet(annotations));
+  }
+
+  private Set<Modifier> readModifiers() throws IOException {
+    int flags = readVarInt();
+    if (flags == 0) {
+      return Set.of();
+    }
+    var modifiers = EnumSet.noneOf(Modifier.class);
+    for (Modifier modifier : MODIFIERS) {
+      if ((flags & (1 << modifier.ordinal())) != 0) {
+        modifiers.add(modifier);
+      }
+    }
+    return canonicalizer.canonicalSet(unmodifiableSet(modifiers));
+  }
+
+  private Set<String> readStrings() throws IOException {
+    int numStrings = readVarInt();
+    if (numStrings == 0) {
+      return Set.of();
+    }
+    var strings = new HashSet<String>(hashCapacity(numStrings));
+    for (int i = 0; i < numStrings; i++) {
+      strings.add(readString());
+    }
+    return hashCaching(unmodifiableSet(strings));
+  }
+
+  private String readString() throws IOException {
+    int tag = readVarInt();
+    if (tag == NULL_STRING) {
+      return null;
+    }
+    if (tag >= FIRST_STRING_REFERENCE) {
+      return stringTable.get(checkIndex(tag - FIRST_STRING_REFERENCE, stringTable.size()));
+    }
+    if (tag != NEW_STRING) {
+      throw new IOException("Malformed string tag " + tag);
+    }
+
+    int length = checkIndex(readVarInt(), Integer.MAX_VALUE);
+    // Read in chunks instead of allocating the length first, so that a corrupt length fails when the data ends
+    byte[] bytes = in.readNBytes(length);
+    if (bytes.length < length) {
+      throw new EOFException("Malformed data: string of " + length + " bytes but only " + bytes.length + " left");
+    }
+    String string = new String(bytes, StandardCharsets.UTF_8);
+    // Unpaired surrogates are written as malformed UTF-8, that is decoded as U+FFFD
+    if (string.indexOf('\uFFFD') >= 0) {
+      string = decodeWithUnpairedSurrogates(bytes);
+    }
+    stringTable.add(string);
+    return string;
+  }
+
+  private static String decodeWithUnpairedSurrogates(byte[] bytes) throws IOException {
+    var string = new StringBuilder(bytes.length);
+    int i = 0;
+    while (i < bytes.length) {
+      int b = bytes[i] & 0xFF;
+      int length = b < 0x80 ? 1 : b < 0xC0 ? 0 : b < 0xE0 ? 2 : b < 0xF0 ? 3 : b < 0xF8 ? 4 : 0;
+      if (length == 0 || i + length > bytes.length) {
+        throw new IOException("Malformed string at byte " + i);
+      }
+      int codePoint = length == 1 ? b : b & (0x7F >> length);
+      for (int j = i + 1; j < i + length; j++) {
+        if ((bytes[j] & 0xC0) != 0x80) {
+          throw new IOException("Malformed string at byte " + j);
+        }
+        codePoint = codePoint << 6 | bytes[j] & 0x3F;
+      }
+      if (codePoint > Character.MAX_CODE_POINT) {
+        throw new IOException("Malformed string at byte " + i);
+      }
+      string.appendCodePoint(codePoint);
+      i += length;
+    }
+    return string.toString();
+  }
+
+  private int readVarInt() throws IOException {
+    int value = 0;
+    int shift = 0;
+    int b;
+    do {
+      if (shift > 28) {
+        throw new IOException("Malformed variable length integer");
+      }
+      b = in.readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+
+  private static int checkIndex(int index, int length) throws IOException {
+    if (index < 0 || index >= length) {
+      throw new IOException("Malformed data: index " + index + " out of bounds " + length);
+    }
+    return index;
+  }
+
+  private static int hashCapacity(int size) throws IOException {
+    // Sets grow while they are read, so that a corrupt size doesn't allocate more than the elements actually read
+    return (int) (Math.min(checkIndex(size, Integer.MAX_VALUE), MAX_INITIAL_SIZE) / 0.75f) + 1;
+  }
+
+}
@@ -0,0 +1,212 @@
+package org.jid.metajava.io;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.jid.metajava.model.AnnotationArgument;
+import org.jid.metajava.model.AnnotationMeta;
+import org.jid.metajava.model.ClassMeta;
+import org.jid.metajava.model.ImportMeta;
+import org.jid.metajava.model.MethodMeta;
+import org.jid.metajava.model.Modifier;
+import org.jid.metajava.model.VariableMeta;
+
+/**
+ * Writes {@link ClassMeta} in a compact binary form that can be read back with {@link ClassMetaReader}.
+ * <p>
+ * Every distinct string is written only once: the first time it appears it is added to a string table and the following times
+ * only its index in that table is written. The table is built while writing, so classes can be written (and read) one by one.
+ * Strings are written in UTF-8, but for their unpaired surrogates: they are written as if they were chars.
+ */
+public class ClassMetaWriter implements Closeable {
+
+  static final int NULL_STRING = 0;
+  static final int NEW_STRING = 1;
+  static final int FIRST_STRING_REFERENCE = 2;
+
+  private final DataOutputStream out;
+  private final Map<String, Integer> stringTable = new HashMap<>();
+
+  public ClassMetaWriter(OutputStream out) {
+    this.out = new DataOutputStream(new BufferedOutputStream(out));
+  }
+
+  public void write(ClassMeta classMeta) throws IOException {
+    writeString(classMeta.name());
+    out.writeByte(classMeta.type().ordinal());
+    writeMethods(classMeta.methods());
+    writeAnnotations(classMeta.annotations());
+    writeString(classMeta.packageName());
+    writeString(classMeta.sourceFileUri());
+    writeVarInt(classMeta.imports().size());
+    for (ImportMeta importMeta : classMeta.imports()) {
+      writeString(importMeta.importString());
+      out.writeBoolean(importMeta.isStatic());
+    }
+    writeStrings(classMeta.extendsFrom());
+    writeStrings(classMeta.implementsFrom());
+    writeVariables(classMeta.fields());
+    writeMethods(classMeta.constructors());
+    writeVarInt(classMeta.nestedClasses().size());
+    for (ClassMeta nestedClass : classMeta.nestedClasses()) {
+      write(nestedClass);
+    }
+    writeModifiers(classMeta.modifiers());
+    writeStrings(classMeta.permits());
+  }
+
+  public void writeAll(Collection<ClassMeta> classes) throws IOException {
+    writeVarInt(classes.size());
+    for (ClassMeta classMeta : classes) {
+      write(classMeta);
+    }
+  }
+
+  void writeHasNext(boolean hasNext) throws IOException {
+    out.writeBoolean(hasNext);
+  }
+
+  public void flush() throws IOException {
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    out.close();
+  }
+
+  private void writeMethods(Collection<MethodMeta> methods) throws IOException {
+    writeVarInt(methods.size());
+    for (MethodMeta method : methods) {
+      writeString(method.name());
+      writeString(method.returnType());
+      writeVariables(method.params());
+      writeStrings(method.exceptions());
+      writeModifiers(method.modifiers());
+      writeAnnotations(method.annotations());
+    }
+  }
+
+  private void writeVariables(Collection<VariableMeta> variables) throws IOException {
+    writeVarInt(variables.size());
+    for (VariableMeta variable : variables) {
+      writeString(variable.name());
+      writeString(variable.type());
+      writeString(variable.initializer());
+      writeModifiers(variable.modifiers());
+      writeAnnotations(variable.annotations());
+    }
+  }
+
+  private void writeAnnotations(Set<AnnotationMeta> annotations) throws IOException {
+    writeVarInt(annotations.size());
+    for (AnnotationMeta annotation : annotations) {
+      writeString(annotation.name());
+      writeVarInt(annotation.args().size());
+      for (AnnotationArgument arg : annotation.args()) {
+        // Arguments that are not literals, member selects or assignments are null
+        out.writeBoolean(arg != null);
+        if (arg != null) {
+          writeString(arg.name());
+          writeString(arg.value());
+        }
+      }
+    }
+  }
+
+  private void writeModifiers(Set<Modifier> modifiers) throws IOException {
+    int flags = 0;
+    for (Modifier modifier : modifiers) {
+      flags |= 1 << modifier.ordinal();
+    }
+    writeVarInt(flags);
+  }
+
+  private void writeStrings(Collection<String> strings) throws IOException {
+    writeVarInt(strings.size());
+    for (String string : strings) {
+      writeString(string);
+    }
+  }
+
+  private void writeString(String string) throws IOException {
+    if (string == null) {
+      writeVarInt(NULL_STRING);
+      return;
+    }
+
+    Integer index = stringTable.get(string);
+    if (index != null) {
+      writeVarInt(FIRST_STRING_REFERENCE + index);
+      return;
+    }
+
+    stringTable.put(string, stringTable.size());
+    byte[] bytes = encode(string);
+    writeVarInt(NEW_STRING);
+    writeVarInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * @return The string in UTF-8, except that unpaired surrogates, that UTF-8 can't encode, are encoded in 3 bytes like the other
+   * chars below U+10000, so that the string is read back as it was
+   */
+  private static byte[] encode(String string) {
+    if (!hasUnpairedSurrogates(string)) {
+      return string.getBytes(StandardCharsets.UTF_8);
+    }
+    var bytes = new ByteArrayOutputStream(string.length() * 3);
+    int i = 0;
+    while (i < string.length()) {
+      // Unpaired surrogates are returned as code points of their own
+      int codePoint = string.codePointAt(i);
+      i += Character.charCount(codePoint);
+      if (codePoint < 0x80) {
+        bytes.write(codePoint);
+      } else if (codePoint < 0x800) {
+        bytes.write(0xC0 | codePoint >> 6);
+        bytes.write(0x80 | codePoint & 0x3F);
+      } else if (codePoint < 0x10000) {
+        bytes.write(0xE0 | codePoint >> 12);
+        bytes.write(0x80 | codePoint >> 6 & 0x3F);
+        bytes.write(0x80 | codePoint & 0x3F);
+      } else {
+        bytes.write(0xF0 | codePoint >> 18);
+        bytes.write(0x80 | codePoint >> 12 & 0x3F);
+        bytes.write(0x80 | codePoint >> 6 & 0x3F);
+        bytes.write(0x80 | codePoint & 0x3F);
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static boolean hasUnpairedSurrogates(String string) {
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+      if (Character.isHighSurrogate(c) && i + 1 < string.length() && Character.isLowSurrogate(string.charAt(i + 1))) {
+        i++;
+      } else if (Character.isSurrogate(c)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void writeVarInt(int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+}
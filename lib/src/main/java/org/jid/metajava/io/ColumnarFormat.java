@@ -0,0 +1,39 @@
+package org.jid.metajava.io;
+
+/**
+ * File formats of the tables written by {@link ColumnarWriter}. Every column of a table, but the values of the string dictionary,
+ * is made of integers.
+ */
+public enum ColumnarFormat {
+
+  /**
+   * One {@code <table>.mjc} file per table. Integers are 4 bytes, big-endian.
+   * <ul>
+   *   <li>Header: magic number {@code "MJCO"}, format version and number of columns, followed by the name of every column (2 bytes
+   *   length and modified UTF-8, like {@link java.io.DataOutputStream#writeUTF(String)}).</li>
+   *   <li>Chunks: the number of rows of the chunk followed by the values of every column, one column after another, all the rows
+   *   of a column together. A chunk with 0 rows ends the file.</li>
+   * </ul>
+   * The string dictionary ({@code strings.mjc}) has the same header, with the columns {@code id} and {@code value}, but its chunks
+   * are the number of strings followed by every string: its length in bytes and its UTF-8 bytes. The id of every string is its
+   * position in the file, starting at 0.
+   */
+  BINARY("mjc"),
+
+  /**
+   * One {@code <table>.csv} file per table, with the column names in the first line. Null ids are empty values. The values of
+   * the string dictionary ({@code strings.csv}) are always quoted, with their quotes doubled.
+   */
+  CSV("csv");
+
+  private final String fileExtension;
+
+  ColumnarFormat(String fileExtension) {
+    this.fileExtension = fileExtension;
+  }
+
+  public String fileExtension() {
+    return fileExtension;
+  }
+
+}
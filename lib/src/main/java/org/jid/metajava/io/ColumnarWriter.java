@@ -0,0 +1,292 @@
+package org.jid.metajava.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jid.metajava.model.AnnotationArgument;
+import org.jid.metajava.model.AnnotationMeta;
+import org.jid.metajava.model.ClassMeta;
+import org.jid.metajava.model.ImportMeta;
+import org.jid.metajava.model.MethodMeta;
+import org.jid.metajava.model.Modifier;
+import org.jid.metajava.model.VariableMeta;
+
+/**
+ * Writes classes as a set of tables, one per entity, to be loaded by analytics tools (pandas, DuckDB, etc.). Classes are written
+ * one by one and the rows of every table are written in chunks, so that classes can be written while they are extracted, e.g.
+ * from {@link org.jid.metajava.MetaJava#streamMetaFrom(Collection)}, without keeping them in memory.
+ * <p>
+ * Every string is dictionary-encoded: its column has the id of the string in the {@code strings} table, or {@value #NULL_ID} for
+ * null. Enum values (class types, supertype kinds and annotation owner kinds) are strings too. Modifiers are a bit mask with the
+ * bit {@code 1 << Modifier.ordinal()} set for every modifier. Booleans are 0 or 1. Ids of the rows start at 0 in every table.
+ * <ul>
+ *   <li>{@code classes}: id, parent_class_id (of the enclosing class, {@value #NULL_ID} for top level classes), name, package_name,
+ *   type, source_file, modifiers</li>
+ *   <li>{@code supertypes}: class_id, kind (EXTENDS, IMPLEMENTS or PERMITS), name</li>
+ *   <li>{@code imports}: class_id, name, is_static</li>
+ *   <li>{@code methods}: id, class_id, name, return_type ({@value #NULL_ID} for constructors), is_constructor, modifiers</li>
+ *   <li>{@code exceptions}: method_id, type</li>
+ *   <li>{@code params}: id, method_id, position, name, type, modifiers</li>
+ *   <li>{@code fields}: id, class_id, name, type, initializer, modifiers</li>
+ *   <li>{@code annotations}: id, owner_kind (CLASS, METHOD, PARAM or FIELD), owner_id, name</li>
+ *   <li>{@code annotation_args}: annotation_id, name, value. Both are null for arguments that are not literals, member selects or
+ *   assignments.</li>
+ *   <li>{@code strings}: id, value</li>
+ * </ul>
+ * The tables are written to a directory, one file per table, in the given {@link ColumnarFormat}.
+ */
+public class ColumnarWriter implements Closeable {
+
+  public static final int NULL_ID = -1;
+
+  private static final int CHUNK_ROWS = 8192;
+
+  private final Table classes;
+  private final Table supertypes;
+  private final Table imports;
+  private final Table methods;
+  private final Table exceptions;
+  private final Table params;
+  private final Table fields;
+  private final Table annotations;
+  private final Table annotationArgs;
+  private final TableFile strings;
+  private final List<Table> tables = new ArrayList<>();
+
+  private final Map<String, Integer> stringIds = new HashMap<>();
+  private final List<String> newStrings = new ArrayList<>();
+
+  /**
+   * @param directory Created if it doesn't exist. Existing files of the tables are overwritten.
+   */
+  public ColumnarWriter(Path directory, ColumnarFormat format) {
+    if (directory == null) {
+      throw new IllegalArgumentException("ERROR: Parameter directory is null");
+    }
+    if (format == null) {
+      throw new IllegalArgumentException("ERROR: Parameter format is null");
+    }
+
+    try {
+      Files.createDirectories(directory);
+      classes = table(directory, format, "classes", "id", "parent_class_id", "name", "package_name", "type", "source_file",
+        "modifiers");
+      supertypes = table(directory, format, "supertypes", "class_id", "kind", "name");
+      imports = table(directory, format, "imports", "class_id", "name", "is_static");
+      methods = table(directory, format, "methods", "id", "class_id", "name", "return_type", "is_constructor", "modifiers");
+      exceptions = table(directory, format, "exceptions", "method_id", "type");
+      params = table(directory, format, "params", "id", "method_id", "position", "name", "type", "modifiers");
+      fields = table(directory, format, "fields", "id", "class_id", "name", "type", "initializer", "modifiers");
+      annotations = table(directory, format, "annotations", "id", "owner_kind", "owner_id", "name");
+      annotationArgs = table(directory, format, "annotation_args", "annotation_id", "name", "value");
+      strings = TableFile.open(format, Files.newOutputStream(directory.resolve("strings." + format.fileExtension())),
+        List.of("id", "value"));
+    } catch (IOException e) {
+      closeTables();
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Writes the class and its nested classes
+   */
+  public void write(ClassMeta classMeta) {
+    if (classMeta == null) {
+      throw new IllegalArgumentException("ERROR: Parameter classMeta is null");
+    }
+    write(classMeta, NULL_ID);
+  }
+
+  /**
+   * Writes the rows and strings pending to be written, even if their chunks are not full
+   */
+  public void flush() {
+    try {
+      flushStrings();
+      for (Table table : tables) {
+        table.flush();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      flush();
+    } finally {
+      closeTables();
+    }
+  }
+
+  private void write(ClassMeta classMeta, int parentClassId) {
+    int classId = classes.add(classes.nextId(), parentClassId, id(classMeta.name()), id(classMeta.packageName()),
+      id(classMeta.type().name()), id(classMeta.sourceFileUri()), modifiers(classMeta.modifiers()));
+    writeAnnotations(classMeta.annotations(), "CLASS", classId);
+    writeSupertypes(classMeta.extendsFrom(), "EXTENDS", classId);
+    writeSupertypes(classMeta.implementsFrom(), "IMPLEMENTS", classId);
+    writeSupertypes(classMeta.permits(), "PERMITS", classId);
+    for (ImportMeta importMeta : classMeta.imports()) {
+      imports.add(classId, id(importMeta.importString()), importMeta.isStatic() ? 1 : 0);
+    }
+    writeMethods(classMeta.constructors(), classId);
+    writeMethods(classMeta.methods(), classId);
+    for (VariableMeta field : classMeta.fields()) {
+      int fieldId = fields.add(fields.nextId(), classId, id(field.name()), id(field.type()), id(field.initializer()),
+        modifiers(field.modifiers()));
+      writeAnnotations(field.annotations(), "FIELD", fieldId);
+    }
+    for (ClassMeta nestedClass : classMeta.nestedClasses()) {
+      write(nestedClass, classId);
+    }
+  }
+
+  private void writeMethods(Collection<MethodMeta> methodsOfClass, int classId) {
+    for (MethodMeta method : methodsOfClass) {
+      int methodId = methods.add(methods.nextId(), classId, id(method.name()), id(method.returnType()),
+        method.isConstructor() ? 1 : 0, modifiers(method.modifiers()));
+      writeAnnotations(method.annotations(), "METHOD", methodId);
+      for (String exception : method.exceptions()) {
+        exceptions.add(methodId, id(exception));
+      }
+      int position = 0;
+      for (VariableMeta param : method.params()) {
+        int paramId = params.add(params.nextId(), methodId, position++, id(param.name()), id(param.type()),
+          modifiers(param.modifiers()));
+        writeAnnotations(param.annotations(), "PARAM", paramId);
+      }
+    }
+  }
+
+  private void writeSupertypes(Set<String> names, String kind, int classId) {
+    for (String name : names) {
+      supertypes.add(classId, id(kind), id(name));
+    }
+  }
+
+  private void writeAnnotations(Set<AnnotationMeta> annotationsOfOwner, String ownerKind, int ownerId) {
+    for (AnnotationMeta annotation : annotationsOfOwner) {
+      int annotationId = annotations.add(annotations.nextId(), id(ownerKind), ownerId, id(annotation.name()));
+      for (AnnotationArgument arg : annotation.args()) {
+        annotationArgs.add(annotationId, arg == null ? NULL_ID : id(arg.name()), arg == null ? NULL_ID : id(arg.value()));
+      }
+    }
+  }
+
+  private int id(String string) {
+    if (string == null) {
+      return NULL_ID;
+    }
+    Integer id = stringIds.get(string);
+    if (id == null) {
+      id = stringIds.size();
+      stringIds.put(string, id);
+      newStrings.add(string);
+      if (newStrings.size() == CHUNK_ROWS) {
+        try {
+          flushStrings();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+    }
+    return id;
+  }
+
+  private static int modifiers(Set<Modifier> modifiers) {
+    int mask = 0;
+    for (Modifier modifier : modifiers) {
+      mask |= 1 << modifier.ordinal();
+    }
+    return mask;
+  }
+
+  private void flushStrings() throws IOException {
+    if (!newStrings.isEmpty()) {
+      strings.writeStrings(newStrings, stringIds.size() - newStrings.size());
+      newStrings.clear();
+    }
+  }
+
+  private Table table(Path directory, ColumnarFormat format, String name, String... columnNames) throws IOException {
+    var table = new Table(TableFile.open(format, Files.newOutputStream(directory.resolve(name + "." + format.fileExtension())),
+      List.of(columnNames)), columnNames.length);
+    tables.add(table);
+    return table;
+  }
+
+  private void closeTables() {
+    var closeables = new ArrayList<Closeable>(tables.size() + 1);
+    tables.forEach(table -> closeables.add(table.file));
+    if (strings != null) {
+      closeables.add(strings);
+    }
+    IOException failure = null;
+    for (Closeable closeable : closeables) {
+      try {
+        closeable.close();
+      } catch (IOException e) {
+        failure = failure == null ? e : failure;
+      }
+    }
+    if (failure != null) {
+      throw new UncheckedIOException(failure);
+    }
+  }
+
+  /**
+   * Rows of a table not written yet, column by column
+   */
+  private static class Table {
+
+    private final TableFile file;
+    private final int[][] columns;
+    private int rows;
+    private int nextId;
+
+    Table(TableFile file, int columnCount) {
+      this.file = file;
+      this.columns = new int[columnCount][CHUNK_ROWS];
+    }
+
+    int nextId() {
+      return nextId++;
+    }
+
+    /**
+     * @return The first value of the row: its id in the tables that have one
+     */
+    int add(int... values) {
+      for (int column = 0; column < values.length; column++) {
+        columns[column][rows] = values[column];
+      }
+      rows++;
+      if (rows == CHUNK_ROWS) {
+        try {
+          flush();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      return values[0];
+    }
+
+    void flush() throws IOException {
+      if (rows > 0) {
+        file.writeRows(columns, rows);
+        rows = 0;
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,55 @@
+package org.jid.metajava.io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * {@link ColumnarFormat#CSV}
+ */
+class CsvTableFile implements TableFile {
+
+  private final Writer out;
+
+  CsvTableFile(OutputStream out, List<String> columnNames) throws IOException {
+    this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    this.out.write(String.join(",", columnNames));
+    this.out.write('\n');
+  }
+
+  @Override
+  public void writeRows(int[][] columns, int rows) throws IOException {
+    for (int row = 0; row < rows; row++) {
+      for (int column = 0; column < columns.length; column++) {
+        if (column > 0) {
+          out.write(',');
+        }
+        int value = columns[column][row];
+        if (value != ColumnarWriter.NULL_ID) {
+          out.write(Integer.toString(value));
+        }
+      }
+      out.write('\n');
+    }
+  }
+
+  @Override
+  public void writeStrings(List<String> strings, int firstId) throws IOException {
+    for (int i = 0; i < strings.size(); i++) {
+      out.write(Integer.toString(firstId + i));
+      out.write(",\"");
+      out.write(strings.get(i).replace("\"", "\"\""));
+      out.write("\"\n");
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    out.close();
+  }
+
+}
@@ -0,0 +1,517 @@
+package org.jid.metajava.io;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+import static org.jid.metajava.internal.MetaCanonicalizer.hashCaching;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.jid.metajava.internal.MetaCanonicalizer;
+import org.jid.metajava.model.AnnotationArgument;
+import org.jid.metajava.model.AnnotationMeta;
+import org.jid.metajava.model.ClassMeta;
+import org.jid.metajava.model.ClassType;
+import org.jid.metajava.model.ImportMeta;
+import org.jid.metajava.model.MethodMeta;
+import org.jid.metajava.model.Modifier;
+import org.jid.metajava.model.VariableMeta;
+
+/**
+ * Reads, one by one, the classes of a JSON array written by {@link JsonWriter}. Only the class being read is kept in memory, not
+ * the whole document. Unknown members are skipped and missing ones are read as empty, or null when they are not collections.
+ */
+public class JsonReader implements Closeable {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final Reader reader;
+  private final char[] buffer = new char[BUFFER_SIZE];
+  private int position;
+  private int limit;
+  // Chars read before the ones in the buffer
+  private long bufferOffset;
+  private final StringBuilder stringBuilder = new StringBuilder();
+  // Equal small values of the class being read are kept only once. New for every class, so that it doesn't keep the values of the
+  // classes already read.
+  private MetaCanonicalizer canonicalizer;
+  private boolean started;
+  private boolean finished;
+
+  public JsonReader(InputStream in) {
+    this(new InputStreamReader(requireNonNull(in, "in"), StandardCharsets.UTF_8));
+  }
+
+  public JsonReader(ReadableByteChannel channel) {
+    this(Channels.newReader(requireNonNull(channel, "channel"), StandardCharsets.UTF_8));
+  }
+
+  private JsonReader(Reader reader) {
+    this.reader = reader;
+  }
+
+  /**
+   * @return The next class of the array or null when there are no more classes
+   */
+  public ClassMeta read() {
+    if (finished) {
+      return null;
+    }
+    try {
+      if (!started) {
+        started = true;
+        expect('[');
+        if (peek() == ']') {
+          next();
+          finished = true;
+          return null;
+        }
+      } else if (expectEither(',', ']') == ']') {
+        finished = true;
+        return null;
+      }
+      canonicalizer = new MetaCanonicalizer();
+      return readClass();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Lazily reads the classes of the array. Closing the stream closes this reader.
+   */
+  public Stream<ClassMeta> stream() {
+    var spliterator = new Spliterators.AbstractSpliterator<ClassMeta>(Long.MAX_VALUE, Spliterator.NONNULL | Spliterator.ORDERED) {
+      @Override
+      public boolean tryAdvance(Consumer<? super ClassMeta> action) {
+        ClassMeta classMeta = read();
+        if (classMeta == null) {
+          return false;
+        }
+        action.accept(classMeta);
+        return true;
+      }
+    };
+    return StreamSupport.stream(spliterator, false).onClose(this::close);
+  }
+
+  @Override
+  public void close() {
+    try {
+      reader.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private ClassMeta readClass() throws IOException {
+    String name = null;
+    ClassType type = null;
+    Set<MethodMeta> methods = Set.of();
+    Set<AnnotationMeta> annotations = Set.of();
+    String packageName = null;
+    String sourceFileUri = null;
+    Set<ImportMeta> imports = Set.of();
+    Set<String> extendsFrom = Set.of();
+    Set<String> implementsFrom = Set.of();
+    Set<VariableMeta> fields = Set.of();
+    Set<MethodMeta> constructors = Set.of();
+    Set<ClassMeta> nestedClasses = Set.of();
+    Set<Modifier> modifiers = Set.of();
+    Set<String> permits = Set.of();
+
+    expect('{');
+    for (String member = readFirstMember(); member != null; member = readNextMember()) {
+      switch (member) {
+        case "name" -> name = readString();
+        case "type" -> {
+          String typeName = readString();
+          type = typeName == null ? null : valueOf(ClassType.class, typeName);
+        }
+        case "methods" -> methods = readMethods();
+        case "annotations" -> annotations = readAnnotations();
+        case "packageName" -> packageName = readString();
+        case "sourceFileUri" -> sourceFileUri = readString();
+        case "imports" -> imports = readSet(this::readImport);
+        case "extendsFrom" -> extendsFrom = readStrings();
+        case "implementsFrom" -> implementsFrom = readStrings();
+        case "fields" -> fields = readSet(this::readVariable);
+        case "constructors" -> constructors = readMethods();
+        case "nestedClasses" -> nestedClasses = readSet(this::readClass);
+        case "modifiers" -> modifiers = readModifiers();
+        case "permits" -> permits = readStrings();
+        default -> skipValue();
+      }
+    }
+
+    return new ClassMeta(name, type, methods, annotations, packageName, sourceFileUri, imports, extendsFrom, implementsFrom, fields,
+      constructors, nestedClasses, modifiers, permits);
+  }
+
+  private Set<MethodMeta> readMethods() throws IOException {
+    return readSet(this::readMethod);
+  }
+
+  private MethodMeta readMethod() throws IOException {
+    String name = null;
+    String returnType = null;
+    List<VariableMeta> params = List.of();
+    Set<String> exceptions = Set.of();
+    Set<Modifier> modifiers = Set.of();
+    Set<AnnotationMeta> annotations = Set.of();
+
+    expect('{');
+    for (String member = readFirstMember(); member != null; member = readNextMember()) {
+      switch (member) {
+        case "name" -> name = readString();
+        case "returnType" -> returnType = readString();
+        case "params" -> {
+          List<VariableMeta> readParams = readArray(this::readVariable, new ArrayList<>());
+          params = readParams.isEmpty() ? List.of() : unmodifiableList(readParams);
+        }
+        case "exceptions" -> exceptions = readStrings();
+        case "modifiers" -> modifiers = readModifiers();
+        case "annotations" -> annotations = readAnnotations();
+        default -> skipValue();
+      }
+    }
+    return new MethodMeta(name, returnType, params, exceptions, modifiers, annotations);
+  }
+
+  private VariableMeta readVariable() throws IOException {
+    String name = null;
+    String type = null;
+    String initializer = null;
+    Set<Modifier> modifiers = Set.of();
+    Set<AnnotationMeta> annotations = Set.of();
+
+    expect('{');
+    for (String member = readFirstMember(); member != null; member = readNextMember()) {
+      switch (member) {
+        case "name" -> name = readString();
+        case "type" -> type = readString();
+        case "initializer" -> initializer = readString();
+        case "modifiers" -> modifiers = readModifiers();
+        case "annotations" -> annotations = readAnnotations();
+        default -> skipValue();
+      }
+    }
+    return new VariableMeta(name, type, initializer, modifiers, annotations);
+  }
+
+  private ImportMeta readImport() throws IOException {
+    String importString = null;
+    boolean isStatic = false;
+
+    expect('{');
+    for (String member = readFirstMember(); member != null; member = readNextMember()) {
+      switch (member) {
+        case "importString" -> importString = readString();
+        case "isStatic" -> isStatic = readBoolean();
+        default -> skipValue();
+      }
+    }
+    return canonicalizer.canonical(new ImportMeta(importString, isStatic));
+  }
+
+  private Set<AnnotationMeta> readAnnotations() throws IOException {
+    Set<AnnotationMeta> annotations = readSet(this::readAnnotation);
+    return canonicalizer.canonicalSet(annotations);
+  }
+
+  private AnnotationMeta readAnnotation() throws IOException {
+    String name = null;
+    Set<AnnotationArgument> args = Set.of();
+
+    expect('{');
+    for (String member = readFirstMember(); member != null; member = readNextMember()) {
+      switch (member) {
+        case "name" -> name = readString();
+        // Not Set.of(): arguments may be null
+        case "args" -> args = unmodifiableSet(readArray(this::readAnnotationArgument, new HashSet<>()));
+        default -> skipValue();
+      }
+    }
+    return canonicalizer.canonical(new AnnotationMeta(name, args));
+  }
+
+  private AnnotationArgument readAnnotationArgument() throws IOException {
+    if (readNull()) {
+      return null;
+    }
+
+    String name = null;
+    String value = null;
+    expect('{');
+    for (String member = readFirstMember(); member != null; member = readNextMember()) {
+      switch (member) {
+        case "name" -> name = readString();
+        case "value" -> value = readString();
+        default -> skipValue();
+      }
+    }
+    return new AnnotationArgument(name, value);
+  }
+
+  private Set<Modifier> readModifiers() throws IOException {
+    var modifiers = readArray(() -> valueOf(Modifier.class, readString()), EnumSet.noneOf(Modifier.class));
+    return canonicalizer.canonicalSet(unmodifiableSet(modifiers));
+  }
+
+  private Set<String> readStrings() throws IOException {
+    return readSet(this::readString);
+  }
+
+  private <E> Set<E> readSet(ValueReader<E> elementReader) throws IOException {
+    Set<E> elements = readArray(elementReader, new HashSet<>());
+    return hashCaching(unmodifiableSet(elements));
+  }
+
+  private <E, C extends Collection<E>> C readArray(ValueReader<E> elementReader, C elements) throws IOException {
+    if (readNull()) {
+      return elements;
+    }
+    expect('[');
+    if (peek() == ']') {
+      next();
+      return elements;
+    }
+    do {
+      elements.add(elementReader.read());
+    } while (expectEither(',', ']') == ',');
+    return elements;
+  }
+
+  /**
+   * @return The name of the first member of the object whose '{' has just been read, or null when it's empty
+   */
+  private String readFirstMember() throws IOException {
+    if (peek() == '}') {
+      next();
+      return null;
+    }
+    return readMemberName();
+  }
+
+  /**
+   * @return The name of the next member of the object, or null when there are no more members
+   */
+  private String readNextMember() throws IOException {
+    return expectEither(',', '}') == '}' ? null : readMemberName();
+  }
+
+  private String readMemberName() throws IOException {
+    String name = readString();
+    if (name == null) {
+      throw malformed("member name");
+    }
+    expect(':');
+    return name;
+  }
+
+  private String readString() throws IOException {
+    if (readNull()) {
+      return null;
+    }
+    expect('"');
+    stringBuilder.setLength(0);
+    while (true) {
+      int c = nextChar();
+      if (c == '"') {
+        return canonicalizer.intern(stringBuilder.toString());
+      }
+      if (c == '\\') {
+        c = nextChar();
+        switch (c) {
+          case '"', '\\', '/' -> stringBuilder.append((char) c);
+          case 'n' -> stringBuilder.append('\n');
+          case 'r' -> stringBuilder.append('\r');
+          case 't' -> stringBuilder.append('\t');
+          case 'b' -> stringBuilder.append('\b');
+          case 'f' -> stringBuilder.append('\f');
+          case 'u' -> stringBuilder.append(readHexChar());
+          default -> throw malformed("escape sequence");
+        }
+      } else if (c < 0x20) {
+        throw malformed("string");
+      } else {
+        stringBuilder.append((char) c);
+      }
+    }
+  }
+
+  private char readHexChar() throws IOException {
+    int value = 0;
+    for (int i = 0; i < 4; i++) {
+      int digit = Character.digit(nextChar(), 16);
+      if (digit < 0) {
+        throw malformed("unicode escape sequence");
+      }
+      value = value << 4 | digit;
+    }
+    return (char) value;
+  }
+
+  private boolean readBoolean() throws IOException {
+    if (peek() == 't') {
+      expectLiteral("true");
+      return true;
+    }
+    expectLiteral("false");
+    return false;
+  }
+
+  /**
+   * @return True when the next value is null, that is read then
+   */
+  private boolean readNull() throws IOException {
+    if (peek() != 'n') {
+      return false;
+    }
+    expectLiteral("null");
+    return true;
+  }
+
+  private void skipValue() throws IOException {
+    switch (peek()) {
+      case '{' -> {
+        next();
+        for (String member = readFirstMember(); member != null; member = readNextMember()) {
+          skipValue();
+        }
+      }
+      case '[' -> readArray(() -> {
+        skipValue();
+        return null;
+      }, new ArrayList<>());
+      case '"' -> readString();
+      case 't', 'f' -> readBoolean();
+      case 'n' -> readNull();
+      default -> {
+        // A number
+        int c = peek();
+        if (c != '-' && (c < '0' || c > '9')) {
+          throw malformed("value");
+        }
+        while (c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9')) {
+          position++;
+          c = peekChar();
+        }
+      }
+    }
+  }
+
+  private void expectLiteral(String literal) throws IOException {
+    skipWhitespace();
+    for (int i = 0; i < literal.length(); i++) {
+      if (nextChar() != literal.charAt(i)) {
+        throw malformed(literal);
+      }
+    }
+  }
+
+  private void expect(char expected) throws IOException {
+    if (next() != expected) {
+      throw malformed("'" + expected + "'");
+    }
+  }
+
+  private int expectEither(char first, char second) throws IOException {
+    int c = next();
+    if (c != first && c != second) {
+      throw malformed("'" + first + "' or '" + second + "'");
+    }
+    return c;
+  }
+
+  /**
+   * @return The next char that is not whitespace, without reading it. -1 at the end of the input.
+   */
+  private int peek() throws IOException {
+    skipWhitespace();
+    return peekChar();
+  }
+
+  /**
+   * @return The next char that is not whitespace
+   */
+  private int next() throws IOException {
+    skipWhitespace();
+    return nextChar();
+  }
+
+  private void skipWhitespace() throws IOException {
+    int c = peekChar();
+    while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+      position++;
+      c = peekChar();
+    }
+  }
+
+  private int peekChar() throws IOException {
+    if (position == limit && !fill()) {
+      return -1;
+    }
+    return buffer[position];
+  }
+
+  private int nextChar() throws IOException {
+    if (position == limit && !fill()) {
+      throw new IOException("Malformed JSON: unexpected end of input");
+    }
+    return buffer[position++];
+  }
+
+  private boolean fill() throws IOException {
+    int read = reader.read(buffer, 0, BUFFER_SIZE);
+    if (read <= 0) {
+      return false;
+    }
+    bufferOffset += limit;
+    position = 0;
+    limit = read;
+    return true;
+  }
+
+  private IOException malformed(String expected) {
+    return new IOException("Malformed JSON: expected " + expected + " at char " + (bufferOffset + position));
+  }
+
+  private static <E extends Enum<E>> E valueOf(Class<E> enumType, String name) throws IOException {
+    try {
+      return Enum.valueOf(enumType, name);
+    } catch (IllegalArgumentException | NullPointerException e) {
+      throw new IOException("Malformed JSON: unknown " + enumType.getSimpleName() + " " + name, e);
+    }
+  }
+
+  private static <T> T requireNonNull(T value, String parameterName) {
+    if (value == null) {
+      throw new IllegalArgumentException("ERROR: Parameter " + parameterName + " is null");
+    }
+    return value;
+  }
+
+  @FunctionalInterface
+  private interface ValueReader<T> {
+    T read() throws IOException;
+  }
+
+}
@@ -0,0 +1,377 @@
+package org.jid.metajava.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+import java.util.Set;
+import org.jid.metajava.model.AnnotationArgument;
+import org.jid.metajava.model.AnnotationMeta;
+import org.jid.metajava.model.ClassMeta;
+import org.jid.metajava.model.ImportMeta;
+import org.jid.metajava.model.MethodMeta;
+import org.jid.metajava.model.Modifier;
+import org.jid.metajava.model.VariableMeta;
+
+/**
+ * Writes classes, one by one, as a JSON array of objects, so that they can be written while they are extracted, e.g. from
+ * {@link org.jid.metajava.MetaJava#streamMetaFrom(Collection)}, without keeping them in memory. Read it with {@link JsonReader}.
+ * <p>
+ * Every record of the model is an object with a member per record component, with the same name. Sets and lists are arrays,
+ * enums are their names and missing values are {@code null}. Text is encoded as UTF-8 into a buffer that is written to the output
+ * when it's full, so the output doesn't need to be buffered.
+ */
+public class JsonWriter implements Closeable {
+
+  private static final int BUFFER_SIZE = 8192;
+  // The longest encoding of a char: an escaped one, "\\u" and 4 hex digits
+  private static final int MAX_CHAR_BYTES = 6;
+  private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes();
+
+  private final OutputStream out;
+  private final WritableByteChannel channel;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int position;
+  private boolean firstClass = true;
+  private boolean failed;
+
+  public JsonWriter(OutputStream out) {
+    this(requireNonNull(out, "out"), null);
+  }
+
+  public JsonWriter(WritableByteChannel channel) {
+    this(null, requireNonNull(channel, "channel"));
+  }
+
+  private JsonWriter(OutputStream out, WritableByteChannel channel) {
+    this.out = out;
+    this.channel = channel;
+    writeByte('[');
+  }
+
+  public void write(ClassMeta classMeta) {
+    if (classMeta == null) {
+      throw new IllegalArgumentException("ERROR: Parameter classMeta is null");
+    }
+    try {
+      writeByte(firstClass ? '\n' : ',');
+      if (!firstClass) {
+        writeByte('\n');
+      }
+      firstClass = false;
+      writeClass(classMeta);
+    } catch (IOException e) {
+      failed = true;
+      throw new UncheckedIOException(e);
+    } catch (RuntimeException | Error e) {
+      failed = true;
+      throw e;
+    }
+  }
+
+  /**
+   * Writes to the output the classes still in the buffer
+   */
+  public void flush() {
+    try {
+      flushBuffer();
+      if (out != null) {
+        out.flush();
+      }
+    } catch (IOException e) {
+      failed = true;
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Ends the array and closes the output. The array is not ended when a write failed, so that the output is read as truncated.
+   */
+  @Override
+  public void close() {
+    Closeable output = out != null ? out : channel;
+    try (output) {
+      if (!failed) {
+        writeByte('\n');
+        writeByte(']');
+      }
+      flushBuffer();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void writeClass(ClassMeta classMeta) throws IOException {
+    writeByte('{');
+    writeName("name", true);
+    writeString(classMeta.name());
+    writeName("type", false);
+    writeString(classMeta.type() == null ? null : classMeta.type().name());
+    writeName("methods", false);
+    writeMethods(classMeta.methods());
+    writeName("annotations", false);
+    writeAnnotations(classMeta.annotations());
+    writeName("packageName", false);
+    writeString(classMeta.packageName());
+    writeName("sourceFileUri", false);
+    writeString(classMeta.sourceFileUri());
+    writeName("imports", false);
+    writeByte('[');
+    boolean first = true;
+    for (ImportMeta importMeta : classMeta.imports()) {
+      writeSeparator(first);
+      first = false;
+      writeByte('{');
+      writeName("importString", true);
+      writeString(importMeta.importString());
+      writeName("isStatic", false);
+      writeAscii(importMeta.isStatic() ? "true" : "false");
+      writeByte('}');
+    }
+    writeByte(']');
+    writeName("extendsFrom", false);
+    writeStrings(classMeta.extendsFrom());
+    writeName("implementsFrom", false);
+    writeStrings(classMeta.implementsFrom());
+    writeName("fields", false);
+    writeVariables(classMeta.fields());
+    writeName("constructors", false);
+    writeMethods(classMeta.constructors());
+    writeName("nestedClasses", false);
+    writeByte('[');
+    first = true;
+    for (ClassMeta nestedClass : classMeta.nestedClasses()) {
+      writeSeparator(first);
+      first = false;
+      writeClass(nestedClass);
+    }
+    writeByte(']');
+    writeName("modifiers", false);
+    writeModifiers(classMeta.modifiers());
+    writeName("permits", false);
+    writeStrings(classMeta.permits());
+    writeByte('}');
+  }
+
+  private void writeMethods(Collection<MethodMeta> methods) throws IOException {
+    writeByte('[');
+    boolean first = true;
+    for (MethodMeta method : methods) {
+      writeSeparator(first);
+      first = false;
+      writeByte('{');
+      writeName("name", true);
+      writeString(method.name());
+      writeName("returnType", false);
+      writeString(method.returnType());
+      writeName("params", false);
+      writeVariables(method.params());
+      writeName("exceptions", false);
+      writeStrings(method.exceptions());
+      writeName("modifiers", false);
+      writeModifiers(method.modifiers());
+      writeName("annotations", false);
+      writeAnnotations(method.annotations());
+      writeByte('}');
+    }
+    writeByte(']');
+  }
+
+  private void writeVariables(Collection<VariableMeta> variables) throws IOException {
+    writeByte('[');
+    boolean first = true;
+    for (VariableMeta variable : variables) {
+      writeSeparator(first);
+      first = false;
+      writeByte('{');
+      writeName("name", true);
+      writeString(variable.name());
+      writeName("type", false);
+      writeString(variable.type());
+      writeName("initializer", false);
+      writeString(variable.initializer());
+      writeName("modifiers", false);
+      writeModifiers(variable.modifiers());
+      writeName("annotations", false);
+      writeAnnotations(variable.annotations());
+      writeByte('}');
+    }
+    writeByte(']');
+  }
+
+  private void writeAnnotations(Set<AnnotationMeta> annotations) throws IOException {
+    writeByte('[');
+    boolean first = true;
+    for (AnnotationMeta annotation : annotations) {
+      writeSeparator(first);
+      first = false;
+      writeByte('{');
+      writeName("name", true);
+      writeString(annotation.name());
+      writeName("args", false);
+      writeByte('[');
+      boolean firstArg = true;
+      for (AnnotationArgument arg : annotation.args()) {
+        writeSeparator(firstArg);
+        firstArg = false;
+        // Arguments that are not literals, member selects or assignments are null
+        if (arg == null) {
+          writeAscii("null");
+        } else {
+          writeByte('{');
+          writeName("name", true);
+          writeString(arg.name());
+          writeName("value", false);
+          writeString(arg.value());
+          writeByte('}');
+        }
+      }
+      writeByte(']');
+      writeByte('}');
+    }
+    writeByte(']');
+  }
+
+  private void writeModifiers(Set<Modifier> modifiers) throws IOException {
+    writeByte('[');
+    boolean first = true;
+    for (Modifier modifier : modifiers) {
+      writeSeparator(first);
+      first = false;
+      writeByte('"');
+      writeAscii(modifier.name());
+      writeByte('"');
+    }
+    writeByte(']');
+  }
+
+  private void writeStrings(Collection<String> strings) throws IOException {
+    writeByte('[');
+    boolean first = true;
+    for (String string : strings) {
+      writeSeparator(first);
+      first = false;
+      writeString(string);
+    }
+    writeByte(']');
+  }
+
+  private void writeName(String name, boolean first) throws IOException {
+    writeSeparator(first);
+    writeByte('"');
+    writeAscii(name);
+    writeByte('"');
+    writeByte(':');
+  }
+
+  private void writeSeparator(boolean first) throws IOException {
+    if (!first) {
+      writeByte(',');
+    }
+  }
+
+  private void writeString(String string) throws IOException {
+    if (string == null) {
+      writeAscii("null");
+      return;
+    }
+
+    writeByte('"');
+    int length = string.length();
+    for (int i = 0; i < length; i++) {
+      if (position + MAX_CHAR_BYTES > BUFFER_SIZE) {
+        flushBuffer();
+      }
+      char c = string.charAt(i);
+      if (c >= 0x20 && c < 0x80) {
+        if (c == '"' || c == '\\') {
+          buffer[position++] = '\\';
+        }
+        buffer[position++] = (byte) c;
+      } else if (c < 0x20) {
+        writeEscaped(c);
+      } else if (c < 0x800) {
+        buffer[position++] = (byte) (0xC0 | c >> 6);
+        buffer[position++] = (byte) (0x80 | c & 0x3F);
+      } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(string.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, string.charAt(++i));
+        buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+        buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+        buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+        buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+      } else if (Character.isSurrogate(c)) {
+        // Can't be encoded as UTF-8: escaped, so that it's read back as it was
+        writeEscaped(c);
+      } else {
+        buffer[position++] = (byte) (0xE0 | c >> 12);
+        buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+        buffer[position++] = (byte) (0x80 | c & 0x3F);
+      }
+    }
+    writeByte('"');
+  }
+
+  private void writeEscaped(char c) {
+    buffer[position++] = '\\';
+    switch (c) {
+      case '\n' -> buffer[position++] = 'n';
+      case '\r' -> buffer[position++] = 'r';
+      case '\t' -> buffer[position++] = 't';
+      case '\b' -> buffer[position++] = 'b';
+      case '\f' -> buffer[position++] = 'f';
+      default -> {
+        buffer[position++] = 'u';
+        buffer[position++] = HEX_DIGITS[c >> 12 & 0xF];
+        buffer[position++] = HEX_DIGITS[c >> 8 & 0xF];
+        buffer[position++] = HEX_DIGITS[c >> 4 & 0xF];
+        buffer[position++] = HEX_DIGITS[c & 0xF];
+      }
+    }
+  }
+
+  /**
+   * @param ascii Only ASCII chars that don't need to be escaped
+   */
+  private void writeAscii(String ascii) throws IOException {
+    for (int i = 0; i < ascii.length(); i++) {
+      writeByte(ascii.charAt(i));
+    }
+  }
+
+  private void writeByte(char c) {
+    if (position == BUFFER_SIZE) {
+      try {
+        flushBuffer();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    buffer[position++] = (byte) c;
+  }
+
+  private void flushBuffer() throws IOException {
+    if (position == 0) {
+      return;
+    }
+    if (out != null) {
+      out.write(buffer, 0, position);
+    } else {
+      var byteBuffer = ByteBuffer.wrap(buffer, 0, position);
+      while (byteBuffer.hasRemaining()) {
+        channel.write(byteBuffer);
+      }
+    }
+    position = 0;
+  }
+
+  private static <T> T requireNonNull(T value, String parameterName) {
+    if (value == null) {
+      throw new IllegalArgumentException("ERROR: Parameter " + parameterName + " is null");
+    }
+    return value;
+  }
+
+}
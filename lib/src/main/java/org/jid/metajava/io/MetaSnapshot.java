@@ -0,0 +1,108 @@
+package org.jid.metajava.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.jid.metajava.model.ClassMeta;
+
+/**
+ * Saves and loads extraction results to and from snapshot files.
+ * <p>
+ * Snapshot format (version 1): magic number {@code "MJSN"} and format version as 4 bytes integers, followed by one record per class
+ * (a {@code true} byte and the class written by {@link ClassMetaWriter}) and a {@code false} byte at the end.
+ */
+public class MetaSnapshot {
+
+  private MetaSnapshot() {
+  }
+
+  /**
+   * Writes the snapshot to a temporary file next to the given one and moves it into place only when every class is written, so
+   * that a failed save leaves neither a truncated snapshot nor the temporary file behind. Every save has a temporary file of its
+   * own, so concurrent saves of the same file don't mix their classes.
+   */
+  public static void save(Collection<ClassMeta> classes, Path file) {
+    if (classes == null) {
+      throw new IllegalArgumentException("ERROR: Parameter classes is null");
+    }
+    validateFile(file);
+    Path tempFile;
+    try {
+      tempFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    try {
+      try (OutputStream out = Files.newOutputStream(tempFile); var writer = new SnapshotWriter(out)) {
+        classes.forEach(writer::write);
+      }
+      moveIntoPlace(tempFile, file);
+    } catch (IOException e) {
+      deleteAfterFailure(tempFile, e);
+      throw new UncheckedIOException(e);
+    } catch (RuntimeException | Error e) {
+      deleteAfterFailure(tempFile, e);
+      throw e;
+    }
+  }
+
+  public static Set<ClassMeta> load(Path file) {
+    validateFile(file);
+    try (Stream<ClassMeta> classes = stream(file)) {
+      var result = new HashSet<ClassMeta>();
+      classes.forEach(result::add);
+      return result;
+    }
+  }
+
+  /**
+   * Lazily reads the classes of the snapshot file, so that the snapshot doesn't need to fit in memory. The returned stream must be
+   * closed to release the file.
+   */
+  public static Stream<ClassMeta> stream(Path file) {
+    validateFile(file);
+    try {
+      InputStream in = Files.newInputStream(file);
+      try {
+        return new SnapshotReader(in).stream();
+      } catch (RuntimeException e) {
+        in.close();
+        throw e;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void validateFile(Path file) {
+    if (file == null) {
+      throw new IllegalArgumentException("ERROR: Parameter file is null");
+    }
+  }
+
+  private static void moveIntoPlace(Path tempFile, Path file) throws IOException {
+    try {
+      Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private static void deleteAfterFailure(Path tempFile, Throwable failure) {
+    try {
+      Files.deleteIfExists(tempFile);
+    } catch (IOException e) {
+      failure.addSuppressed(e);
+    }
+  }
+
+}
@@ -0,0 +1,88 @@
+package org.jid.metajava.io;
+
+import static org.jid.metajava.io.SnapshotWriter.FORMAT_VERSION;
+import static org.jid.metajava.io.SnapshotWriter.MAGIC;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.jid.metajava.model.ClassMeta;
+
+/**
+ * Reads, one by one, the classes of a snapshot written by {@link SnapshotWriter}.
+ */
+public class SnapshotReader implements Closeable {
+
+  private final ClassMetaReader reader;
+  private boolean finished;
+
+  public SnapshotReader(InputStream in) {
+    try {
+      var header = new DataInputStream(in);
+      int magic = header.readInt();
+      if (magic != MAGIC) {
+        throw new IOException("Not a snapshot: unknown header " + Integer.toHexString(magic));
+      }
+      int version = header.readInt();
+      if (version != FORMAT_VERSION) {
+        throw new IOException("Snapshot format version " + version + " not supported. Expected version " + FORMAT_VERSION);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    this.reader = new ClassMetaReader(in);
+  }
+
+  /**
+   * @return The next class of the snapshot or null when there are no more classes
+   */
+  public ClassMeta read() {
+    if (finished) {
+      return null;
+    }
+    try {
+      if (!reader.readHasNext()) {
+        finished = true;
+        return null;
+      }
+      return reader.read();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Lazily reads the classes of the snapshot. Closing the stream closes this reader.
+   */
+  public Stream<ClassMeta> stream() {
+    var spliterator = new Spliterators.AbstractSpliterator<ClassMeta>(Long.MAX_VALUE, Spliterator.NONNULL | Spliterator.ORDERED) {
+      @Override
+      public boolean tryAdvance(Consumer<? super ClassMeta> action) {
+        ClassMeta classMeta = read();
+        if (classMeta == null) {
+          return false;
+        }
+        action.accept(classMeta);
+        return true;
+      }
+    };
+    return StreamSupport.stream(spliterator, false).onClose(this::close);
+  }
+
+  @Override
+  public void close() {
+    try {
+      reader.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+}
@@ -0,0 +1,60 @@
+package org.jid.metajava.io;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import org.jid.metajava.model.ClassMeta;
+
+/**
+ * Writes a snapshot: a header with the format version followed by the classes, one by one, so that the number of classes doesn't
+ * need to be known in advance. Read it with {@link SnapshotReader}.
+ * <p>
+ * The end of the snapshot is written when the writer is closed, unless a write failed: the snapshot is then read as truncated.
+ */
+public class SnapshotWriter implements Closeable {
+
+  static final int MAGIC = 0x4D4A534E; // "MJSN"
+  static final int FORMAT_VERSION = 1;
+
+  private final ClassMetaWriter writer;
+  private boolean failed;
+
+  public SnapshotWriter(OutputStream out) {
+    try {
+      var header = new DataOutputStream(out);
+      header.writeInt(MAGIC);
+      header.writeInt(FORMAT_VERSION);
+      header.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    this.writer = new ClassMetaWriter(out);
+  }
+
+  public void write(ClassMeta classMeta) {
+    try {
+      writer.writeHasNext(true);
+      writer.write(classMeta);
+    } catch (IOException e) {
+      failed = true;
+      throw new UncheckedIOException(e);
+    } catch (RuntimeException | Error e) {
+      failed = true;
+      throw e;
+    }
+  }
+
+  @Override
+  public void close() {
+    try (writer) {
+      if (!failed) {
+        writer.writeHasNext(false);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+}
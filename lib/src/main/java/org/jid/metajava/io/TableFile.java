@@ -0,0 +1,30 @@
+package org.jid.metajava.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes the rows of a table to its file in chunks. Closing it ends the file.
+ */
+interface TableFile extends Closeable {
+
+  static TableFile open(ColumnarFormat format, OutputStream out, List<String> columnNames) throws IOException {
+    return switch (format) {
+      case BINARY -> new BinaryTableFile(out, columnNames);
+      case CSV -> new CsvTableFile(out, columnNames);
+    };
+  }
+
+  /**
+   * @param columns The values of every column. Only the first {@code rows} values of every column are written.
+   */
+  void writeRows(int[][] columns, int rows) throws IOException;
+
+  /**
+   * Writes rows of a string dictionary, whose columns are the id and the value of every string
+   */
+  void writeStrings(List<String> strings, int firstId) throws IOException;
+
+}
@@ -0,0 +1,112 @@
+package org.jid.metajava;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.jid.metajava.model.ClassMeta;
+import org.jid.metajava.model.MethodMeta;
+import org.jid.metajava.model.VariableMeta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExtractionOptionsTest {
+
+  private File sampleClass1;
+  private File sampleMethod;
+  private List<File> sampleFiles;
+
+  @TempDir
+  Path cacheDir;
+
+  @BeforeEach
+  void setup() {
+    sampleClass1 = SampleFiles.file("sample1", "Class1.java");
+    sampleMethod = SampleFiles.file("sample1", "MethodSample.java");
+    sampleFiles = SampleFiles.all();
+  }
+
+  @Test
+  void throwWhenOptionsAreNull() {
+    assertThatThrownBy(() -> MetaJava.builder().options(null)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new ExtractionOptions(null)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void readOnlyClassSignatures() {
+    for (ParserBackend parserBackend : ParserBackend.values()) {
+      var metaJava = MetaJava.builder().parserBackend(parserBackend).options(ExtractionOptions.classSignaturesOnly()).build();
+
+      ClassMeta class1 = metaJava.getMetaFrom(List.of(sampleClass1)).iterator().next();
+
+      assertThat(class1.annotations()).hasSize(3);
+      assertThat(class1.imports()).isNotEmpty();
+      assertThat(class1.extendsFrom()).containsExactly("ClassParent1");
+      assertThat(class1.methods()).isEmpty();
+      assertThat(class1.fields()).isEmpty();
+      assertThat(class1.constructors()).isEmpty();
+    }
+  }
+
+  @Test
+  void skipImportsAndFieldInitializers() {
+    for (ParserBackend parserBackend : ParserBackend.values()) {
+      var metaJava = MetaJava.builder().parserBackend(parserBackend)
+        .options(ExtractionOptions.excluding(ModelPart.IMPORTS, ModelPart.FIELD_INITIALIZERS)).build();
+
+      ClassMeta class1 = metaJava.getMetaFrom(List.of(sampleClass1)).iterator().next();
+
+      assertThat(class1.imports()).isEmpty();
+      assertThat(class1.fields()).hasSize(4).map(VariableMeta::initializer).containsOnlyNulls();
+      assertThat(class1.methods()).hasSize(3);
+    }
+  }
+
+  @Test
+  void skipParameterAnnotations() {
+    for (ParserBackend parserBackend : ParserBackend.values()) {
+      var metaJava = MetaJava.builder().parserBackend(parserBackend)
+        .options(ExtractionOptions.excluding(ModelPart.PARAMETER_ANNOTATIONS)).build();
+
+      ClassMeta methodSample = metaJava.getMetaFrom(List.of(sampleMethod)).iterator().next();
+
+      assertThat(methodSample.methods()).flatMap(MethodMeta::params).map(VariableMeta::annotations).containsOnly(Set.of());
+      assertThat(methodSample.methods()).filteredOn(method -> method.name().equals("annotatedMethod"))
+        .flatMap(MethodMeta::annotations).hasSize(1);
+    }
+  }
+
+  @Test
+  void readSameMetaWithEveryBackend() {
+    var options = ExtractionOptions.excluding(ModelPart.METHODS, ModelPart.NESTED_CLASSES);
+
+    Set<ClassMeta> expected = MetaJava.builder().parserBackend(ParserBackend.JAVAC).options(options).build()
+      .getMetaFrom(sampleFiles);
+
+    var declarationsMetaJava = MetaJava.builder().parserBackend(ParserBackend.DECLARATIONS).options(options).build();
+    assertThat(declarationsMetaJava.getMetaFrom(sampleFiles)).isEqualTo(expected);
+    assertThat(declarationsMetaJava.getLazyMetaFrom(sampleFiles)).containsExactlyInAnyOrderElementsOf(expected);
+    assertThat(expected).allSatisfy(classMeta -> {
+      assertThat(classMeta.methods()).isEmpty();
+      assertThat(classMeta.nestedClasses()).isEmpty();
+    });
+  }
+
+  @Test
+  void cacheClassesOfEveryOptionsApart() {
+    var cache = new MetaCache(cacheDir);
+    var classSignaturesMetaJava = MetaJava.builder().options(ExtractionOptions.classSignaturesOnly()).build();
+    var metaJava = new MetaJava();
+
+    classSignaturesMetaJava.getMetaFromCached(sampleFiles, cache);
+    Set<ClassMeta> actual = metaJava.getMetaFromCached(sampleFiles, cache);
+
+    assertThat(actual).isEqualTo(metaJava.getMetaFrom(sampleFiles));
+    assertThat(classSignaturesMetaJava.getMetaFromCached(sampleFiles, cache)).isEqualTo(classSignaturesMetaJava.getMetaFrom(sampleFiles));
+  }
+
+}
@@ -0,0 +1,80 @@
+package org.jid.metajava;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FlightRecorderEventsTest {
+
+  private static final List<String> EVENT_NAMES = List.of("org.jid.metajava.FileRead", "org.jid.metajava.FileParse",
+    "org.jid.metajava.ClassExtraction", "org.jid.metajava.Extraction");
+
+  private final List<File> sampleFiles = SampleFiles.all();
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void recordEveryPhaseOfJavacExtraction() throws IOException {
+    List<RecordedEvent> events = record(() -> MetaJava.builder().parserBackend(ParserBackend.JAVAC).build()
+      .getMetaFrom(sampleFiles));
+
+    assertThat(eventsNamed(events, "org.jid.metajava.FileRead")).hasSize(sampleFiles.size())
+      .allSatisfy(event -> assertThat(event.getLong("size")).isPositive());
+    assertThat(eventsNamed(events, "org.jid.metajava.FileParse")).hasSize(sampleFiles.size())
+      .allSatisfy(event -> assertThat(event.getString("parserBackend")).isEqualTo("JAVAC"));
+    assertThat(eventsNamed(events, "org.jid.metajava.ClassExtraction")).map(event -> event.getString("className"))
+      .contains("org.jid.sample1.Class1", "org.jid.sample1.NestedClasses");
+    assertThat(eventsNamed(events, "org.jid.metajava.Extraction")).singleElement().satisfies(event -> {
+      assertThat(event.getString("operation")).isEqualTo("getMetaFrom");
+      assertThat(event.getInt("fileCount")).isEqualTo(sampleFiles.size());
+      assertThat(event.getInt("classCount")).isEqualTo(new MetaJava().getMetaFrom(sampleFiles).size());
+    });
+  }
+
+  @Test
+  void recordReadAndParseOfDeclarationsParser() throws IOException {
+    List<RecordedEvent> events = record(() -> MetaJava.builder().parserBackend(ParserBackend.DECLARATIONS).build()
+      .getMetaFrom(sampleFiles));
+
+    assertThat(eventsNamed(events, "org.jid.metajava.FileRead")).hasSize(sampleFiles.size());
+    assertThat(eventsNamed(events, "org.jid.metajava.FileParse")).hasSize(sampleFiles.size())
+      .allSatisfy(event -> assertThat(event.getString("parserBackend")).isEqualTo("DECLARATIONS"));
+    assertThat(eventsNamed(events, "org.jid.metajava.Extraction")).singleElement()
+      .satisfies(event -> assertThat(event.getString("parserBackend")).isEqualTo("DECLARATIONS"));
+  }
+
+  @Test
+  void extractSameClassesWhileRecording() throws IOException {
+    var metaJava = new MetaJava();
+    var expected = metaJava.getMetaFrom(sampleFiles);
+
+    record(() -> assertThat(metaJava.getMetaFrom(sampleFiles)).isEqualTo(expected));
+  }
+
+  private List<RecordedEvent> record(Runnable extraction) throws IOException {
+    try (var recording = new Recording()) {
+      EVENT_NAMES.forEach(eventName -> recording.enable(eventName).withThreshold(Duration.ZERO));
+      recording.start();
+      extraction.run();
+      recording.stop();
+      Path recordingFile = tempDir.resolve("recording.jfr");
+      recording.dump(recordingFile);
+      return RecordingFile.readAllEvents(recordingFile);
+    }
+  }
+
+  private static List<RecordedEvent> eventsNamed(List<RecordedEvent> events, String eventName) {
+    return events.stream().filter(event -> event.getEventType().getName().equals(eventName)).toList();
+  }
+
+}
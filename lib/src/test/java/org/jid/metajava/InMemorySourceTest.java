@@ -0,0 +1,118 @@
+package org.jid.metajava;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+import org.jid.metajava.model.ClassMeta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class InMemorySourceTest {
+
+  private File sampleClass1;
+  private String sampleClass1Content;
+
+  @BeforeEach
+  void setup() throws IOException {
+    sampleClass1 = SampleFiles.file("sample1", "Class1.java");
+    sampleClass1Content = Files.readString(sampleClass1.toPath());
+  }
+
+  @Nested
+  class ValidationTests {
+
+    @Test
+    void throwWhenPathIsBlank() {
+      assertThatThrownBy(() -> InMemorySource.of(" ", "class A {}")).isInstanceOf(IllegalArgumentException.class);
+      assertThatThrownBy(() -> InMemorySource.of(null, "class A {}")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void throwWhenContentIsNull() {
+      assertThatThrownBy(() -> InMemorySource.of("A.java", (byte[]) null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void throwWhenSourcesAreEmpty() {
+      assertThatThrownBy(() -> new MetaJava().getMetaFromInMemory(List.of())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+  }
+
+  @Nested
+  class ContentTests {
+
+    @Test
+    void readBytesAsUtf8() {
+      byte[] bytes = "class Café {}".getBytes(StandardCharsets.UTF_8);
+
+      assertThat(InMemorySource.of("Cafe.java", bytes).content()).isEqualTo("class Café {}");
+    }
+
+    @Test
+    void readByteBufferWithoutChangingItsPosition() {
+      ByteBuffer buffer = ByteBuffer.wrap("// headerclass A {}".getBytes(StandardCharsets.UTF_8)).position(9);
+
+      assertThat(InMemorySource.of("A.java", buffer).content()).isEqualTo("class A {}");
+      assertThat(buffer.position()).isEqualTo(9);
+    }
+
+  }
+
+  @Nested
+  class ExtractionTests {
+
+    @Test
+    void readSameMetaThanFromFileWithLogicalPathUri() {
+      for (ParserBackend parserBackend : ParserBackend.values()) {
+        var metaJava = MetaJava.builder().parserBackend(parserBackend).build();
+
+        Set<ClassMeta> actual = metaJava.getMetaFromInMemory(List.of(InMemorySource.of("org/jid/sample1/Class1.java",
+          sampleClass1Content.getBytes(StandardCharsets.UTF_8))));
+
+        ClassMeta expected = metaJava.getMetaFrom(List.of(sampleClass1)).iterator().next();
+        assertThat(actual).singleElement().satisfies(classMeta -> {
+          assertThat(classMeta.sourceFileUri()).isEqualTo("memory:///org/jid/sample1/Class1.java");
+          assertThat(classMeta.name()).isEqualTo(expected.name());
+          assertThat(classMeta.annotations()).isEqualTo(expected.annotations());
+          assertThat(classMeta.imports()).isEqualTo(expected.imports());
+          assertThat(classMeta.methods()).isEqualTo(expected.methods());
+          assertThat(classMeta.fields()).isEqualTo(expected.fields());
+        });
+      }
+    }
+
+    @Test
+    void readConstructsOnlyReadByJavac() {
+      var source = InMemorySource.of("src/Anonymous.java", """
+        package org.jid.memory;
+
+        public class Anonymous {
+          Runnable anonymous = new Runnable() {
+            public void run() {
+            }
+          };
+        }
+        """);
+
+      Set<ClassMeta> expected = new MetaJava().getMetaFromInMemory(List.of(source));
+
+      assertThat(MetaJava.builder().parserBackend(ParserBackend.DECLARATIONS).build()
+        .getMetaFromInMemory(List.of(source))).isEqualTo(expected);
+      assertThat(expected).singleElement().satisfies(classMeta -> {
+        assertThat(classMeta.sourceFileUri()).isEqualTo("memory:///src/Anonymous.java");
+        assertThat(classMeta.fields()).hasSize(1);
+      });
+    }
+
+  }
+
+}
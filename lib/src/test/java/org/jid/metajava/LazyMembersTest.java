@@ -0,0 +1,106 @@
+package org.jid.metajava;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.jid.metajava.exceptions.ClassNotParseableException;
+import org.jid.metajava.model.ClassMeta;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LazyMembersTest {
+
+  private final MetaJava metaJava = new MetaJava();
+  private final List<File> sampleFiles = SampleFiles.all();
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void throwWhenFilesAreNull() {
+    assertThatThrownBy(() -> metaJava.getLazyMetaFrom(null)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void readSameMetaThanEagerExtraction() {
+    Set<ClassMeta> expected = metaJava.getMetaFrom(sampleFiles);
+
+    Set<ClassMeta> actual = metaJava.getLazyMetaFrom(sampleFiles);
+
+    assertThat(actual).containsExactlyInAnyOrderElementsOf(expected);
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  void readMembersWithJavacWhenTheyCantBeReadOtherwise() throws IOException {
+    File file = writeSource("Anonymous.java", """
+      package org.jid.lazy;
+
+      public class Anonymous {
+        Runnable anonymous = new Runnable() {
+          public void run() {
+          }
+        };
+        void method() {
+        }
+      }
+      """);
+
+    ClassMeta classMeta = metaJava.getLazyMetaFrom(List.of(file)).iterator().next();
+
+    assertThat(classMeta.fields()).hasSize(1);
+    assertThat(classMeta.methods()).hasSize(1);
+    assertThat(classMeta).isEqualTo(metaJava.getMetaFrom(List.of(file)).iterator().next());
+  }
+
+  @Test
+  void throwWhenSourceFileChangesBeforeMembersAreRead() throws IOException {
+    Path source = tempDir.resolve("Changing.java");
+    File file = writeSource("Changing.java", """
+      package org.jid.lazy;
+
+      public class Changing {
+        void method() {
+        }
+      }
+      """);
+
+    ClassMeta classMeta = metaJava.getLazyMetaFrom(List.of(file)).iterator().next();
+    Files.writeString(source, Files.readString(source).replace("method", "renamedMethod"));
+
+    assertThat(classMeta.name()).isEqualTo("Changing");
+    assertThatThrownBy(() -> classMeta.methods().size()).isInstanceOf(ClassNotParseableException.class);
+  }
+
+  @Test
+  void throwWhenSourceFileChangesKeepingTheStringHashCode() throws IOException {
+    Path source = tempDir.resolve("Colliding.java");
+    File file = writeSource("Colliding.java", """
+      package org.jid.lazy;
+
+      public class Colliding {
+        void methodAa() {
+        }
+      }
+      """);
+
+    ClassMeta classMeta = metaJava.getLazyMetaFrom(List.of(file)).iterator().next();
+    // "Aa" and "BB" have the same hash code
+    String changed = Files.readString(source).replace("methodAa", "methodBB");
+    assertThat(changed.hashCode()).isEqualTo(Files.readString(source).hashCode());
+    Files.writeString(source, changed);
+
+    assertThatThrownBy(() -> classMeta.methods().size()).isInstanceOf(ClassNotParseableException.class);
+  }
+
+  private File writeSource(String fileName, String source) throws IOException {
+    return Files.writeString(tempDir.resolve(fileName), source).toFile();
+  }
+
+}
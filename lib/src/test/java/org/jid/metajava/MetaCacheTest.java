@@ -0,0 +1,116 @@
+package org.jid.metajava;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.jid.metajava.model.ClassMeta;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MetaCacheTest {
+
+  private MetaJava metaJava = new MetaJava();
+  private final List<File> sampleFiles = SampleFiles.all();
+
+  @TempDir
+  private Path cacheDir;
+
+  @TempDir
+  private Path copiesDir;
+
+  @Test
+  void readSameMetaWhenCacheIsEmpty() {
+    var cache = new MetaCache(cacheDir);
+
+    Set<ClassMeta> actual = metaJava.getMetaFromCached(sampleFiles, cache);
+
+    assertThat(actual).isEqualTo(metaJava.getMetaFrom(sampleFiles));
+  }
+
+  @Test
+  void readSameMetaFromCacheEntries() throws IOException {
+    metaJava.getMetaFromCached(sampleFiles, new MetaCache(cacheDir));
+
+    Set<ClassMeta> actual = metaJava.getMetaFromCached(sampleFiles, new MetaCache(cacheDir));
+
+    assertThat(actual).isEqualTo(metaJava.getMetaFrom(sampleFiles));
+    assertThat(countEntries()).isEqualTo(sampleFiles.size());
+  }
+
+  @Test
+  void parseOnceFilesWithSameContent() throws IOException {
+    File class1 = SampleFiles.file("sample1", "Class1.java");
+    File class1Copy = Files.copy(class1.toPath(), copiesDir.resolve("Class1.java")).toFile();
+
+    Set<ClassMeta> actual = metaJava.getMetaFromCached(List.of(class1, class1Copy), new MetaCache(cacheDir));
+
+    assertThat(countEntries()).isEqualTo(1);
+    assertThat(actual).isEqualTo(metaJava.getMetaFrom(List.of(class1, class1Copy)));
+    assertThat(actual).map(ClassMeta::sourceFileUri)
+      .containsExactlyInAnyOrder(class1.toPath().toUri().toString(), class1Copy.toPath().toUri().toString());
+  }
+
+  @Test
+  void parseAgainWhenCacheEntryIsCorrupted() throws IOException {
+    File class1 = SampleFiles.file("sample1", "Class1.java");
+    metaJava.getMetaFromCached(List.of(class1), new MetaCache(cacheDir));
+    try (Stream<Path> entries = Files.walk(cacheDir)) {
+      for (Path entry : entries.filter(Files::isRegularFile).toList()) {
+        Files.write(entry, new byte[]{1, 2, 3});
+      }
+    }
+
+    Set<ClassMeta> actual = metaJava.getMetaFromCached(List.of(class1), new MetaCache(cacheDir));
+
+    assertThat(actual).isEqualTo(metaJava.getMetaFrom(List.of(class1)));
+  }
+
+  @Test
+  void parseAgainWhenCacheEntryDeclaresMoreDataThanItHas() throws IOException {
+    File class1 = SampleFiles.file("sample1", "Class1.java");
+    metaJava.getMetaFromCached(List.of(class1), new MetaCache(cacheDir));
+    try (Stream<Path> entries = Files.walk(cacheDir)) {
+      for (Path entry : entries.filter(Files::isRegularFile).toList()) {
+        // 1 class whose name is a new string of 2^31 - 16 bytes
+        Files.write(entry, new byte[]{1, 1, (byte) 0xF0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07});
+      }
+    }
+
+    Set<ClassMeta> actual = metaJava.getMetaFromCached(List.of(class1), new MetaCache(cacheDir));
+
+    assertThat(actual).isEqualTo(metaJava.getMetaFrom(List.of(class1)));
+  }
+
+  @Test
+  void readCacheEntriesWithoutParsingTheFiles() throws IOException {
+    Path source = Files.writeString(copiesDir.resolve("Parsed.java"), "package org.jid;\n\nclass Parsed {\n}\n");
+    Set<ClassMeta> class1Classes = metaJava.getMetaFrom(List.of(SampleFiles.file("sample1", "Class1.java")));
+    var cache = new MetaCache(cacheDir);
+    // Class1 can only be read from the entry of the content: parsing the file reads Parsed
+    cache.put(MetaCache.contentHash(Files.readAllBytes(source)), class1Classes);
+
+    Set<ClassMeta> actual = metaJava.getMetaFromCached(List.of(source.toFile()), cache);
+
+    assertThat(actual).map(ClassMeta::name).containsOnly("Class1");
+    assertThat(actual).map(ClassMeta::sourceFileUri).containsOnly(source.toUri().toString());
+  }
+
+  @Test
+  void throwWhenCacheIsNull() {
+    assertThatThrownBy(() -> metaJava.getMetaFromCached(sampleFiles, null)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private long countEntries() throws IOException {
+    try (Stream<Path> entries = Files.walk(cacheDir)) {
+      return entries.filter(Files::isRegularFile).count();
+    }
+  }
+
+}
@@ -0,0 +1,101 @@
+package org.jid.metajava;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.jid.metajava.model.ClassMeta;
+import org.jid.metajava.model.ClassType;
+import org.jid.metajava.model.MethodMeta;
+import org.jid.metajava.model.Modifier;
+import org.junit.jupiter.api.Test;
+
+class MetaInternerTest {
+
+  private MetaJava metaJava = new MetaJava();
+  private final List<File> sampleFiles = SampleFiles.all();
+
+  @Test
+  void returnSameInstancesForEqualClassesOfSeveralExtractions() {
+    Set<ClassMeta> classes = metaJava.getMetaFrom(sampleFiles);
+    Set<ClassMeta> declarationsClasses = MetaJava.builder().parserBackend(ParserBackend.DECLARATIONS).build()
+      .getMetaFrom(sampleFiles);
+    var interner = new MetaInterner();
+
+    Set<ClassMeta> interned = interner.internAll(classes);
+    Set<ClassMeta> declarationsInterned = interner.internAll(declarationsClasses);
+
+    assertThat(interned).isEqualTo(classes);
+    assertThat(declarationsInterned).isEqualTo(declarationsClasses);
+    Set<ClassMeta> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+    instances.addAll(interned);
+    assertThat(instances.containsAll(declarationsInterned)).isTrue();
+    assertThat(interned).allSatisfy(classMeta -> assertThat(interner.intern(classMeta)).isSameAs(classMeta));
+  }
+
+  @Test
+  void shareEqualMembersOfDifferentClasses() {
+    var interner = new MetaInterner();
+    var method = new MethodMeta("run", "void", List.of(), Set.of(), Set.of(Modifier.PUBLIC), Set.of());
+    var first = new ClassMeta("First", ClassType.CLASS, Set.of(method), Set.of(), "org.jid", null, Set.of(), Set.of(), Set.of(),
+      Set.of(), Set.of(), Set.of(), Set.of(Modifier.PUBLIC), Set.of());
+    var second = new ClassMeta("Second", ClassType.CLASS, new HashSet<>(Set.of(method)), Set.of(), "org.jid", null, Set.of(),
+      Set.of(), Set.of(), Set.of(), Set.of(), Set.of(), Set.of(Modifier.PUBLIC), Set.of());
+
+    ClassMeta internedFirst = interner.intern(first);
+    ClassMeta internedSecond = interner.intern(second);
+
+    assertThat(internedSecond.methods()).isSameAs(internedFirst.methods());
+    assertThat(internedSecond.modifiers()).isSameAs(internedFirst.modifiers());
+  }
+
+  @Test
+  void keepHashCodeAndEqualityOfMemberSets() {
+    Set<ClassMeta> classes = metaJava.getMetaFrom(sampleFiles);
+
+    assertThat(classes).allSatisfy(classMeta -> {
+      Set<MethodMeta> methods = new HashSet<>(classMeta.methods());
+      assertThat(classMeta.methods().hashCode()).isEqualTo(methods.hashCode());
+      assertThat(classMeta.methods()).isEqualTo(methods);
+      assertThat(methods).isEqualTo(classMeta.methods());
+    });
+  }
+
+  @Test
+  void keepHashCodeAndEqualityOfTheOtherSetsOfTheClasses() {
+    Set<ClassMeta> classes = metaJava.getMetaFrom(sampleFiles);
+
+    assertThat(classes).allSatisfy(classMeta -> {
+      for (Set<?> set : List.of(classMeta.annotations(), classMeta.imports(), classMeta.extendsFrom(), classMeta.implementsFrom(),
+        classMeta.modifiers(), classMeta.permits())) {
+        assertThat(set.hashCode()).isEqualTo(new HashSet<>(set).hashCode());
+        assertThat(set).isEqualTo(new HashSet<>(set));
+      }
+    });
+  }
+
+  @Test
+  void notCacheTheHashCodeOfSetsThatCanBeModified() {
+    var methods = new HashSet<MethodMeta>();
+    var classMeta = new ClassMeta("Modified", ClassType.CLASS, methods, Set.of(), "org.jid", null, Set.of(), Set.of(), Set.of(),
+      Set.of(), Set.of(), Set.of(), Set.of(), Set.of());
+    int emptyHashCode = classMeta.hashCode();
+
+    methods.add(new MethodMeta("run", "void", List.of(), Set.of(), Set.of(), Set.of()));
+
+    assertThat(classMeta.hashCode()).isNotEqualTo(emptyHashCode);
+    assertThat(classMeta).isEqualTo(new ClassMeta("Modified", ClassType.CLASS, Set.copyOf(methods), Set.of(), "org.jid", null,
+      Set.of(), Set.of(), Set.of(), Set.of(), Set.of(), Set.of(), Set.of(), Set.of()));
+  }
+
+  @Test
+  void throwWhenParametersAreNotValid() {
+    assertThatThrownBy(() -> new MetaInterner().internAll(null)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+}
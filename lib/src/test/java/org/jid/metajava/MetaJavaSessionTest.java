@@ -0,0 +1,84 @@
+package org.jid.metajava;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.util.List;
+import java.util.Set;
+import org.jid.metajava.model.ClassMeta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MetaJavaSessionTest {
+
+  private List<File> sampleFiles;
+  private MetaJavaSession session;
+
+  @BeforeEach
+  void setup() {
+    sampleFiles = SampleFiles.all();
+    session = new MetaJavaSession(2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    session.close();
+  }
+
+  @Test
+  void reuseJavacContextsOnlyWhenJavacInternalApiIsExported() {
+    // The test task exports com.sun.tools.javac.api, the testWithoutJavacExports task doesn't
+    assertThat(session.isReusingJavacContexts()).isEqualTo(JavacTaskPoolAdapter.isAvailable());
+  }
+
+  @Test
+  void readSameMetaWhenJavacContextsAreNotReused() {
+    try (var fileManagersOnlySession = new MetaJavaSession(2, false)) {
+      var metaJava = MetaJava.builder().session(fileManagersOnlySession).build();
+      Set<ClassMeta> expected = new MetaJava().getMetaFrom(sampleFiles);
+
+      assertThat(fileManagersOnlySession.isReusingJavacContexts()).isFalse();
+      for (int i = 0; i < 3; i++) {
+        assertThat(metaJava.getMetaFrom(sampleFiles)).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  void readSameMetaInEveryCall() {
+    var metaJava = MetaJava.builder().session(session).build();
+    Set<ClassMeta> expected = new MetaJava().getMetaFrom(sampleFiles);
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(metaJava.getMetaFrom(sampleFiles)).isEqualTo(expected);
+      for (File sampleFile : sampleFiles) {
+        assertThat(metaJava.getMetaFrom(List.of(sampleFile))).isEqualTo(new MetaJava().getMetaFrom(List.of(sampleFile)));
+      }
+    }
+  }
+
+  @Test
+  void readSameMetaWhenSessionIsSharedBetweenThreads() {
+    var metaJava = MetaJava.builder().session(session).build();
+    Set<ClassMeta> expected = new MetaJava().getMetaFrom(sampleFiles);
+
+    assertThat(metaJava.getMetaFromParallel(sampleFiles, 4)).isEqualTo(expected);
+    assertThat(MetaJava.builder().session(session).build().getMetaFromParallel(sampleFiles, 4)).isEqualTo(expected);
+  }
+
+  @Test
+  void throwWhenSessionIsClosed() {
+    var metaJava = MetaJava.builder().session(session).build();
+    session.close();
+
+    assertThatThrownBy(() -> metaJava.getMetaFrom(sampleFiles)).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void throwWhenSessionIsNull() {
+    assertThatThrownBy(() -> MetaJava.builder().session(null)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+}
@@ -12,10 +12,16 @@ import static org.jid.metajava.model.Modifier.*;
 import static org.jid.metajava.model.Modifier.PUBLIC;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
+import org.jid.metajava.exceptions.ClassNotParseableException;
 import org.jid.metajava.model.AnnotationArgument;
 import org.jid.metajava.model.AnnotationMeta;
 import org.jid.metajava.model.AnnotationSupport;
@@ -26,11 +32,12 @@ import org.jid.metajava.model.MethodMeta;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class MetaJavaTest {
 
   private MetaJava metaJava = new MetaJava();
-  private Path sampleRootPath = Paths.get(System.getProperty("user.dir"), "src", "test", "resources", "sampleCode", "org", "jid");
+  private Path sampleRootPath = SampleFiles.ROOT;
   private File sampleClass1;
   private File sampleClass2;
   private File sampleInterface1;
@@ -1014,6 +1021,247 @@ class MetaJavaTest {
       assertThatThrownBy(() -> metaJava.getMetaFrom(Set.of())).isInstanceOf(IllegalArgumentException.class);
     }
 
+    @Test
+    void throwWhenParallelismParameterIsNotPositive() {
+      assertThatThrownBy(() -> metaJava.getMetaFromParallel(sampleClasses, 0)).isInstanceOf(IllegalArgumentException.class);
+      assertThatThrownBy(() -> metaJava.getMetaFromPipelined(sampleClasses, 0)).isInstanceOf(IllegalArgumentException.class);
+      assertThatThrownBy(() -> metaJava.getMetaFromSharded(sampleClasses, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void throwWhenBatchLimitParameterIsNullOrNotPositive() {
+      assertThatThrownBy(() -> metaJava.getMetaFromBatched(sampleClasses, null)).isInstanceOf(IllegalArgumentException.class);
+      assertThatThrownBy(() -> BatchLimit.bytes(0)).isInstanceOf(IllegalArgumentException.class);
+      assertThatThrownBy(() -> BatchLimit.heapUsage(0)).isInstanceOf(IllegalArgumentException.class);
+      assertThatThrownBy(() -> BatchLimit.heapUsage(1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+  }
+
+  @Nested
+  class ParallelTests {
+
+    @Test
+    void readSameMetaInParallelThanSerial() {
+      List<File> allSampleFiles = SampleFiles.all();
+
+      Set<ClassMeta> expected = metaJava.getMetaFrom(allSampleFiles);
+      Set<ClassMeta> actual = metaJava.getMetaFromParallel(allSampleFiles, 4);
+
+      assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void readSameMetaWhenParallelismIsGreaterThanFiles() {
+      Set<ClassMeta> expected = metaJava.getMetaFrom(sampleClasses);
+      Set<ClassMeta> actual = metaJava.getMetaFromParallel(sampleClasses, 16);
+
+      assertThat(actual).isEqualTo(expected);
+    }
+
+  }
+
+  @Nested
+  class PipelinedTests {
+
+    @Test
+    void readSameMetaPipelinedThanSerial() {
+      List<File> allSampleFiles = SampleFiles.all();
+
+      Set<ClassMeta> expected = metaJava.getMetaFrom(allSampleFiles);
+
+      assertThat(metaJava.getMetaFromPipelined(allSampleFiles, 1)).isEqualTo(expected);
+      assertThat(metaJava.getMetaFromPipelined(allSampleFiles, 4)).isEqualTo(expected);
+    }
+
+    @Test
+    void throwWhenAFileCantBeRead() {
+      List<File> files = new ArrayList<>(sampleClasses);
+      files.add(sampleRootPath.resolve("NotExistingFile.java").toFile());
+
+      assertThatThrownBy(() -> metaJava.getMetaFromPipelined(files, 2)).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void readSameMetaPipelinedThanSerialWhenAFileIsNotValidUtf8(@TempDir Path tempDir) throws IOException {
+      Path file = tempDir.resolve("Malformed.java");
+      // 0xFF in Latin-1, never valid in UTF-8
+      Files.writeString(file, "class Malformed { String s = \"\u00FF\"; }", StandardCharsets.ISO_8859_1);
+      List<File> files = List.of(file.toFile());
+
+      assertThat(metaJava.getMetaFromPipelined(files, 2)).isEqualTo(metaJava.getMetaFrom(files));
+    }
+
+  }
+
+  @Nested
+  class BatchedTests {
+
+    @Test
+    void readSameMetaInBatchesOfBytesThanInOnePass() {
+      List<File> allSampleFiles = SampleFiles.all();
+
+      Set<ClassMeta> expected = metaJava.getMetaFrom(allSampleFiles);
+
+      assertThat(metaJava.getMetaFromBatched(allSampleFiles, BatchLimit.bytes(1))).isEqualTo(expected);
+      assertThat(metaJava.getMetaFromBatched(allSampleFiles, BatchLimit.bytes(4096))).isEqualTo(expected);
+      assertThat(metaJava.getMetaFromBatched(allSampleFiles, BatchLimit.bytes(Long.MAX_VALUE))).isEqualTo(expected);
+    }
+
+    @Test
+    void readSameMetaInBatchesOfHeapUsageThanInOnePass() {
+      List<File> allSampleFiles = SampleFiles.all();
+
+      Set<ClassMeta> expected = metaJava.getMetaFrom(allSampleFiles);
+
+      assertThat(metaJava.getMetaFromBatched(allSampleFiles, BatchLimit.heapUsage(0.8))).isEqualTo(expected);
+      // Already over the limit: one file per batch
+      assertThat(metaJava.getMetaFromBatched(allSampleFiles, BatchLimit.heapUsage(Double.MIN_VALUE))).isEqualTo(expected);
+    }
+
+  }
+
+  @Nested
+  class ShardedTests {
+
+    @Test
+    void readSameMetaShardedThanSerial() {
+      List<File> allSampleFiles = SampleFiles.all();
+
+      Set<ClassMeta> expected = metaJava.getMetaFrom(allSampleFiles);
+
+      assertThat(metaJava.getMetaFromSharded(allSampleFiles, 2)).isEqualTo(expected);
+    }
+
+    @Test
+    void readSameMetaShardedWithOptions() {
+      var classSignaturesOnly = MetaJava.builder().options(ExtractionOptions.classSignaturesOnly()).build();
+
+      Set<ClassMeta> expected = classSignaturesOnly.getMetaFrom(sampleClasses);
+
+      assertThat(classSignaturesOnly.getMetaFromSharded(sampleClasses, 1)).isEqualTo(expected);
+    }
+
+    @Test
+    void throwWithTheErrorOutputOfTheWorkerWhenAShardCantBeParsed() {
+      List<File> files = new ArrayList<>(sampleClasses);
+      files.add(sampleRootPath.resolve("NotExistingFile.java").toFile());
+
+      assertThatThrownBy(() -> metaJava.getMetaFromSharded(files, 2)).isInstanceOf(ClassNotParseableException.class)
+        .hasMessageContaining("NotExistingFile.java");
+    }
+
+    @Test
+    void startWorkersWithTheWorkerJvmOptions() {
+      var metaJavaWithOptions = MetaJava.builder().workerJvmOptions(List.of("-Xmx256m")).build();
+      var metaJavaWithWrongOptions = MetaJava.builder().workerJvmOptions(List.of("-XNotAnOption")).build();
+
+      assertThat(metaJavaWithOptions.getMetaFromSharded(sampleClasses, 1)).isEqualTo(metaJava.getMetaFrom(sampleClasses));
+      assertThatThrownBy(() -> metaJavaWithWrongOptions.getMetaFromSharded(sampleClasses, 1))
+        .isInstanceOf(ClassNotParseableException.class).hasMessageContaining("-XNotAnOption");
+      assertThatThrownBy(() -> MetaJava.builder().workerJvmOptions(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+  }
+
+  @Nested
+  class PartialTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readSameMetaThanGetMetaFromWhenNoFileFails() {
+      List<File> allSampleFiles = SampleFiles.all();
+
+      ExtractionResult actual = metaJava.getPartialMetaFrom(allSampleFiles);
+
+      assertThat(actual.classes()).isEqualTo(metaJava.getMetaFrom(allSampleFiles));
+      assertThat(actual.hasFailures()).isFalse();
+    }
+
+    @Test
+    void reportFilesWithSyntaxErrorsWithTheirDiagnostics() throws IOException {
+      File brokenFile = Files.writeString(tempDir.resolve("Broken.java"), "package org.jid;\nclass Broken { void m( }\n").toFile();
+      List<File> files = new ArrayList<>(sampleClasses);
+      files.add(brokenFile);
+
+      ExtractionResult actual = metaJava.getPartialMetaFrom(files);
+
+      assertThat(actual.classes()).isEqualTo(metaJava.getMetaFrom(sampleClasses));
+      assertThat(actual.failures()).singleElement().satisfies(failure -> {
+        assertThat(failure.file()).isEqualTo(brokenFile);
+        assertThat(failure.cause()).isNull();
+        assertThat(failure.diagnostics()).isNotEmpty().allSatisfy(diagnostic -> {
+          assertThat(diagnostic.line()).isEqualTo(2);
+          assertThat(diagnostic.code()).startsWith("compiler.err.");
+        });
+      });
+    }
+
+    @Test
+    void reportFilesThatCantBeRead() {
+      File notExistingFile = sampleRootPath.resolve("NotExistingFile.java").toFile();
+      List<File> files = new ArrayList<>(sampleClasses);
+      files.add(notExistingFile);
+
+      ExtractionResult actual = MetaJava.builder().parserBackend(ParserBackend.DECLARATIONS).build().getPartialMetaFrom(files);
+
+      assertThat(actual.classes()).isEqualTo(metaJava.getMetaFrom(sampleClasses));
+      assertThat(actual.failedFiles()).containsExactly(notExistingFile);
+    }
+
+    @Test
+    void extractAgainOnlyTheFailedFiles() throws IOException {
+      Path brokenFile = Files.writeString(tempDir.resolve("Broken.java"), "package org.jid;\nclass Broken {\n");
+      List<File> files = new ArrayList<>(sampleClasses);
+      files.add(brokenFile.toFile());
+      ExtractionResult firstRun = metaJava.getPartialMetaFrom(files);
+
+      Files.writeString(brokenFile, "package org.jid;\nclass Broken {}\n");
+      ExtractionResult retry = metaJava.getPartialMetaFrom(firstRun.failedFiles());
+
+      assertThat(retry.hasFailures()).isFalse();
+      assertThat(retry.classes()).map(ClassMeta::name).containsExactly("Broken");
+    }
+
+  }
+
+  @Nested
+  class StreamingTests {
+
+    @Test
+    void streamSameMetaThanGetMetaFrom() {
+      List<File> allSampleFiles = SampleFiles.all();
+
+      Set<ClassMeta> expected = metaJava.getMetaFrom(allSampleFiles);
+      try (Stream<ClassMeta> actual = metaJava.streamMetaFrom(allSampleFiles)) {
+        assertThat(actual.toList()).containsExactlyInAnyOrderElementsOf(expected);
+      }
+    }
+
+    @Test
+    void sendClassesOfEveryCompilationUnitToTheSink() {
+      File multiClassFile = sampleRootPath.resolve("sample1").resolve("MultipleClassIn1File.java").toFile();
+      var sourceFiles = new ArrayList<String>();
+      var classes = new HashSet<ClassMeta>();
+
+      metaJava.streamMetaFrom(List.of(sampleClass1, multiClassFile), (sourceFileUri, classesOfUnit) -> {
+        sourceFiles.add(sourceFileUri);
+        classes.addAll(classesOfUnit);
+      });
+
+      assertThat(sourceFiles).hasSize(2);
+      assertThat(sourceFiles).anyMatch(sourceFile -> sourceFile.endsWith("MultipleClassIn1File.java"));
+      assertThat(classes).isEqualTo(metaJava.getMetaFrom(List.of(sampleClass1, multiClassFile)));
+    }
+
+    @Test
+    void throwWhenSinkIsNull() {
+      assertThatThrownBy(() -> metaJava.streamMetaFrom(sampleClasses, null))
+        .isInstanceOf(IllegalArgumentException.class);
+    }
+
   }
 
   private ClassMeta getClassMeta(Set<ClassMeta> actual, String name) {
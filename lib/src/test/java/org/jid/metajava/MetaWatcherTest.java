@@ -0,0 +1,162 @@
+package org.jid.metajava;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.jid.metajava.model.ClassMeta;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MetaWatcherTest {
+
+  private static final Duration DEBOUNCE = Duration.ofMillis(50);
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void throwWhenParametersAreNotValid() {
+    var metaJava = new MetaJava();
+
+    assertThatThrownBy(() -> new MetaWatcher(null, tempDir)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new MetaWatcher(metaJava, null)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new MetaWatcher(metaJava, tempDir.resolve("missing"))).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new MetaWatcher(metaJava, tempDir, Duration.ofMillis(-1))).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new MetaWatcher(metaJava, tempDir).addListener(null)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Nested
+  class DeltaTests {
+
+    private final BlockingQueue<MetaDelta> deltas = new LinkedBlockingQueue<>();
+
+    @Test
+    void publishClassesOfExistingFilesWhenStarted() throws IOException, InterruptedException {
+      Path file = writeSource("org/jid/watch/Existing.java", "package org.jid.watch; public class Existing {}");
+
+      for (ParserBackend parserBackend : ParserBackend.values()) {
+        try (var watcher = startWatcher(parserBackend)) {
+          MetaDelta delta = nextDelta();
+
+          assertThat(delta.added()).containsOnlyKeys(file.toUri().toString());
+          assertThat(delta.added().get(file.toUri().toString())).map(ClassMeta::name).containsExactly("Existing");
+          assertThat(watcher.getClassesBySourceFile()).isEqualTo(delta.added());
+        }
+      }
+    }
+
+    @Test
+    void publishAddedChangedAndRemovedClassesByFile() throws IOException, InterruptedException {
+      for (ParserBackend parserBackend : ParserBackend.values()) {
+        try (var watcher = startWatcher(parserBackend)) {
+          Path file = writeSource("org/jid/watch/Watched.java", "package org.jid.watch; public class Watched {}");
+          String sourceFileUri = file.toUri().toString();
+          assertThat(nextDelta().added()).containsOnlyKeys(sourceFileUri);
+
+          writeSource("org/jid/watch/Watched.java", "package org.jid.watch; public class Watched { int field; }");
+          MetaDelta changedDelta = nextDelta();
+          assertThat(changedDelta.added()).isEmpty();
+          assertThat(changedDelta.changed().get(sourceFileUri)).singleElement()
+            .satisfies(classMeta -> assertThat(classMeta.fields()).hasSize(1));
+
+          Files.delete(file);
+          MetaDelta removedDelta = nextDelta();
+          assertThat(removedDelta.removed().get(sourceFileUri)).map(ClassMeta::name).containsExactly("Watched");
+          assertThat(watcher.getClassesBySourceFile()).isEmpty();
+        }
+      }
+    }
+
+    @Test
+    void removeClassesOfFilesThatNoLongerHaveAny() throws IOException, InterruptedException {
+      for (ParserBackend parserBackend : ParserBackend.values()) {
+        try (var watcher = startWatcher(parserBackend)) {
+          Path file = writeSource("org/jid/watch/Emptied.java", "package org.jid.watch; public class Emptied {}");
+          String sourceFileUri = file.toUri().toString();
+          assertThat(nextDelta().added()).containsOnlyKeys(sourceFileUri);
+
+          writeSource("org/jid/watch/Emptied.java", "package org.jid.watch;");
+
+          assertThat(nextDelta().removed().get(sourceFileUri)).map(ClassMeta::name).containsExactly("Emptied");
+          assertThat(watcher.getClassesBySourceFile()).isEmpty();
+        }
+      }
+    }
+
+    @Test
+    void keepPublishingWhenAListenerFails() throws IOException, InterruptedException {
+      try (var watcher = new MetaWatcher(new MetaJava(), tempDir, DEBOUNCE)) {
+        watcher.addListener(delta -> {
+          throw new IllegalStateException("Failing listener");
+        });
+        watcher.addListener(deltas::add);
+        watcher.start();
+
+        Path first = writeSource("org/jid/watch/First.java", "package org.jid.watch; class First {}");
+        assertThat(nextDelta().added()).containsOnlyKeys(first.toUri().toString());
+        Path second = writeSource("org/jid/watch/Second.java", "package org.jid.watch; class Second {}");
+        assertThat(nextDelta().added()).containsOnlyKeys(second.toUri().toString());
+      }
+    }
+
+    @Test
+    void notPublishFilesWhoseClassesDidNotChange()throws IOException, InterruptedException {
+      Path file = writeSource("org/jid/watch/Unchanged.java", "package org.jid.watch; public class Unchanged {}");
+
+      try (var watcher = startWatcher(ParserBackend.JAVAC)) {
+        nextDelta();
+        writeSource("org/jid/watch/Unchanged.java", "package org.jid.watch;\n\n// Comment\npublic class Unchanged {}");
+        Path otherFile = writeSource("org/jid/watch/Other.java", "package org.jid.watch; class Other {}");
+
+        assertThat(nextDelta().added()).containsOnlyKeys(otherFile.toUri().toString());
+        assertThat(watcher.getClassesBySourceFile()).containsOnlyKeys(file.toUri().toString(), otherFile.toUri().toString());
+      }
+    }
+
+    @Test
+    void watchNewDirectoriesAndDropFilesOfDeletedDirectories() throws IOException, InterruptedException {
+      try (var watcher = startWatcher(ParserBackend.DECLARATIONS)) {
+        Path first = writeSource("org/jid/watch/nested/First.java", "package org.jid.watch.nested; class First {}");
+        assertThat(nextDelta().added()).containsOnlyKeys(first.toUri().toString());
+        Path second = writeSource("org/jid/watch/nested/Second.java", "package org.jid.watch.nested; class Second {}");
+        assertThat(nextDelta().added()).containsOnlyKeys(second.toUri().toString());
+
+        Files.delete(first);
+        Files.delete(second);
+        Files.delete(second.getParent());
+
+        assertThat(nextDelta().removed()).containsOnlyKeys(first.toUri().toString(), second.toUri().toString());
+        assertThat(watcher.getClassesBySourceFile()).isEmpty();
+      }
+    }
+
+    private MetaWatcher startWatcher(ParserBackend parserBackend) {
+      var watcher = new MetaWatcher(MetaJava.builder().parserBackend(parserBackend).build(), tempDir, DEBOUNCE);
+      watcher.addListener(deltas::add);
+      watcher.start();
+      return watcher;
+    }
+
+    private MetaDelta nextDelta() throws InterruptedException {
+      MetaDelta delta = deltas.poll(10, TimeUnit.SECONDS);
+      assertThat(delta).isNotNull();
+      return delta;
+    }
+
+    private Path writeSource(String path, String source) throws IOException {
+      Path file = tempDir.resolve(path);
+      Files.createDirectories(file.getParent());
+      return Files.writeString(file, source);
+    }
+
+  }
+
+}
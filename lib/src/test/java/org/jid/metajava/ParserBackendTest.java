@@ -0,0 +1,196 @@
+package org.jid.metajava;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+import org.jid.metajava.internal.MetaCanonicalizer;
+import org.jid.metajava.model.ClassMeta;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Differential tests: the declarations parser must extract the same classes as javac.
+ */
+class ParserBackendTest {
+
+  private final MetaJava javacMetaJava = MetaJava.builder().parserBackend(ParserBackend.JAVAC).build();
+  private final MetaJava declarationsMetaJava = MetaJava.builder().parserBackend(ParserBackend.DECLARATIONS).build();
+  private final List<File> sampleFiles = SampleFiles.all();
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void throwWhenParserBackendIsNull() {
+    assertThatThrownBy(() -> MetaJava.builder().parserBackend(null)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Nested
+  class SampleCodeTests {
+
+    @Test
+    void readSameMetaThanJavacFromEverySampleFile() {
+      for (File sampleFile : sampleFiles) {
+        assertThat(declarationsMetaJava.getMetaFrom(List.of(sampleFile))).isEqualTo(javacMetaJava.getMetaFrom(List.of(sampleFile)));
+      }
+    }
+
+    @Test
+    void readSameMetaThanJavacInParallelAndStreaming() {
+      Set<ClassMeta> expected = javacMetaJava.getMetaFrom(sampleFiles);
+
+      assertThat(declarationsMetaJava.getMetaFrom(sampleFiles)).isEqualTo(expected);
+      assertThat(declarationsMetaJava.getMetaFromParallel(sampleFiles, 4)).isEqualTo(expected);
+      assertThat(declarationsMetaJava.getMetaFromPipelined(sampleFiles, 4)).isEqualTo(expected);
+      assertThat(declarationsMetaJava.getMetaFromBatched(sampleFiles, BatchLimit.bytes(4096))).isEqualTo(expected);
+      assertThat(declarationsMetaJava.getMetaFromSharded(sampleFiles, 2)).isEqualTo(expected);
+      try (Stream<ClassMeta> actual = declarationsMetaJava.streamMetaFrom(sampleFiles)) {
+        assertThat(actual.toList()).containsExactlyInAnyOrderElementsOf(expected);
+      }
+    }
+
+    @Test
+    void readSameMetaThanJavacWithCache() {
+      var cache = new MetaCache(tempDir.resolve("cache"));
+
+      assertThat(declarationsMetaJava.getMetaFromCached(sampleFiles, cache)).isEqualTo(javacMetaJava.getMetaFrom(sampleFiles));
+    }
+
+  }
+
+  @Nested
+  class JavacRenderingTests {
+
+    @Test
+    void renderInitializersAndTypesLikeJavac() throws IOException {
+      File file = writeSource("Rendering.java", """
+        package org.jid.rendering;
+
+        import static java.util.Map.Entry;
+        import java.util.*;
+
+        @SuppressWarnings(value = "a" + "b")
+        public interface Rendering<T> extends Map<String, Integer>, Comparable<T> {
+          String FOLDED = "a" + "b" + X + "c" + "d";
+          boolean NOT_FOLDED = X == "a" + "b";
+          int HEX = 0xFFFFFFFF;
+          int MIN = -2147483648;
+          long LONG = 0x7fff_ffffL;
+          float FLOAT = 1e10f;
+          double DOUBLE = .5;
+          char CHAR = '\\u00e9';
+          String ESCAPES = "\\t\\"é\\"";
+          String TEXT_BLOCK = \"""
+              hello
+                world
+              \""";
+          int[][] ARRAYS = new int[][]{{1}, {2, 3}};
+          Object CAST = (Runnable & java.io.Serializable) () -> System.out.println("x");
+          java.util.function.BinaryOperator<Integer> LAMBDA = (a, b) -> a * (b - 1);
+          Comparator<String> METHOD_REFERENCE = String::compareTo;
+          List<String> GENERIC_CALL = Collections.<String>emptyList();
+          int SHIFTS = HEX >> 2 >>> 1 << 3;
+          Object NEW = new java.util.HashMap<String, List<Integer>>();
+          Class<?> CLASS_LITERAL = String[].class;
+          boolean CONDITION = HEX > 2 ? !(MIN < 0) : HEX instanceof Integer;
+
+          <E extends Comparable<? super E>> List<? extends E> generic(String... args) throws java.io.IOException;
+
+          default int[] dimensions(int a[], final @Deprecated List<Map.Entry<String, ?>> b)[] {
+            return null;
+          }
+
+          record Point(int x, @Deprecated int y) {
+            Point {
+            }
+          }
+
+          enum Letter { A, @Deprecated B("b"); Letter() {} Letter(String name) {} }
+
+          non-sealed class Sub implements Rendering<String> { int a, b[] = {}, c = 3; static { } Sub() { } }
+        }
+        """);
+
+      assertThat(declarationsMetaJava.getMetaFrom(List.of(file))).isEqualTo(javacMetaJava.getMetaFrom(List.of(file)));
+    }
+
+    @Test
+    void fallBackToJavacForConstructsThatAreNotRead() throws IOException {
+      String source = """
+        package org.jid.fallback;
+
+        public class Fallback {
+          Runnable anonymous = new Runnable() {
+            public void run() {
+            }
+          };
+          Runnable block = () -> {
+          };
+        }
+        """;
+      File file = writeSource("Fallback.java", source);
+
+      assertThatThrownBy(() -> new DeclarationParser(source, "Fallback.java", new MetaCanonicalizer()).parseCompilationUnit())
+        .isInstanceOf(UnsupportedSyntaxException.class);
+      assertThat(declarationsMetaJava.getMetaFrom(List.of(file))).isEqualTo(javacMetaJava.getMetaFrom(List.of(file)));
+      assertThat(declarationsMetaJava.getMetaFrom(List.of(file)).iterator().next().fields()).hasSize(2);
+    }
+
+    private File writeSource(String fileName, String source) throws IOException {
+      return Files.writeString(tempDir.resolve(fileName), source).toFile();
+    }
+
+  }
+
+  @Nested
+  class JdkSourcesTests {
+
+    @Test
+    void readSameMetaThanJavacFromJdkSources() throws IOException {
+      Path srcZip = Paths.get(System.getProperty("java.home"), "lib", "src.zip");
+      assumeTrue(Files.exists(srcZip), "The JDK doesn't include src.zip");
+      List<File> jdkFiles = extractJavaFiles(srcZip, "java.base/java/util/");
+
+      assertThat(getClassesBySourceFile(declarationsMetaJava, jdkFiles)).isEqualTo(getClassesBySourceFile(javacMetaJava, jdkFiles));
+    }
+
+    private List<File> extractJavaFiles(Path srcZip, String directory) throws IOException {
+      try (var zipFile = new ZipFile(srcZip.toFile())) {
+        return zipFile.stream()
+          .filter(entry -> entry.getName().startsWith(directory) && entry.getName().endsWith(".java"))
+          .map(entry -> {
+            try (var content = zipFile.getInputStream(entry)) {
+              Path target = tempDir.resolve(entry.getName());
+              Files.createDirectories(target.getParent());
+              Files.write(target, content.readAllBytes());
+              return target.toFile();
+            } catch (IOException e) {
+              throw new RuntimeException(e);
+            }
+          })
+          .toList();
+      }
+    }
+
+    private Map<String, Set<ClassMeta>> getClassesBySourceFile(MetaJava metaJava, List<File> files) {
+      Map<String, Set<ClassMeta>> classesBySourceFile = new HashMap<>();
+      metaJava.streamMetaFrom(files, classesBySourceFile::put);
+      return classesBySourceFile;
+    }
+
+  }
+
+}
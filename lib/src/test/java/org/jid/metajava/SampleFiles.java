@@ -0,0 +1,40 @@
+package org.jid.metajava;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Sample source files of the tests, in {@code src/test/resources/sampleCode}
+ */
+public final class SampleFiles {
+
+  public static final Path ROOT = Paths.get(System.getProperty("user.dir"), "src", "test", "resources", "sampleCode", "org", "jid");
+
+  private SampleFiles() {
+  }
+
+  /**
+   * @return Every sample source file
+   */
+  public static List<File> all() {
+    try (Stream<Path> paths = Files.walk(ROOT)) {
+      return paths.filter(path -> path.toString().endsWith(".java")).map(Path::toFile).toList();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * @return The sample source file of the directory, like {@code file("sample1", "Class1.java")}
+   */
+  public static File file(String directory, String fileName) {
+    return ROOT.resolve(directory).resolve(fileName).toFile();
+  }
+
+}
@@ -0,0 +1,80 @@
+package org.jid.metajava;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreeScanner;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TypeRendererTest {
+
+  private static final String TYPES_SOURCE = """
+    package org.jid.types;
+
+    import static java.util.Map.Entry;
+    import java.util.*;
+
+    @SuppressWarnings(value = "unchecked")
+    public class Types<T extends Comparable<? super T>, E> extends java.util.AbstractMap<String, List<int[][]>>
+      implements Comparable<Map<T, E>>, java.io.Serializable {
+
+      private java.util.Map.Entry<? extends Number, ?>[] entries;
+      private @Deprecated String annotated;
+      private java.lang.@Deprecated Object annotatedSelect;
+      private String @Deprecated [] annotatedArray;
+      private int été = 1;
+      private String αβ;
+      private List<αβ> unicodeTypeArgument;
+
+      public <X extends Runnable & AutoCloseable> void run(X x, final String... args) throws java.io.IOException, RuntimeException {
+      }
+
+      public Set<Entry<String, List<int[][]>>> entrySet() {
+        return null;
+      }
+
+      public int compareTo(Map<T, E> other) {
+        return 0;
+      }
+    }
+    """;
+
+  private final CompilationUnitTreeFactory compilationUnitTreeFactory = new CompilationUnitTreeFactory(new DefaultJavacProvider());
+
+  @Test
+  void renderEveryTreeOfTypesLikeToString() {
+    var typesSource = InMemorySource.of("org/jid/types/Types.java", TYPES_SOURCE);
+    compilationUnitTreeFactory.forEachInMemoryCompilationUnitTree(List.of(typesSource),
+      TypeRendererTest::assertEveryTreeRenderedLikeToString);
+  }
+
+  @Test
+  void renderEveryTreeOfSampleCodeLikeToString() {
+    List<File> sampleFiles = SampleFiles.all();
+
+    compilationUnitTreeFactory.forEachCompilationUnitTree(sampleFiles, TypeRendererTest::assertEveryTreeRenderedLikeToString);
+  }
+
+  private static void assertEveryTreeRenderedLikeToString(CompilationUnitTree compilationUnitTree) {
+    var trees = new ArrayList<Tree>();
+    new TreeScanner<Void, Void>() {
+      @Override
+      public Void scan(Tree tree, Void unused) {
+        if (tree != null && tree != compilationUnitTree) {
+          trees.add(tree);
+        }
+        return super.scan(tree, unused);
+      }
+    }.scan(compilationUnitTree, null);
+
+    var typeRenderer = new TypeRenderer();
+    assertThat(trees).isNotEmpty()
+      .allSatisfy(tree -> assertThat(typeRenderer.render(tree)).isEqualTo(tree.toString()));
+  }
+
+}
@@ -0,0 +1,175 @@
+package org.jid.metajava.diff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.jid.metajava.MetaJava;
+import org.jid.metajava.ParserBackend;
+import org.jid.metajava.SampleFiles;
+import org.jid.metajava.model.ClassMeta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MetaDiffTest {
+
+  private static final String OLD_SERVICE = """
+    package org.jid.api;
+
+    public class Service {
+
+      private int count;
+
+      public Service() {
+      }
+
+      @Deprecated
+      public void run(int times) {
+      }
+
+      public String name() {
+        return null;
+      }
+
+      public static class Inner {
+        public void first() {
+        }
+      }
+    }
+    """;
+
+  private static final String NEW_SERVICE = """
+    package org.jid.api;
+
+    public final class Service {
+
+      private long total;
+
+      public Service() {
+      }
+
+      public Service(String name) {
+      }
+
+      public void run(int times) {
+      }
+
+      @SuppressWarnings("unchecked")
+      public CharSequence name() {
+        return null;
+      }
+
+      public static class Inner {
+        public void second() {
+        }
+      }
+    }
+    """;
+
+  private MetaJava metaJava = new MetaJava();
+  private List<File> sampleFiles;
+  private Set<ClassMeta> sampleClasses;
+
+  @TempDir
+  private Path tempDir;
+
+  @BeforeEach
+  void setup() {
+    sampleFiles = SampleFiles.all();
+    sampleClasses = metaJava.getMetaFrom(sampleFiles);
+  }
+
+  @Test
+  void findNoChangesBetweenEqualClasses() {
+    Set<ClassMeta> sameClasses = metaJava.getMetaFrom(sampleFiles);
+
+    assertThat(new MetaDiff(sampleClasses, sameClasses).isEmpty()).isTrue();
+    assertThat(new MetaDiff(sampleClasses, sameClasses, 4).changes()).isEmpty();
+  }
+
+  @Test
+  void findNoChangesBetweenClassesReadFromOtherSourceFiles() throws IOException {
+    Set<ClassMeta> oldClasses = extract("old", OLD_SERVICE);
+    Set<ClassMeta> newClasses = extract("new", OLD_SERVICE);
+
+    assertThat(new MetaDiff(oldClasses, newClasses).isEmpty()).isTrue();
+  }
+
+  @Test
+  void findChangedElementsWithTheirPaths() throws IOException {
+    Set<ClassMeta> oldClasses = extract("old", OLD_SERVICE);
+    Set<ClassMeta> newClasses = extract("new", NEW_SERVICE);
+
+    var diff = new MetaDiff(oldClasses, newClasses);
+
+    assertThat(diff.changes()).map(change -> change.type() + " " + change.element() + " " + change.path()).containsExactly(
+      "CHANGED CLASS org.jid.api.Service",
+      "ADDED CONSTRUCTOR org.jid.api.Service#<init>(String)",
+      "REMOVED FIELD org.jid.api.Service#count",
+      "CHANGED METHOD org.jid.api.Service#name()",
+      "ADDED ANNOTATION org.jid.api.Service#name()@SuppressWarnings",
+      "REMOVED ANNOTATION org.jid.api.Service#run(int)@Deprecated",
+      "ADDED FIELD org.jid.api.Service#total",
+      "REMOVED METHOD org.jid.api.Service.Inner#first()",
+      "ADDED METHOD org.jid.api.Service.Inner#second()");
+  }
+
+  @Test
+  void findAddedAndRemovedClasses() {
+    ClassMeta removedClass = sampleClasses.iterator().next();
+    Set<ClassMeta> newClasses = new HashSet<>(sampleClasses);
+    newClasses.remove(removedClass);
+
+    var removed = new MetaDiff(sampleClasses, newClasses);
+    var added = new MetaDiff(newClasses, sampleClasses, 2);
+
+    assertThat(removed.changes()).singleElement().satisfies(change -> {
+      assertThat(change.type()).isEqualTo(MetaChange.Type.REMOVED);
+      assertThat(change.element()).isEqualTo(MetaChange.Element.CLASS);
+      assertThat(change.oldElement()).isEqualTo(removedClass);
+      assertThat(change.newElement()).isNull();
+    });
+    assertThat(added.changes(MetaChange.Type.ADDED)).singleElement()
+      .satisfies(change -> assertThat(change.newElement()).isEqualTo(removedClass));
+  }
+
+  @Test
+  void computeSameFingerprintsWithEveryParserBackend() {
+    Set<ClassMeta> declarationsClasses = MetaJava.builder().parserBackend(ParserBackend.DECLARATIONS).build()
+      .getMetaFrom(sampleFiles);
+
+    assertThat(declarationsClasses).map(Fingerprints::of)
+      .containsExactlyInAnyOrderElementsOf(sampleClasses.stream().map(Fingerprints::of).toList());
+  }
+
+  @Test
+  void computeSameFingerprintsWhenTheyAreCached() {
+    var cachedFingerprints = Fingerprints.cached();
+
+    for (ClassMeta classMeta : sampleClasses) {
+      assertThat(cachedFingerprints.fingerprint(classMeta)).isEqualTo(Fingerprints.of(classMeta));
+      assertThat(cachedFingerprints.fingerprint(classMeta)).isEqualTo(Fingerprints.of(classMeta));
+    }
+  }
+
+  @Test
+  void throwWhenParametersAreNotValid() {
+    assertThatThrownBy(() -> new MetaDiff(null, sampleClasses)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new MetaDiff(sampleClasses, null)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new MetaDiff(sampleClasses, sampleClasses, 0)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private Set<ClassMeta> extract(String directory, String source) throws IOException {
+    Path sourceFile = Files.createDirectories(tempDir.resolve(directory)).resolve("Service.java");
+    Files.writeString(sourceFile, source);
+    return metaJava.getMetaFrom(List.of(sourceFile.toFile()));
+  }
+
+}
@@ -0,0 +1,84 @@
+package org.jid.metajava.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Set;
+import java.util.stream.Stream;
+import org.jid.metajava.MetaJava;
+import org.jid.metajava.SampleFiles;
+import org.jid.metajava.model.ClassMeta;
+import org.jid.metajava.model.ClassType;
+import org.jid.metajava.model.MethodMeta;
+import org.jid.metajava.model.Modifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MetaIndexTest {
+
+  private MetaJava metaJava = new MetaJava();
+  private Set<ClassMeta> sampleClasses;
+  private MetaIndex index;
+
+  @BeforeEach
+  void setup() {
+    sampleClasses = metaJava.getMetaFrom(SampleFiles.all());
+    index = new MetaIndex(sampleClasses);
+  }
+
+  @Test
+  void throwWhenParametersAreNotValid() {
+    assertThatThrownBy(() -> new MetaIndex(null)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new MetaIndex(sampleClasses, 0)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void findClassesByFullyQualifiedName() {
+    assertThat(index.findClasses("org.jid.sample1.Class1")).map(ClassMeta::name).containsExactly("Class1");
+    assertThat(index.findClasses("org.jid.sample1.NestedClasses.InnerClass2.ChildInnerClass2"))
+      .map(ClassMeta::type).containsExactly(ClassType.RECORD);
+    assertThat(index.findClasses("org.jid.sample1.Missing")).isEmpty();
+  }
+
+  @Test
+  void findClassesByAnnotationModifierAndType() {
+    assertThat(index.findClassesByAnnotation("MyClassAnnotation2")).map(ClassMeta::name).containsExactly("Class1");
+    assertThat(index.findClassesByModifier(Modifier.ABSTRACT)).map(ClassMeta::name).contains("Class1");
+    assertThat(index.findClassesByType(ClassType.ENUM)).map(ClassMeta::name).contains("Enum1", "InnerEnum")
+      .hasSize((int) flatten(sampleClasses).filter(classMeta -> classMeta.type() == ClassType.ENUM).count());
+  }
+
+  @Test
+  void findMembersByAnnotation() {
+    assertThat(index.findMethodsByAnnotation("Deprecated"))
+      .map(member -> member.declaringClass().name() + "." + member.member().name())
+      .containsExactly("MethodSample.<init>");
+    assertThat(index.findMethodsByAnnotation("MyMethodAnnotation13")).map(IndexedMember::member).map(MethodMeta::name)
+      .containsExactly("m12");
+    assertThat(index.findFieldsByAnnotation("Deprecated"))
+      .map(member -> member.declaringClass().name() + "." + member.member().name())
+      .containsExactlyInAnyOrder("Interface1.MY_CONST_I", "Enum1.VAR1", "Record1.param2");
+  }
+
+  @Test
+  void findSameElementsWhenBuiltInParallel() {
+    var parallelIndex = new MetaIndex(sampleClasses, 4);
+
+    for (ClassType classType : ClassType.values()) {
+      assertThat(parallelIndex.findClassesByType(classType)).isEqualTo(index.findClassesByType(classType));
+    }
+    for (Modifier modifier : Modifier.values()) {
+      assertThat(parallelIndex.findClassesByModifier(modifier)).isEqualTo(index.findClassesByModifier(modifier));
+    }
+    assertThat(parallelIndex.findFieldsByAnnotation("Deprecated")).isEqualTo(index.findFieldsByAnnotation("Deprecated"));
+    flatten(sampleClasses).forEach(classMeta -> {
+      String fullyQualifiedName = classMeta.packageName() + "." + classMeta.name();
+      assertThat(parallelIndex.findClasses(fullyQualifiedName)).containsExactly(classMeta);
+    });
+  }
+
+  private static Stream<ClassMeta> flatten(Set<ClassMeta> classes) {
+    return classes.stream().flatMap(classMeta -> Stream.concat(Stream.of(classMeta), flatten(classMeta.nestedClasses())));
+  }
+
+}
@@ -0,0 +1,223 @@
+package org.jid.metajava.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Set;
+import org.jid.metajava.InMemorySource;
+import org.jid.metajava.MetaJava;
+import org.jid.metajava.SampleFiles;
+import org.jid.metajava.model.ClassMeta;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class TypeHierarchyTest {
+
+  private MetaJava metaJava = new MetaJava();
+
+  @Test
+  void throwWhenClassesAreNull() {
+    assertThatThrownBy(() -> new TypeHierarchy(null)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new TypeHierarchy(Set.of()).add(null)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new TypeHierarchy(Set.of()).remove(null)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Nested
+  class SampleCodeTests {
+
+    @Test
+    void resolveSupertypesOfSampleClasses() {
+      var hierarchy = new TypeHierarchy(readSampleClasses());
+
+      assertThat(hierarchy.findDirectSupertypes("org.jid.sample1.Class1"))
+        .containsExactlyInAnyOrder("org.jid.sample1.ClassParent1", "org.jid.sample1.I1", "org.jid.sample1.I2");
+      assertThat(hierarchy.findDirectSupertypes("org.jid.sample2.ClassInheritanceWithGenerics"))
+        .containsExactlyInAnyOrder("org.jid.sample2.ClassParent2", "org.jid.sample2.I3", "org.jid.sample2.I4");
+      assertThat(hierarchy.findDirectSubtypes("org.jid.sample1.InterfaceParent1")).map(ClassMeta::name)
+        .containsExactlyInAnyOrder("Interface1", "Interface2ExtendWithGenerics");
+      assertThat(hierarchy.findClass("org.jid.sample1.InterfaceParent1")).isEmpty();
+      assertThat(hierarchy.findClass("org.jid.sample1.NestedClasses.InnerClass2.ChildInnerClass2")).isPresent();
+    }
+
+    @Test
+    void findPermittedSubtypesOfSampleSealedInterface() {
+      var hierarchy = new TypeHierarchy(readSampleClasses());
+
+      assertThat(hierarchy.findSealedHierarchy("org.jid.sample1.SealedClasses")).map(ClassMeta::name)
+        .containsExactlyInAnyOrder("FinalChild", "NonSealedChild");
+    }
+
+    private Set<ClassMeta> readSampleClasses() {
+      return metaJava.getMetaFrom(SampleFiles.all());
+    }
+
+  }
+
+  @Nested
+  class ResolutionTests {
+
+    @Test
+    void resolveImportedNestedAndJdkTypes() {
+      var hierarchy = new TypeHierarchy(metaJava.getMetaFromInMemory(List.of(
+        InMemorySource.of("org/jid/shapes/Shape.java", """
+          package org.jid.shapes;
+
+          import java.io.Serializable;
+
+          public interface Shape extends Serializable, Comparable<Shape> {
+            interface Visitor {
+            }
+          }
+          """),
+        InMemorySource.of("org/jid/shapes/Base.java", """
+          package org.jid.shapes;
+
+          import java.util.*;
+
+          public abstract class Base implements Shape, RandomAccess {
+            class BaseVisitor implements Visitor, Runnable {
+            }
+          }
+          """),
+        InMemorySource.of("org/jid/shapes/util/Functions.java", """
+          package org.jid.shapes.util;
+
+          import org.jid.shapes.Base;
+
+          public class Functions {
+            class Circle extends Base implements java.util.function.Function<String, Long> {
+            }
+          }
+          """))));
+
+      assertThat(hierarchy.findDirectSupertypes("org.jid.shapes.Shape"))
+        .containsExactlyInAnyOrder("java.io.Serializable", "java.lang.Comparable");
+      assertThat(hierarchy.findDirectSupertypes("org.jid.shapes.Base"))
+        .containsExactlyInAnyOrder("org.jid.shapes.Shape", "java.util.RandomAccess");
+      assertThat(hierarchy.findDirectSupertypes("org.jid.shapes.Base.BaseVisitor"))
+        .containsExactlyInAnyOrder("org.jid.shapes.Shape.Visitor", "java.lang.Runnable");
+      assertThat(hierarchy.findDirectSupertypes("org.jid.shapes.util.Functions.Circle"))
+        .containsExactlyInAnyOrder("org.jid.shapes.Base", "java.util.function.Function");
+      assertThat(hierarchy.findAllSupertypes("org.jid.shapes.util.Functions.Circle")).containsExactlyInAnyOrder(
+        "org.jid.shapes.Base", "java.util.function.Function", "org.jid.shapes.Shape", "java.util.RandomAccess",
+        "java.io.Serializable", "java.lang.Comparable");
+      assertThat(hierarchy.findAllSubtypes("java.io.Serializable")).map(ClassMeta::name).containsExactly("Shape", "Base", "Circle");
+    }
+
+    @Test
+    void resolveMemberTypesInheritedByEnclosingClasses() {
+      var hierarchy = new TypeHierarchy(metaJava.getMetaFromInMemory(List.of(
+        InMemorySource.of("org/jid/ui/Panel.java", """
+          package org.jid.ui;
+
+          public class Panel extends javax.swing.JComponent {
+            class AccessiblePanel extends AccessibleJComponent {
+            }
+          }
+          """))));
+
+      assertThat(hierarchy.findDirectSupertypes("org.jid.ui.Panel.AccessiblePanel"))
+        .containsExactly("javax.swing.JComponent.AccessibleJComponent");
+    }
+
+  }
+
+  @Nested
+  class SealedHierarchyTests {
+
+    @Test
+    void findSubtypesOfSealedHierarchyWithAndWithoutPermits() {
+      var hierarchy = new TypeHierarchy(metaJava.getMetaFromInMemory(List.of(
+        InMemorySource.of("org/jid/vehicles/Vehicle.java", """
+          package org.jid.vehicles;
+
+          public sealed interface Vehicle permits Car, Truck {
+          }
+          """),
+        InMemorySource.of("org/jid/vehicles/Car.java", """
+          package org.jid.vehicles;
+
+          public sealed class Car implements Vehicle {
+          }
+
+          final class SportsCar extends Car {
+          }
+          """),
+        InMemorySource.of("org/jid/vehicles/Truck.java", """
+          package org.jid.vehicles;
+
+          public non-sealed class Truck implements Vehicle {
+          }
+          """),
+        InMemorySource.of("org/jid/vehicles/PickupTruck.java", """
+          package org.jid.vehicles;
+
+          public class PickupTruck extends Truck {
+          }
+          """))));
+
+      assertThat(hierarchy.findSealedHierarchy("org.jid.vehicles.Vehicle")).map(ClassMeta::name)
+        .containsExactlyInAnyOrder("Car", "Truck", "SportsCar");
+      assertThat(hierarchy.findAllSubtypes("org.jid.vehicles.Vehicle")).map(ClassMeta::name)
+        .containsExactlyInAnyOrder("Car", "Truck", "SportsCar", "PickupTruck");
+      assertThat(hierarchy.findSealedHierarchy("org.jid.vehicles.Truck")).isEmpty();
+    }
+
+  }
+
+  @Nested
+  class IncrementalUpdateTests {
+
+    private final InMemorySource animal = InMemorySource.of("org/jid/zoo/Animal.java", """
+      package org.jid.zoo;
+
+      public interface Animal {
+      }
+      """);
+    private final InMemorySource dog = InMemorySource.of("org/jid/zoo/Dog.java", """
+      package org.jid.zoo;
+
+      public class Dog implements Animal {
+      }
+      """);
+    private final InMemorySource puppy = InMemorySource.of("org/jid/zoo/Puppy.java", """
+      package org.jid.zoo;
+
+      public class Puppy extends Dog {
+      }
+      """);
+
+    @Test
+    void giveSameAnswersAfterAddingClassesThanWhenBuiltWithThem() {
+      Set<ClassMeta> allClasses = metaJava.getMetaFromInMemory(List.of(animal, dog, puppy));
+      var hierarchy = new TypeHierarchy(metaJava.getMetaFromInMemory(List.of(dog, puppy)));
+      assertThat(hierarchy.findAllSubtypes("org.jid.zoo.Animal")).map(ClassMeta::name).containsExactly("Dog", "Puppy");
+      assertThat(hierarchy.findClass("org.jid.zoo.Animal")).isEmpty();
+
+      hierarchy.add(metaJava.getMetaFromInMemory(List.of(animal)));
+
+      var builtHierarchy = new TypeHierarchy(allClasses);
+      assertThat(hierarchy.findClass("org.jid.zoo.Animal")).isPresent();
+      assertThat(hierarchy.findAllSupertypes("org.jid.zoo.Puppy")).isEqualTo(builtHierarchy.findAllSupertypes("org.jid.zoo.Puppy"))
+        .containsExactly("org.jid.zoo.Dog", "org.jid.zoo.Animal");
+      assertThat(hierarchy.findAllSubtypes("org.jid.zoo.Animal")).isEqualTo(builtHierarchy.findAllSubtypes("org.jid.zoo.Animal"));
+    }
+
+    @Test
+    void keepSupertypesUsedByOtherClassesWhenRemovingClasses() {
+      Set<ClassMeta> dogClasses = metaJava.getMetaFromInMemory(List.of(dog));
+      var hierarchy = new TypeHierarchy(metaJava.getMetaFromInMemory(List.of(animal, puppy)));
+      hierarchy.add(dogClasses);
+
+      hierarchy.remove(dogClasses);
+
+      assertThat(hierarchy.findClass("org.jid.zoo.Dog")).isEmpty();
+      assertThat(hierarchy.findDirectSupertypes("org.jid.zoo.Puppy")).containsExactly("org.jid.zoo.Dog");
+      assertThat(hierarchy.findDirectSupertypes("org.jid.zoo.Dog")).isEmpty();
+      assertThat(hierarchy.findAllSubtypes("org.jid.zoo.Animal")).isEmpty();
+    }
+
+  }
+
+}
@@ -0,0 +1,114 @@
+package org.jid.metajava.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.jid.metajava.MetaJava;
+import org.jid.metajava.SampleFiles;
+import org.jid.metajava.model.AnnotationArgument;
+import org.jid.metajava.model.AnnotationMeta;
+import org.jid.metajava.model.ClassMeta;
+import org.jid.metajava.model.ImportMeta;
+import org.jid.metajava.model.Modifier;
+import org.junit.jupiter.api.Test;
+
+class MetaCanonicalizerTest {
+
+  private MetaJava metaJava = new MetaJava();
+  private final List<File> sampleFiles = SampleFiles.all();
+
+  @Test
+  void keepOnlyOneInstanceOfEqualValues() {
+    Set<ClassMeta> actual = metaJava.getMetaFrom(sampleFiles);
+
+    var references = new ArrayList<Object>();
+    collectCanonicalizableValues(actual, references);
+
+    Set<Object> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+    instances.addAll(references);
+    Set<Object> distinctValues = new HashSet<>(references);
+
+    assertThat(instances).hasSize(distinctValues.size());
+    assertThat(instances.size()).isLessThan(references.size());
+  }
+
+  @Test
+  void reduceTheValuesRetainedByTheClasses() {
+    Set<ClassMeta> actual = metaJava.getMetaFrom(sampleFiles);
+
+    // Without canonicalization, every reference to a value is an instance of its own
+    var references = new ArrayList<Object>();
+    collectCanonicalizableValues(actual, references);
+    Set<Object> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+    instances.addAll(references);
+    long referencedChars = countStringChars(references);
+    long retainedChars = countStringChars(instances);
+    System.out.printf("Sample classes keep %d instances for %d references (%d%% less) and %d string chars for %d (%d%% less)%n",
+      instances.size(), references.size(), reductionPercentage(instances.size(), references.size()), retainedChars,
+      referencedChars, reductionPercentage(retainedChars, referencedChars));
+
+    assertThat(reductionPercentage(instances.size(), references.size())).isGreaterThanOrEqualTo(40);
+    assertThat(reductionPercentage(retainedChars, referencedChars)).isGreaterThanOrEqualTo(30);
+  }
+
+  @Test
+  void shareImportsBetweenClassesOfTheSameCompilationUnit() {
+    File multiClassFile = SampleFiles.file("sample1", "MultipleClassIn1File.java");
+
+    Set<ClassMeta> actual = metaJava.getMetaFrom(List.of(multiClassFile));
+
+    Set<Object> importSets = Collections.newSetFromMap(new IdentityHashMap<>());
+    actual.forEach(classMeta -> importSets.add(classMeta.imports()));
+    assertThat(importSets).hasSize(1);
+  }
+
+  @Test
+  void shareAnnotationsWithSameNameAndArguments() {
+    var canonicalizer = new MetaCanonicalizer();
+
+    AnnotationMeta override1 = canonicalizer.canonical(new AnnotationMeta("Override", Set.of()));
+    AnnotationMeta override2 = canonicalizer.canonical(new AnnotationMeta("Override", Set.of()));
+
+    assertThat(override2).isSameAs(override1);
+  }
+
+  // Strings, annotations, imports and modifier sets reachable from the classes
+  private static void collectCanonicalizableValues(Object value, List<Object> references) {
+    if (value instanceof String || value instanceof AnnotationMeta || value instanceof ImportMeta
+      || value instanceof AnnotationArgument || isModifierSet(value)) {
+      references.add(value);
+    }
+    if (value instanceof Record record) {
+      for (RecordComponent component : record.getClass().getRecordComponents()) {
+        try {
+          collectCanonicalizableValues(component.getAccessor().invoke(record), references);
+        } catch (ReflectiveOperationException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+    } else if (value instanceof Collection<?> collection) {
+      collection.forEach(element -> collectCanonicalizableValues(element, references));
+    }
+  }
+
+  private static long countStringChars(Collection<Object> values) {
+    return values.stream().filter(String.class::isInstance).mapToLong(value -> ((String) value).length()).sum();
+  }
+
+  private static long reductionPercentage(long retained, long referenced) {
+    return 100 - retained * 100 / referenced;
+  }
+
+  private static boolean isModifierSet(Object value) {
+    return value instanceof Set<?> set && !set.isEmpty() && set.iterator().next() instanceof Modifier;
+  }
+
+}
@@ -0,0 +1,108 @@
+package org.jid.metajava.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.jid.metajava.MetaJava;
+import org.jid.metajava.SampleFiles;
+import org.jid.metajava.model.ClassMeta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ColumnarWriterTest {
+
+  private MetaJava metaJava = new MetaJava();
+  private List<File> sampleFiles;
+  private Set<ClassMeta> sampleClasses;
+
+  @TempDir
+  private Path tempDir;
+
+  @BeforeEach
+  void setup() {
+    sampleFiles = SampleFiles.all();
+    sampleClasses = metaJava.getMetaFrom(sampleFiles);
+  }
+
+  @Test
+  void writeOneCsvRowPerClassNestedClassesIncluded() throws IOException {
+    try (var writer = new ColumnarWriter(tempDir, ColumnarFormat.CSV);
+      Stream<ClassMeta> classes = metaJava.streamMetaFrom(sampleFiles)) {
+      classes.forEach(writer::write);
+    }
+
+    List<String> classRows = Files.readAllLines(tempDir.resolve("classes.csv"));
+    assertThat(classRows.getFirst()).isEqualTo("id,parent_class_id,name,package_name,type,source_file,modifiers");
+    assertThat(classRows).hasSize(1 + countClasses(sampleClasses));
+    assertThat(Files.readAllLines(tempDir.resolve("methods.csv"))).hasSize(1 + sampleClasses.stream()
+      .mapToInt(classMeta -> classMeta.methods().size() + classMeta.constructors().size()).sum()
+      + nestedClasses(sampleClasses).stream()
+        .mapToInt(classMeta -> classMeta.methods().size() + classMeta.constructors().size()).sum());
+  }
+
+  @Test
+  void writeClassNamesAndPackagesAsIdsOfTheStringsTable() throws IOException {
+    try (var writer = new ColumnarWriter(tempDir, ColumnarFormat.CSV)) {
+      sampleClasses.forEach(writer::write);
+    }
+
+    List<String> strings = Files.readAllLines(tempDir.resolve("strings.csv")).stream().skip(1)
+      .map(row -> row.substring(row.indexOf(',') + 2, row.length() - 1))
+      .toList();
+    List<String> classNames = Files.readAllLines(tempDir.resolve("classes.csv")).stream().skip(1)
+      .map(row -> row.split(",", -1))
+      .map(columns -> strings.get(Integer.parseInt(columns[3])) + "." + strings.get(Integer.parseInt(columns[2])))
+      .toList();
+    assertThat(classNames).contains("org.jid.sample1.Class1", "org.jid.sample1.NestedClasses");
+  }
+
+  @Test
+  void writeBinaryTablesInChunks() throws IOException {
+    try (var writer = new ColumnarWriter(tempDir, ColumnarFormat.BINARY)) {
+      sampleClasses.forEach(writer::write);
+    }
+
+    try (var in = new DataInputStream(Files.newInputStream(tempDir.resolve("classes.mjc")))) {
+      assertThat(in.readInt()).isEqualTo(BinaryTableFile.MAGIC);
+      assertThat(in.readInt()).isEqualTo(BinaryTableFile.FORMAT_VERSION);
+      int columnCount = in.readInt();
+      List<String> columnNames = new ArrayList<>();
+      for (int i = 0; i < columnCount; i++) {
+        columnNames.add(in.readUTF());
+      }
+      assertThat(columnNames).containsExactly("id", "parent_class_id", "name", "package_name", "type", "source_file", "modifiers");
+
+      int rows = in.readInt();
+      assertThat(rows).isEqualTo(countClasses(sampleClasses));
+      for (int row = 0; row < rows; row++) {
+        assertThat(in.readInt()).isEqualTo(row);
+      }
+      in.skipNBytes(4L * rows * (columnCount - 1));
+      assertThat(in.readInt()).isZero();
+      assertThat(in.read()).isEqualTo(-1);
+    }
+  }
+
+  private static int countClasses(Set<ClassMeta> classes) {
+    return classes.size() + nestedClasses(classes).size();
+  }
+
+  private static List<ClassMeta> nestedClasses(Set<ClassMeta> classes) {
+    var nestedClasses = new ArrayList<ClassMeta>();
+    classes.forEach(classMeta -> {
+      nestedClasses.addAll(classMeta.nestedClasses());
+      nestedClasses.addAll(nestedClasses(classMeta.nestedClasses()));
+    });
+    return nestedClasses;
+  }
+
+}
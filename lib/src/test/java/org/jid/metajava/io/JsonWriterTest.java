@@ -0,0 +1,134 @@
+package org.jid.metajava.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.jid.metajava.MetaJava;
+import org.jid.metajava.SampleFiles;
+import org.jid.metajava.model.ClassMeta;
+import org.jid.metajava.model.ClassType;
+import org.jid.metajava.model.Modifier;
+import org.jid.metajava.model.VariableMeta;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JsonWriterTest {
+
+  private MetaJava metaJava = new MetaJava();
+  private final List<File> sampleFiles = SampleFiles.all();
+
+  @TempDir
+  private Path tempDir;
+
+  @Test
+  void readSameClassesThanWritten() {
+    Set<ClassMeta> expected = metaJava.getMetaFrom(sampleFiles);
+    var out = new ByteArrayOutputStream();
+
+    try (var writer = new JsonWriter(out)) {
+      expected.forEach(writer::write);
+    }
+
+    try (var reader = new JsonReader(new ByteArrayInputStream(out.toByteArray())); Stream<ClassMeta> actual = reader.stream()) {
+      assertThat(actual.toList()).containsExactlyInAnyOrderElementsOf(expected);
+    }
+  }
+
+  @Test
+  void writeClassesWhileTheyAreExtracted() throws IOException {
+    Path json = tempDir.resolve("classes.json");
+
+    try (var writer = new JsonWriter(FileChannel.open(json, StandardOpenOption.CREATE, StandardOpenOption.WRITE));
+      Stream<ClassMeta> classes = metaJava.streamMetaFrom(sampleFiles)) {
+      classes.forEach(writer::write);
+    }
+
+    try (var reader = new JsonReader(FileChannel.open(json)); Stream<ClassMeta> actual = reader.stream()) {
+      assertThat(actual.toList()).containsExactlyInAnyOrderElementsOf(metaJava.getMetaFrom(sampleFiles));
+    }
+  }
+
+  @Test
+  void escapeStrings() {
+    String initializer = "quote \" backslash \\ newline \n tab \t control \u0001 latin é euro € emoji \uD83D\uDE00 lone \uD800";
+    var field = new VariableMeta("field", "String", initializer, Set.of(Modifier.PRIVATE), Set.of());
+    var classMeta = new ClassMeta("Escapes", ClassType.CLASS, Set.of(), Set.of(), "org.jid", null, Set.of(), Set.of(), Set.of(),
+      Set.of(field), Set.of(), Set.of(), Set.of(), Set.of());
+    var out = new ByteArrayOutputStream();
+
+    try (var writer = new JsonWriter(out)) {
+      writer.write(classMeta);
+    }
+
+    String json = out.toString(StandardCharsets.UTF_8);
+    assertThat(json).contains("\"initializer\":\"quote \\\" backslash \\\\ newline \\n tab \\t control \\u0001 latin é euro € "
+      + "emoji \uD83D\uDE00 lone \\ud800\"");
+    try (var reader = new JsonReader(new ByteArrayInputStream(out.toByteArray()))) {
+      assertThat(reader.read()).isEqualTo(classMeta);
+      assertThat(reader.read()).isNull();
+    }
+  }
+
+  @Test
+  void readOutputAsTruncatedWhenWriteFails() {
+    var classWithNullField = new ClassMeta("NullField", ClassType.CLASS, Set.of(), Set.of(), "org.jid", null, Set.of(), Set.of(),
+      Set.of(), Collections.singleton(null), Set.of(), Set.of(), Set.of(), Set.of());
+    var out = new ByteArrayOutputStream();
+
+    try (var writer = new JsonWriter(out)) {
+      writer.write(metaJava.getMetaFrom(sampleFiles).iterator().next());
+      assertThatThrownBy(() -> writer.write(classWithNullField)).isInstanceOf(NullPointerException.class);
+    }
+
+    try (var reader = new JsonReader(new ByteArrayInputStream(out.toByteArray())); Stream<ClassMeta> actual = reader.stream()) {
+      assertThatThrownBy(actual::toList).isInstanceOf(UncheckedIOException.class);
+    }
+  }
+
+  @Test
+  void readEmptyArray() {
+    var out = new ByteArrayOutputStream();
+
+    new JsonWriter(out).close();
+
+    try (var reader = new JsonReader(new ByteArrayInputStream(out.toByteArray()))) {
+      assertThat(reader.read()).isNull();
+    }
+  }
+
+  @Test
+  void skipUnknownMembers() {
+    String json = "[{\"name\":\"Class1\",\"unknown\":{\"a\":[1,-2.5e3,true,null]},\"type\":\"RECORD\"}]";
+
+    try (var reader = new JsonReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))) {
+      ClassMeta classMeta = reader.read();
+
+      assertThat(classMeta.name()).isEqualTo("Class1");
+      assertThat(classMeta.type()).isEqualTo(ClassType.RECORD);
+      assertThat(classMeta.methods()).isEmpty();
+    }
+  }
+
+  @Test
+  void throwWhenInputIsNotJson() {
+    var in = new ByteArrayInputStream("not json".getBytes(StandardCharsets.UTF_8));
+
+    try (var reader = new JsonReader(in)) {
+      assertThatThrownBy(reader::read).isInstanceOf(UncheckedIOException.class);
+    }
+  }
+
+}
@@ -0,0 +1,148 @@
+package org.jid.metajava.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.jid.metajava.MetaJava;
+import org.jid.metajava.SampleFiles;
+import org.jid.metajava.model.AnnotationArgument;
+import org.jid.metajava.model.AnnotationMeta;
+import org.jid.metajava.model.ClassMeta;
+import org.jid.metajava.model.ClassType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MetaSnapshotTest {
+
+  private MetaJava metaJava = new MetaJava();
+  private Set<ClassMeta> sampleClasses;
+
+  @TempDir
+  private Path tempDir;
+
+  @BeforeEach
+  void setup() {
+    sampleClasses = metaJava.getMetaFrom(SampleFiles.all());
+  }
+
+  @Test
+  void loadSameClassesThanSaved() {
+    Path snapshot = tempDir.resolve("snapshot.mjs");
+
+    MetaSnapshot.save(sampleClasses, snapshot);
+    Set<ClassMeta> actual = MetaSnapshot.load(snapshot);
+
+    assertThat(actual).isEqualTo(sampleClasses);
+  }
+
+  @Test
+  void streamSameClassesThanSaved() {
+    Path snapshot = tempDir.resolve("snapshot.mjs");
+
+    MetaSnapshot.save(sampleClasses, snapshot);
+
+    try (Stream<ClassMeta> actual = MetaSnapshot.stream(snapshot)) {
+      assertThat(actual.toList()).containsExactlyInAnyOrderElementsOf(sampleClasses);
+    }
+  }
+
+  @Test
+  void loadEmptySnapshot() {
+    Path snapshot = tempDir.resolve("snapshot.mjs");
+
+    MetaSnapshot.save(Set.of(), snapshot);
+
+    assertThat(MetaSnapshot.load(snapshot)).isEmpty();
+  }
+
+  @Test
+  void keepPreviousSnapshotWhenSaveFails() {
+    Path snapshot = tempDir.resolve("snapshot.mjs");
+    MetaSnapshot.save(sampleClasses, snapshot);
+    List<ClassMeta> classesWithNull = new ArrayList<>(sampleClasses);
+    classesWithNull.add(null);
+
+    assertThatThrownBy(() -> MetaSnapshot.save(classesWithNull, snapshot)).isInstanceOf(NullPointerException.class);
+
+    assertThat(MetaSnapshot.load(snapshot)).isEqualTo(sampleClasses);
+    assertThat(List.of(tempDir.toFile().list())).containsExactly("snapshot.mjs");
+  }
+
+  @Test
+  void readSnapshotAsTruncatedWhenWriteFails() {
+    var out = new ByteArrayOutputStream();
+    try (var writer = new SnapshotWriter(out)) {
+      writer.write(sampleClasses.iterator().next());
+      assertThatThrownBy(() -> writer.write(null)).isInstanceOf(NullPointerException.class);
+    }
+
+    try (var reader = new SnapshotReader(new ByteArrayInputStream(out.toByteArray()))) {
+      assertThatThrownBy(() -> reader.stream().toList()).isInstanceOf(UncheckedIOException.class);
+    }
+  }
+
+  @Test
+  void loadStringsWithUnpairedSurrogatesAsSaved() {
+    Path snapshot = tempDir.resolve("snapshot.mjs");
+    var annotation = new AnnotationMeta("Value", Set.of(new AnnotationArgument("value", "\"\uD800 \uDC00 \uFFFD \uD83D\uDE00\"")));
+    var classMeta = new ClassMeta("Surrogates", ClassType.CLASS, Set.of(), Set.of(annotation), "org.jid", null, Set.of(), Set.of(),
+      Set.of(), Set.of(), Set.of(), Set.of(), Set.of(), Set.of());
+
+    MetaSnapshot.save(Set.of(classMeta), snapshot);
+
+    assertThat(MetaSnapshot.load(snapshot)).containsExactly(classMeta);
+  }
+
+  @Test
+  void loadOneOfTheSnapshotsSavedConcurrentlyToTheSameFile() throws Exception {
+    Path snapshot = tempDir.resolve("snapshot.mjs");
+    List<Set<ClassMeta>> snapshots = sampleClasses.stream().map(Set::of).toList();
+
+    List<Callable<Void>> saves = snapshots.stream().<Callable<Void>>map(classes -> () -> {
+      MetaSnapshot.save(classes, snapshot);
+      return null;
+    }).toList();
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+      for (Future<Void> save : executor.invokeAll(saves)) {
+        save.get();
+      }
+    }
+
+    assertThat(snapshots).contains(MetaSnapshot.load(snapshot));
+    assertThat(List.of(tempDir.toFile().list())).containsExactly("snapshot.mjs");
+  }
+
+  @Test
+  void throwWhenParametersAreNull() {
+    Path snapshot = tempDir.resolve("snapshot.mjs");
+
+    assertThatThrownBy(() -> MetaSnapshot.save(null, snapshot)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> MetaSnapshot.save(sampleClasses, null)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> MetaSnapshot.load(null)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> MetaSnapshot.stream(null)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void throwWhenFileIsNotASnapshot() throws IOException {
+    Path snapshot = Files.writeString(tempDir.resolve("snapshot.mjs"), "not a snapshot");
+
+    assertThatThrownBy(() -> MetaSnapshot.load(snapshot)).isInstanceOf(UncheckedIOException.class);
+  }
+
+}